@@ -0,0 +1,54 @@
+package me.alb_i986.testing.assertions.retry.core;
+
+/**
+ * Gets notified of what happens in each run of the retry loop,
+ * e.g. to keep track of the history of the actual values, or to log.
+ * <p>
+ * All of the methods do nothing by default.
+ *
+ * @param <T> the type of the actual values
+ */
+public interface AttemptListener<T> {
+
+    /**
+     * The loop is about to call the supplier.
+     */
+    default void onAttemptStarted() {
+    }
+
+    /**
+     * @param actual the value supplied
+     * @param matches whether the value satisfies the condition
+     * @param aborts whether the value satisfies the abort condition
+     */
+    default void onValue(T actual, boolean matches, boolean aborts) {
+    }
+
+    /**
+     * The version probe returned the same value as in the previous attempt,
+     * hence neither the supplier was called, nor the conditions were tested.
+     *
+     * @see RetryLoopBuilder#probe(java.util.function.Supplier)
+     */
+    default void onUnchanged() {
+    }
+
+    /**
+     * The supplier, or the condition, threw.
+     */
+    default void onException(Exception e) {
+    }
+
+    /**
+     * The loop is about to wait before the next attempt.
+     */
+    default void onWait() {
+    }
+
+    /**
+     * The wait policy threw: the next attempt will be made right away,
+     * unless the exception is an {@link InterruptedException}.
+     */
+    default void onWaitFailed(Exception e) {
+    }
+}
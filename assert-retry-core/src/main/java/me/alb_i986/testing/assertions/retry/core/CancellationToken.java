@@ -0,0 +1,37 @@
+package me.alb_i986.testing.assertions.retry.core;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allows to stop one or more retry loops from another thread, e.g. when a test times out,
+ * or an executor is shut down.
+ * <p>
+ * Once cancelled, a token stays cancelled: the loops using it stop before the next attempt,
+ * with the status {@link RetryOutcome.Status#CANCELLED}.
+ * Unlike an interrupt, cancelling does not disturb what the supplier is doing.
+ * Waits which use {@link #await(long)} are woken up right away.
+ * <p>
+ * Thread-safe.
+ */
+public final class CancellationToken {
+
+    private final CountDownLatch cancelled = new CountDownLatch(1);
+
+    public void cancel() {
+        cancelled.countDown();
+    }
+
+    public boolean isCancelled() {
+        return cancelled.getCount() == 0;
+    }
+
+    /**
+     * Waits for the given amount of time, unless the token is cancelled in the meantime.
+     *
+     * @return true if the token was cancelled
+     */
+    public boolean await(long nanos) throws InterruptedException {
+        return cancelled.await(nanos, TimeUnit.NANOSECONDS);
+    }
+}
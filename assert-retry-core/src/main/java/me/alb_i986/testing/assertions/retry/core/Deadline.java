@@ -0,0 +1,56 @@
+package me.alb_i986.testing.assertions.retry.core;
+
+import java.time.Duration;
+
+/**
+ * Defines when the retry mechanism should give up.
+ *
+ * @see #after(Duration)
+ */
+public interface Deadline {
+
+    /**
+     * Starts counting down.
+     * Called once at the beginning of each run of the retry loop.
+     *
+     * @return the countdown to check for expiry
+     */
+    Countdown begin();
+
+    /**
+     * @return the maximum amount of time the retry loop may last, before giving up
+     */
+    Duration getDuration();
+
+    interface Countdown {
+
+        /**
+         * @return true if the deadline has passed since the countdown began
+         */
+        boolean isExpired();
+    }
+
+    /**
+     * @return a deadline expiring after the given amount of time, measured by {@link System#nanoTime()}
+     *
+     * @throws IllegalArgumentException if the duration is not positive
+     */
+    static Deadline after(Duration duration) {
+        if (duration == null || duration.isZero() || duration.isNegative()) {
+            throw new IllegalArgumentException("The duration must be positive");
+        }
+        long nanos = duration.toNanos();
+        return new Deadline() {
+            @Override
+            public Countdown begin() {
+                long end = System.nanoTime() + nanos;
+                return () -> System.nanoTime() - end > 0;
+            }
+
+            @Override
+            public Duration getDuration() {
+                return duration;
+            }
+        };
+    }
+}
@@ -0,0 +1,207 @@
+package me.alb_i986.testing.assertions.retry.core;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A hashed timing wheel (Varghese and Lauck), handing the tasks over to an executor when their delay expires.
+ * <p>
+ * The wheel is an array of buckets, each a doubly linked list of timers.
+ * A single thread, the ticker, advances the wheel one bucket per tick, and expires the timers in the bucket
+ * whose remaining rounds are over.
+ * Scheduling and cancelling a timer are O(1): both just enqueue the timer, which the ticker
+ * adds to, or unlinks from, its bucket at the next tick.
+ * <p>
+ * The precision is the duration of a tick: a timer may expire up to a tick late, never early.
+ */
+final class HashedWheelTimer implements AutoCloseable {
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Executor executor;
+    private final Queue<Timer> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timer> cancelled = new ConcurrentLinkedQueue<>();
+    private final Thread ticker;
+    private final long startNanos;
+
+    private volatile boolean closed;
+    private long tick;
+
+    /**
+     * @param tickNanos the duration of a tick, i.e. the precision of the timer
+     * @param wheelSize the number of buckets, rounded up to a power of two
+     * @param executor runs the tasks expired
+     */
+    HashedWheelTimer(long tickNanos, int wheelSize, Executor executor) {
+        this.tickNanos = tickNanos;
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.executor = executor;
+        this.startNanos = System.nanoTime();
+        this.ticker = new Thread(this::tick, "assert-retry-timer");
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    /**
+     * Schedules the given task to run after the given delay.
+     *
+     * @throws IllegalStateException if closed
+     */
+    Timer schedule(Runnable task, long delayNanos) {
+        if (closed) {
+            throw new IllegalStateException("The timer is closed");
+        }
+        Timer timer = new Timer(task, System.nanoTime() - startNanos + delayNanos);
+        scheduled.add(timer);
+        return timer;
+    }
+
+    private void tick() {
+        while (!closed) {
+            long deadline = tickNanos * (tick + 1);
+            long sleepNanos;
+            while ((sleepNanos = deadline - (System.nanoTime() - startNanos)) > 0) {
+                LockSupport.parkNanos(this, sleepNanos);
+                if (closed) {
+                    return;
+                }
+            }
+            unlinkCancelled();
+            addScheduled();
+            wheel[(int) (tick & mask)].expire(deadline);
+            tick++;
+        }
+    }
+
+    private void addScheduled() {
+        Timer timer;
+        while ((timer = scheduled.poll()) != null) {
+            if (timer.state.get() != Timer.PENDING) {
+                continue;
+            }
+            long expiryTick = timer.deadlineNanos / tickNanos;
+            timer.remainingRounds = Math.max(0, (expiryTick - tick) / wheel.length);
+            wheel[(int) (Math.max(expiryTick, tick) & mask)].add(timer);
+        }
+    }
+
+    private void unlinkCancelled() {
+        Timer timer;
+        while ((timer = cancelled.poll()) != null) {
+            if (timer.bucket != null) {
+                timer.bucket.remove(timer);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(ticker);
+    }
+
+    final class Timer {
+
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadlineNanos;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        // accessed by the ticker only
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timer prev;
+        private Timer next;
+
+        private Timer(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * @return false if the task has already been handed over to the executor
+         */
+        boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED)) {
+                return false;
+            }
+            cancelled.add(this);
+            return true;
+        }
+
+        private void expire() {
+            if (state.compareAndSet(PENDING, EXPIRED)) {
+                try {
+                    executor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    // shutting down
+                }
+            }
+        }
+    }
+
+    private final class Bucket {
+
+        private Timer head;
+        private Timer tail;
+
+        void add(Timer timer) {
+            timer.bucket = this;
+            if (head == null) {
+                head = tail = timer;
+            } else {
+                tail.next = timer;
+                timer.prev = tail;
+                tail = timer;
+            }
+        }
+
+        void expire(long deadlineNanos) {
+            Timer timer = head;
+            while (timer != null) {
+                Timer next = timer.next;
+                if (timer.remainingRounds <= 0 && timer.deadlineNanos <= deadlineNanos) {
+                    remove(timer);
+                    timer.expire();
+                } else if (timer.state.get() == Timer.CANCELLED) {
+                    remove(timer);
+                } else {
+                    timer.remainingRounds--;
+                }
+                timer = next;
+            }
+        }
+
+        void remove(Timer timer) {
+            if (timer.bucket != this) {
+                return;
+            }
+            if (timer.prev != null) {
+                timer.prev.next = timer.next;
+            } else {
+                head = timer.next;
+            }
+            if (timer.next != null) {
+                timer.next.prev = timer.prev;
+            } else {
+                tail = timer.prev;
+            }
+            timer.prev = null;
+            timer.next = null;
+            timer.bucket = null;
+        }
+    }
+}
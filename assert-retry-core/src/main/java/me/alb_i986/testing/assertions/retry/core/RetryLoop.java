@@ -0,0 +1,277 @@
+package me.alb_i986.testing.assertions.retry.core;
+
+import me.alb_i986.testing.assertions.retry.core.Deadline.Countdown;
+import me.alb_i986.testing.assertions.retry.core.RetryOutcome.Status;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * The retry mechanism: calls a {@code Supplier} until the value supplied satisfies a condition,
+ * or the deadline expires, waiting between attempts.
+ * <p>
+ * Free of any dependency, it can be used outside of tests too, e.g. for readiness checks:
+ * <pre>
+ * RetryOutcome&lt;Health&gt; outcome = RetryLoop.&lt;Health&gt;until(health -&gt; health.isUp())
+ *         .deadline(Deadline.after(Duration.ofSeconds(30)))
+ *         .waitPolicy(WaitPolicy.sleep(Duration.ofMillis(500)))
+ *         .retryOn(IOException.class::isInstance)
+ *         .build()
+ *         .run(healthCheck);
+ * </pre>
+ *
+ * A run does not allocate anything per attempt, except what the supplier, the version probe, the condition, and the listener do.
+ * <p>
+ * Instances can be run many times, but not concurrently, unless the {@link Deadline} supports it.
+ *
+ * @param <T> the type of the actual values
+ *
+ * @see RetryLoopBuilder
+ */
+public final class RetryLoop<T> {
+
+    private static final AttemptListener<Object> NO_LISTENER = new AttemptListener<Object>() {
+    };
+
+    private final Predicate<? super T> condition;
+    private final Predicate<? super T> abortCondition;
+    private final Deadline deadline;
+    private final WaitPolicy waitPolicy;
+    private final Predicate<? super Exception> retryOn;
+    private final AttemptListener<? super T> listener;
+    private final CancellationToken cancellation;
+    private final Supplier<?> versionProbe;
+    private final Comparator<? super T> progress;
+    private final Deadline stallWindow;
+
+    RetryLoop(Predicate<? super T> condition, Predicate<? super T> abortCondition, Deadline deadline,
+              WaitPolicy waitPolicy, Predicate<? super Exception> retryOn, AttemptListener<? super T> listener,
+              CancellationToken cancellation, Supplier<?> versionProbe,
+              Comparator<? super T> progress, Deadline stallWindow) {
+        this.condition = condition;
+        this.abortCondition = abortCondition;
+        this.deadline = deadline;
+        this.waitPolicy = waitPolicy;
+        this.retryOn = retryOn;
+        this.listener = listener != null ? listener : NO_LISTENER;
+        this.cancellation = cancellation;
+        this.versionProbe = versionProbe;
+        this.progress = progress;
+        this.stallWindow = stallWindow;
+    }
+
+    /**
+     * @param condition the condition under which the actual value is as expected
+     */
+    public static <T> RetryLoopBuilder<T> until(Predicate<? super T> condition) {
+        return new RetryLoopBuilder<>(condition);
+    }
+
+    /**
+     * Runs the loop in the current thread.
+     * <p>
+     * If the thread is interrupted, the loop stops before the next wait, or as soon as the wait policy throws
+     * {@link InterruptedException}, or the supplier throws with the interrupt status set,
+     * with the status {@link Status#INTERRUPTED}, and the interrupt status set.
+     */
+    public RetryOutcome<T> run(Supplier<? extends T> supplier) {
+        Run run = new Run();
+
+        while (true) {
+            RetryOutcome<T> outcome = run.attempt(supplier);
+            if (outcome != null) {
+                return outcome;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                return run.outcome(Status.INTERRUPTED);
+            }
+            listener.onWait();
+
+            long waitStart = System.nanoTime();
+            try {
+                waitPolicy.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                listener.onWaitFailed(e);
+                run.waitNanos += System.nanoTime() - waitStart;
+                return run.outcome(Status.INTERRUPTED);
+            } catch (Exception e) {
+                // continue with the next attempt
+                listener.onWaitFailed(e);
+            }
+            run.waitNanos += System.nanoTime() - waitStart;
+        }
+    }
+
+    /**
+     * Runs the loop on the given scheduler: the attempts are run by its worker threads,
+     * and the waits between attempts, which last the given interval, are scheduled on its timer,
+     * instead of running the wait policy.
+     * <p>
+     * Cancelling the future returned stops the loop.
+     *
+     * @param interval how long to wait between attempts
+     *
+     * @return the future outcome, which completes exceptionally if the supplier, the condition,
+     *         or the listener throws an {@link Error}
+     */
+    public CompletableFuture<RetryOutcome<T>> runAsync(Supplier<? extends T> supplier, Duration interval,
+                                                       RetryScheduler scheduler) {
+        AsyncRun run = new AsyncRun(supplier, interval.toNanos(), scheduler);
+        scheduler.execute(run);
+        return run.future;
+    }
+
+    /**
+     * The state of a run of the loop.
+     */
+    private class Run {
+
+        private final long start = System.nanoTime();
+        private final Countdown countdown = deadline.begin();
+        long waitNanos;
+        private int attempts;
+        private T lastValue;
+        private Exception lastException;
+        private boolean probed;
+        private Object lastVersion;
+        private Countdown stallCountdown = stallWindow != null ? stallWindow.begin() : null;
+        private T best;
+
+        /**
+         * @return the outcome, if the loop is over, or null
+         */
+        RetryOutcome<T> attempt(Supplier<? extends T> supplier) {
+            if (cancellation != null && cancellation.isCancelled()) {
+                return outcome(Status.CANCELLED);
+            }
+            attempts++;
+            try {
+                listener.onAttemptStarted();
+                if (versionProbe != null && isUnchanged()) {
+                    listener.onUnchanged();
+                    return expiry();
+                }
+                lastValue = null;
+                lastException = null;
+                lastValue = supplier.get();
+
+                if (condition.test(lastValue)) {
+                    listener.onValue(lastValue, true, false);
+                    return outcome(Status.MATCHED);
+                }
+                boolean aborts = abortCondition != null && abortCondition.test(lastValue);
+                listener.onValue(lastValue, false, aborts);
+                if (aborts) {
+                    return outcome(Status.ABORTED);
+                }
+            } catch (Exception e) {
+                probed = false; // whatever the probe says, the supplier has to be called again
+                lastValue = null;
+                lastException = e;
+                listener.onException(e);
+                if (Thread.currentThread().isInterrupted()) {
+                    return outcome(Status.INTERRUPTED);
+                }
+                if (retryOn == null) {
+                    return outcome(Status.SUPPLIER_THREW);
+                } else if (!retryOn.test(e)) {
+                    return outcome(Status.SUPPLIER_THREW_UNCONFIGURED_EXCEPTION);
+                }
+            }
+            // outside of the try: a failing comparator is a bug to be reported as such, not a failure of the supplier
+            if (progress != null && lastException == null) {
+                trackProgress(lastValue);
+            }
+            return expiry();
+        }
+
+        /**
+         * @return the outcome, if the deadline expired, or the values stalled, or null
+         */
+        private RetryOutcome<T> expiry() {
+            if (countdown.isExpired()) {
+                return outcome(Status.TIMEOUT_EXPIRED);
+            }
+            if (stallCountdown != null && stallCountdown.isExpired()) {
+                return outcome(Status.STALLED);
+            }
+            return null;
+        }
+
+        private void trackProgress(T value) {
+            if (value == null) {
+                return;
+            }
+            if (best == null) {
+                best = value; // the baseline: the window began with the loop
+            } else if (progress.compare(value, best) > 0) {
+                best = value;
+                stallCountdown = stallWindow.begin();
+            }
+        }
+
+        private boolean isUnchanged() {
+            Object version = versionProbe.get();
+            boolean unchanged = probed && Objects.equals(version, lastVersion);
+            probed = true;
+            lastVersion = version;
+            return unchanged;
+        }
+
+        RetryOutcome<T> outcome(Status status) {
+            return new RetryOutcome<>(status, attempts, lastValue, lastException, System.nanoTime() - start, waitNanos);
+        }
+    }
+
+    private final class AsyncRun extends Run implements Runnable {
+
+        private final Supplier<? extends T> supplier;
+        private final long intervalNanos;
+        private final RetryScheduler scheduler;
+        private final CompletableFuture<RetryOutcome<T>> future = new CompletableFuture<>();
+
+        private volatile HashedWheelTimer.Timer timer;
+        private long waitStart;
+
+        AsyncRun(Supplier<? extends T> supplier, long intervalNanos, RetryScheduler scheduler) {
+            this.supplier = supplier;
+            this.intervalNanos = intervalNanos;
+            this.scheduler = scheduler;
+            future.whenComplete((outcome, e) -> {
+                HashedWheelTimer.Timer pending = timer;
+                if (pending != null) {
+                    pending.cancel();
+                }
+            });
+        }
+
+        @Override
+        public void run() {
+            if (future.isDone()) {
+                return;
+            }
+            if (waitStart != 0) {
+                waitNanos += System.nanoTime() - waitStart;
+            }
+            RetryOutcome<T> outcome;
+            try {
+                outcome = attempt(supplier);
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+                return;
+            }
+            if (outcome != null) {
+                future.complete(outcome);
+                return;
+            }
+            listener.onWait();
+            waitStart = System.nanoTime();
+            timer = scheduler.schedule(this, intervalNanos);
+        }
+    }
+}
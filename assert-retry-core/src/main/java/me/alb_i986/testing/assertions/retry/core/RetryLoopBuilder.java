@@ -0,0 +1,126 @@
+package me.alb_i986.testing.assertions.retry.core;
+
+import java.util.Comparator;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Provides a fluent DSL for configuring a {@link RetryLoop}.
+ */
+public class RetryLoopBuilder<T> {
+
+    private final Predicate<? super T> condition;
+    private Predicate<? super T> abortCondition;
+    private Deadline deadline;
+    private WaitPolicy waitPolicy;
+    private Predicate<? super Exception> retryOn;
+    private AttemptListener<? super T> listener;
+    private CancellationToken cancellation;
+    private Supplier<?> versionProbe;
+    private Comparator<? super T> progress;
+    private Deadline stallWindow;
+
+    RetryLoopBuilder(Predicate<? super T> condition) {
+        if (condition == null) {
+            throw new IllegalArgumentException("The condition must not be null");
+        }
+        this.condition = condition;
+    }
+
+    /**
+     * Stop retrying as soon as an actual value satisfies the given condition,
+     * meaning that the expected one will never come.
+     */
+    public RetryLoopBuilder<T> abortWhen(Predicate<? super T> abortCondition) {
+        this.abortCondition = abortCondition;
+        return this;
+    }
+
+    public RetryLoopBuilder<T> deadline(Deadline deadline) {
+        if (deadline == null) {
+            throw new IllegalArgumentException("The deadline must not be null");
+        }
+        this.deadline = deadline;
+        return this;
+    }
+
+    public RetryLoopBuilder<T> waitPolicy(WaitPolicy waitPolicy) {
+        if (waitPolicy == null) {
+            throw new IllegalArgumentException("The wait policy must not be null");
+        }
+        this.waitPolicy = waitPolicy;
+        return this;
+    }
+
+    /**
+     * Retry in case the supplier throws an exception satisfying the given condition.
+     * By default, the loop stops at the first exception.
+     */
+    public RetryLoopBuilder<T> retryOn(Predicate<? super Exception> exceptionCondition) {
+        this.retryOn = exceptionCondition;
+        return this;
+    }
+
+    public RetryLoopBuilder<T> listener(AttemptListener<? super T> listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Stop retrying as soon as the given token is cancelled.
+     */
+    public RetryLoopBuilder<T> cancelWith(CancellationToken cancellation) {
+        this.cancellation = cancellation;
+        return this;
+    }
+
+    /**
+     * Call the supplier, and test the conditions, only if the value returned by the given probe has changed
+     * since the previous attempt, e.g. an ETag, a row version, or the last-modified time of a file.
+     * Meant for suppliers which are much more expensive than the probe.
+     * The first attempt, and the attempts after the supplier threw, always call the supplier.
+     *
+     * @see AttemptListener#onUnchanged()
+     */
+    public RetryLoopBuilder<T> probe(Supplier<?> versionProbe) {
+        this.versionProbe = versionProbe;
+        return this;
+    }
+
+    /**
+     * Stop retrying, with the status {@link RetryOutcome.Status#STALLED}, as soon as the actual values
+     * make no progress for the given window, e.g. a row count which stops growing,
+     * while the {@link #deadline(Deadline) deadline} keeps bounding the loop as a whole.
+     * This way, the deadline can be generous, without wasting time when the values are stuck.
+     * <p>
+     * A value makes progress if it is greater than the greatest one so far, according to the given comparator,
+     * e.g. {@code Comparator.naturalOrder()} for growing values, or {@code Comparator.reverseOrder()} for shrinking ones.
+     * The window begins with the loop, and begins again at each progress.
+     * Null values, and exceptions, make no progress.
+     */
+    public RetryLoopBuilder<T> failWhenStalled(Comparator<? super T> progress, Deadline stallWindow) {
+        if (progress == null) {
+            throw new IllegalArgumentException("The progress comparator must not be null");
+        }
+        if (stallWindow == null) {
+            throw new IllegalArgumentException("The stall window must not be null");
+        }
+        this.progress = progress;
+        this.stallWindow = stallWindow;
+        return this;
+    }
+
+    /**
+     * @throws IllegalStateException if the deadline or the wait policy were not set
+     */
+    public RetryLoop<T> build() {
+        if (deadline == null) {
+            throw new IllegalStateException("The deadline must be specified");
+        }
+        if (waitPolicy == null) {
+            throw new IllegalStateException("The wait policy must be specified");
+        }
+        return new RetryLoop<>(condition, abortCondition, deadline, waitPolicy, retryOn, listener, cancellation,
+                versionProbe, progress, stallWindow);
+    }
+}
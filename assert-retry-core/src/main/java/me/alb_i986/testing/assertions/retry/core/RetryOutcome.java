@@ -0,0 +1,95 @@
+package me.alb_i986.testing.assertions.retry.core;
+
+/**
+ * The result of a run of the retry loop.
+ *
+ * @param <T> the type of the actual values
+ */
+public final class RetryOutcome<T> {
+
+    public enum Status {
+        MATCHED,
+        TIMEOUT_EXPIRED,
+        ABORTED,
+        SUPPLIER_THREW,
+        SUPPLIER_THREW_UNCONFIGURED_EXCEPTION,
+        /**
+         * The thread running the loop was interrupted. The interrupt status is preserved.
+         */
+        INTERRUPTED,
+        /**
+         * The {@link CancellationToken} was cancelled.
+         */
+        CANCELLED,
+        /**
+         * The actual values stopped making progress towards the expected one.
+         *
+         * @see RetryLoopBuilder#failWhenStalled(java.util.Comparator, Deadline)
+         */
+        STALLED,
+    }
+
+    private final Status status;
+    private final int attempts;
+    private final T lastValue;
+    private final Exception lastException;
+    private final long elapsedNanos;
+    private final long waitNanos;
+
+    RetryOutcome(Status status, int attempts, T lastValue, Exception lastException, long elapsedNanos, long waitNanos) {
+        this.status = status;
+        this.attempts = attempts;
+        this.lastValue = lastValue;
+        this.lastException = lastException;
+        this.elapsedNanos = elapsedNanos;
+        this.waitNanos = waitNanos;
+    }
+
+    public boolean isMatched() {
+        return status == Status.MATCHED;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return how many times the supplier was called
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * @return the last value supplied, which is the matching one in case of success, or null
+     */
+    public T getLastValue() {
+        return lastValue;
+    }
+
+    /**
+     * @return the exception thrown by the last attempt, or null
+     */
+    public Exception getLastException() {
+        return lastException;
+    }
+
+    /**
+     * @return how long the retry loop lasted, in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return how long the retry loop spent waiting between attempts, in nanoseconds
+     */
+    public long getWaitNanos() {
+        return waitNanos;
+    }
+
+    @Override
+    public String toString() {
+        return status + " after " + attempts + " attempt(s)";
+    }
+}
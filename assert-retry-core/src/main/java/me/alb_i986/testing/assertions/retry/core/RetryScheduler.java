@@ -0,0 +1,88 @@
+package me.alb_i986.testing.assertions.retry.core;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs many retry loops concurrently, e.g. tens of thousands, on a bounded pool of worker threads,
+ * rather than a sleeping thread per loop.
+ * <p>
+ * The attempts are run by the workers, and the waits between attempts are scheduled on a hashed timing wheel,
+ * where scheduling and cancelling cost O(1) whatever the number of loops waiting.
+ * The precision of the waits is the duration of a tick of the wheel.
+ * <p>
+ * The suppliers should not block for long, as they hold a worker while running.
+ *
+ * @see RetryLoop#runAsync(java.util.function.Supplier, Duration, RetryScheduler)
+ */
+public final class RetryScheduler implements AutoCloseable {
+
+    private static final Duration DEFAULT_TICK = Duration.ofMillis(10);
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final ExecutorService workers;
+    private final HashedWheelTimer timer;
+
+    /**
+     * Ticks every 10ms, on a wheel of 512 buckets.
+     *
+     * @param workerThreads how many attempts can run at the same time
+     */
+    public RetryScheduler(int workerThreads) {
+        this(workerThreads, DEFAULT_TICK, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * @param workerThreads how many attempts can run at the same time
+     * @param tick the duration of a tick of the wheel, i.e. the precision of the waits
+     * @param wheelSize the number of buckets of the wheel (rounded up to a power of two):
+     *                  the longer the waits, with respect to the tick, the more buckets spread the load
+     *
+     * @throws IllegalArgumentException if any argument is not positive
+     */
+    public RetryScheduler(int workerThreads, Duration tick, int wheelSize) {
+        if (workerThreads <= 0) {
+            throw new IllegalArgumentException("The number of worker threads must be positive");
+        }
+        if (tick == null || tick.isZero() || tick.isNegative()) {
+            throw new IllegalArgumentException("The tick must be positive");
+        }
+        if (wheelSize <= 0) {
+            throw new IllegalArgumentException("The wheel size must be positive");
+        }
+        this.workers = Executors.newFixedThreadPool(workerThreads, new WorkerThreadFactory());
+        this.timer = new HashedWheelTimer(tick.toNanos(), wheelSize, workers);
+    }
+
+    void execute(Runnable task) {
+        workers.execute(task);
+    }
+
+    HashedWheelTimer.Timer schedule(Runnable task, long delayNanos) {
+        return timer.schedule(task, delayNanos);
+    }
+
+    /**
+     * Stops the timer and the workers: the loops still running will not complete.
+     */
+    @Override
+    public void close() {
+        timer.close();
+        workers.shutdownNow();
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "assert-retry-worker-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
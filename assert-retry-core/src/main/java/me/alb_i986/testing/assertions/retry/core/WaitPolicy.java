@@ -0,0 +1,27 @@
+package me.alb_i986.testing.assertions.retry.core;
+
+import java.time.Duration;
+
+/**
+ * Defines how to wait between attempts.
+ *
+ * @see #sleep(Duration)
+ */
+@FunctionalInterface
+public interface WaitPolicy {
+
+    void await() throws Exception;
+
+    /**
+     * @return a policy sleeping for the given amount of time between attempts
+     *
+     * @throws IllegalArgumentException if the duration is negative
+     */
+    static WaitPolicy sleep(Duration duration) {
+        if (duration == null || duration.isNegative()) {
+            throw new IllegalArgumentException("The duration must not be negative");
+        }
+        long millis = duration.toMillis();
+        return () -> Thread.sleep(millis);
+    }
+}
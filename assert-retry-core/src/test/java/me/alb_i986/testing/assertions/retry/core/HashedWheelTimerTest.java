@@ -0,0 +1,62 @@
+package me.alb_i986.testing.assertions.retry.core;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HashedWheelTimerTest {
+
+    private final HashedWheelTimer sut = new HashedWheelTimer(TimeUnit.MILLISECONDS.toNanos(1), 8, Runnable::run);
+
+    @After
+    public void tearDown() {
+        sut.close();
+    }
+
+    @Test
+    public void shouldNotRunTheTaskBeforeTheDelay() throws Exception {
+        CountDownLatch ran = new CountDownLatch(1);
+        AtomicLong ranAfterNanos = new AtomicLong();
+        long start = System.nanoTime();
+
+        // 30ms on a wheel of 8 buckets of 1ms: the timer goes round the wheel more than once
+        sut.schedule(() -> {
+            ranAfterNanos.set(System.nanoTime() - start);
+            ran.countDown();
+        }, TimeUnit.MILLISECONDS.toNanos(30));
+
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        assertTrue(ranAfterNanos.get() >= TimeUnit.MILLISECONDS.toNanos(30));
+    }
+
+    @Test
+    public void shouldRunTheTasksInOrderOfDeadline() throws Exception {
+        StringBuffer order = new StringBuffer();
+        CountDownLatch ran = new CountDownLatch(3);
+
+        sut.schedule(() -> { order.append("c"); ran.countDown(); }, TimeUnit.MILLISECONDS.toNanos(40));
+        sut.schedule(() -> { order.append("a"); ran.countDown(); }, TimeUnit.MILLISECONDS.toNanos(5));
+        sut.schedule(() -> { order.append("b"); ran.countDown(); }, TimeUnit.MILLISECONDS.toNanos(20));
+
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        assertEquals("abc", order.toString());
+    }
+
+    @Test
+    public void shouldNotRunTheTaskWhenCancelled() throws Exception {
+        CountDownLatch ran = new CountDownLatch(1);
+        HashedWheelTimer.Timer timer = sut.schedule(ran::countDown, TimeUnit.MILLISECONDS.toNanos(20));
+
+        assertTrue(timer.cancel());
+
+        assertFalse(ran.await(100, TimeUnit.MILLISECONDS));
+        assertFalse("cancelling twice", timer.cancel());
+    }
+}
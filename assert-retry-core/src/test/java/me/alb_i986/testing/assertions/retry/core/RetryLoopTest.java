@@ -0,0 +1,366 @@
+package me.alb_i986.testing.assertions.retry.core;
+
+import me.alb_i986.testing.assertions.retry.core.RetryOutcome.Status;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.*;
+
+public class RetryLoopTest {
+
+    @Rule
+    public MockitoRule rule = MockitoJUnit.rule();
+
+    @Mock
+    private Supplier<Integer> supplierMock;
+
+    @Mock
+    private WaitPolicy waitPolicyMock;
+
+    @Mock
+    private Deadline deadlineMock;
+
+    @Mock
+    private Deadline.Countdown countdownMock;
+
+    @Mock
+    private AttemptListener<Integer> listenerMock;
+
+    @Before
+    public void setUp() {
+        given(deadlineMock.begin()).willReturn(countdownMock);
+        given(countdownMock.isExpired())
+                .willReturn(false)
+                .willReturn(false)
+                .willReturn(false)
+                .willReturn(false)
+                .willReturn(true);
+
+        given(supplierMock.get())
+                .willReturn(1)
+                .willReturn(2)
+                .willReturn(3)
+                .willReturn(4)
+                .willReturn(5)
+                .willReturn(6);
+    }
+
+    @Test
+    public void shouldNotRetryWhenSupplierMatchesTheFirstTime() throws Exception {
+        RetryOutcome<Integer> outcome = RetryLoop.<Integer>until(i -> i == 1)
+                .deadline(deadlineMock)
+                .waitPolicy(waitPolicyMock)
+                .build()
+                .run(supplierMock);
+
+        assertTrue(outcome.isMatched());
+        assertEquals(1, outcome.getAttempts());
+        assertEquals(Integer.valueOf(1), outcome.getLastValue());
+        verify(waitPolicyMock, never()).await();
+    }
+
+    @Test
+    public void shouldRetryUntilTheDeadlineExpires() throws Exception {
+        RetryOutcome<Integer> outcome = RetryLoop.<Integer>until(i -> i == 6)
+                .deadline(deadlineMock)
+                .waitPolicy(waitPolicyMock)
+                .listener(listenerMock)
+                .build()
+                .run(supplierMock);
+
+        assertEquals(Status.TIMEOUT_EXPIRED, outcome.getStatus());
+        assertEquals(5, outcome.getAttempts());
+        assertEquals(Integer.valueOf(5), outcome.getLastValue());
+        verify(waitPolicyMock, times(4)).await();
+        verify(listenerMock).onValue(5, false, false);
+        verify(listenerMock, times(4)).onWait();
+    }
+
+    @Test
+    public void shouldStopWhenTheAbortConditionIsMet() throws Exception {
+        RetryOutcome<Integer> outcome = RetryLoop.<Integer>until(i -> i == 6)
+                .abortWhen(i -> i == 2)
+                .deadline(deadlineMock)
+                .waitPolicy(waitPolicyMock)
+                .listener(listenerMock)
+                .build()
+                .run(supplierMock);
+
+        assertEquals(Status.ABORTED, outcome.getStatus());
+        assertEquals(2, outcome.getAttempts());
+        verify(listenerMock).onValue(2, false, true);
+    }
+
+    @Test
+    public void shouldNotRetryOnExceptionByDefault() throws Exception {
+        IllegalStateException exception = new IllegalStateException();
+        given(supplierMock.get()).willThrow(exception);
+
+        RetryOutcome<Integer> outcome = RetryLoop.<Integer>until(i -> i == 6)
+                .deadline(deadlineMock)
+                .waitPolicy(waitPolicyMock)
+                .listener(listenerMock)
+                .build()
+                .run(supplierMock);
+
+        assertEquals(Status.SUPPLIER_THREW, outcome.getStatus());
+        assertSame(exception, outcome.getLastException());
+        verify(listenerMock).onException(exception);
+        verify(waitPolicyMock, never()).await();
+    }
+
+    @Test
+    public void shouldRetryOnTheConfiguredExceptions() throws Exception {
+        given(supplierMock.get())
+                .willThrow(new IllegalStateException())
+                .willReturn(6);
+
+        RetryOutcome<Integer> outcome = RetryLoop.<Integer>until(i -> i == 6)
+                .deadline(deadlineMock)
+                .waitPolicy(waitPolicyMock)
+                .retryOn(IllegalStateException.class::isInstance)
+                .build()
+                .run(supplierMock);
+
+        assertTrue(outcome.isMatched());
+        assertEquals(2, outcome.getAttempts());
+    }
+
+    @Test
+    public void shouldNotRetryOnOtherExceptions() throws Exception {
+        given(supplierMock.get()).willThrow(new IllegalArgumentException());
+
+        RetryOutcome<Integer> outcome = RetryLoop.<Integer>until(i -> i == 6)
+                .deadline(deadlineMock)
+                .waitPolicy(waitPolicyMock)
+                .retryOn(IllegalStateException.class::isInstance)
+                .build()
+                .run(supplierMock);
+
+        assertEquals(Status.SUPPLIER_THREW_UNCONFIGURED_EXCEPTION, outcome.getStatus());
+    }
+
+    @Test
+    public void shouldTryAgainWhenTheWaitPolicyThrows() throws Exception {
+        willThrow(new RuntimeException("dummy exception")).given(waitPolicyMock).await();
+
+        RetryOutcome<Integer> outcome = RetryLoop.<Integer>until(i -> i == 2)
+                .deadline(deadlineMock)
+                .waitPolicy(waitPolicyMock)
+                .build()
+                .run(supplierMock);
+
+        assertTrue(outcome.isMatched());
+    }
+
+    @Test
+    public void deadlineAfter() throws Exception {
+        Deadline.Countdown countdown = Deadline.after(Duration.ofMillis(20)).begin();
+
+        assertFalse(countdown.isExpired());
+        Thread.sleep(30);
+        assertTrue(countdown.isExpired());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void cantBuildWithoutDeadline() {
+        RetryLoop.<Integer>until(i -> i == 2)
+                .waitPolicy(waitPolicyMock)
+                .build();
+    }
+
+    @Test
+    public void shouldStopAndKeepTheInterruptStatusWhenTheWaitIsInterrupted() throws Exception {
+        willThrow(new InterruptedException()).given(waitPolicyMock).await();
+
+        RetryOutcome<Integer> outcome = RetryLoop.<Integer>until(i -> i == 6)
+                .deadline(deadlineMock)
+                .waitPolicy(waitPolicyMock)
+                .build()
+                .run(supplierMock);
+
+        assertTrue(Thread.interrupted());
+        assertEquals(Status.INTERRUPTED, outcome.getStatus());
+        assertEquals(1, outcome.getAttempts());
+    }
+
+    @Test
+    public void shouldNotWaitWhenTheThreadIsInterrupted() throws Exception {
+        Thread.currentThread().interrupt();
+
+        RetryOutcome<Integer> outcome = RetryLoop.<Integer>until(i -> i == 6)
+                .deadline(deadlineMock)
+                .waitPolicy(waitPolicyMock)
+                .build()
+                .run(supplierMock);
+
+        assertTrue(Thread.interrupted());
+        assertEquals(Status.INTERRUPTED, outcome.getStatus());
+        verify(waitPolicyMock, never()).await();
+    }
+
+    @Test
+    public void shouldStopBeforeTheNextAttemptWhenCancelled() throws Exception {
+        CancellationToken cancellation = new CancellationToken();
+        given(supplierMock.get())
+                .willReturn(1)
+                .willAnswer(invocation -> {
+                    cancellation.cancel();
+                    return 2;
+                })
+                .willReturn(3);
+
+        RetryOutcome<Integer> outcome = RetryLoop.<Integer>until(i -> i == 3)
+                .deadline(deadlineMock)
+                .waitPolicy(waitPolicyMock)
+                .cancelWith(cancellation)
+                .build()
+                .run(supplierMock);
+
+        assertEquals(Status.CANCELLED, outcome.getStatus());
+        assertEquals(2, outcome.getAttempts());
+        verify(supplierMock, times(2)).get();
+    }
+
+    @Test
+    public void shouldStopWhenTheSupplierThrowsBecauseInterrupted() throws Exception {
+        given(supplierMock.get()).willAnswer(invocation -> {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted");
+        });
+
+        RetryOutcome<Integer> outcome = RetryLoop.<Integer>until(i -> i == 6)
+                .deadline(deadlineMock)
+                .waitPolicy(waitPolicyMock)
+                .retryOn(e -> true)
+                .build()
+                .run(supplierMock);
+
+        assertTrue(Thread.interrupted());
+        assertEquals(Status.INTERRUPTED, outcome.getStatus());
+        assertEquals(1, outcome.getAttempts());
+    }
+
+    @Test
+    public void shouldCallTheSupplierOnlyWhenTheVersionChanges() throws Exception {
+        @SuppressWarnings("unchecked")
+        Supplier<String> probeMock = mock(Supplier.class);
+        given(probeMock.get())
+                .willReturn("v1")
+                .willReturn("v1")
+                .willReturn("v2")
+                .willReturn("v2")
+                .willReturn("v3");
+
+        RetryOutcome<Integer> outcome = RetryLoop.<Integer>until(i -> i == 3)
+                .deadline(deadlineMock)
+                .waitPolicy(waitPolicyMock)
+                .listener(listenerMock)
+                .probe(probeMock)
+                .build()
+                .run(supplierMock);
+
+        assertEquals(Status.MATCHED, outcome.getStatus());
+        assertEquals(5, outcome.getAttempts());
+        verify(supplierMock, times(3)).get();
+        verify(listenerMock, times(2)).onUnchanged();
+        verify(listenerMock).onValue(1, false, false);
+        verify(listenerMock).onValue(2, false, false);
+        verify(listenerMock).onValue(3, true, false);
+    }
+
+    @Test
+    public void shouldCallTheSupplierAgainAfterItThrew() throws Exception {
+        given(supplierMock.get())
+                .willThrow(new IllegalStateException())
+                .willReturn(1);
+
+        RetryOutcome<Integer> outcome = RetryLoop.<Integer>until(i -> i == 1)
+                .deadline(deadlineMock)
+                .waitPolicy(waitPolicyMock)
+                .retryOn(e -> true)
+                .probe(() -> "always the same")
+                .build()
+                .run(supplierMock);
+
+        assertEquals(Status.MATCHED, outcome.getStatus());
+        assertEquals(2, outcome.getAttempts());
+    }
+
+    @Test
+    public void shouldKeepTheLastValueSuppliedWhenUnchanged() throws Exception {
+        RetryOutcome<Integer> outcome = RetryLoop.<Integer>until(i -> false)
+                .deadline(deadlineMock)
+                .waitPolicy(waitPolicyMock)
+                .probe(() -> "always the same")
+                .build()
+                .run(supplierMock);
+
+        assertEquals(Status.TIMEOUT_EXPIRED, outcome.getStatus());
+        assertEquals(5, outcome.getAttempts());
+        assertEquals(Integer.valueOf(1), outcome.getLastValue());
+        verify(supplierMock).get();
+    }
+
+    @Test
+    public void shouldStopWhenTheValuesStall() throws Exception {
+        given(supplierMock.get())
+                .willReturn(1)
+                .willReturn(2)
+                .willReturn(2);
+        Deadline stallWindowMock = mock(Deadline.class);
+        Deadline.Countdown firstWindowMock = mock(Deadline.Countdown.class);
+        Deadline.Countdown secondWindowMock = mock(Deadline.Countdown.class);
+        given(stallWindowMock.begin())
+                .willReturn(firstWindowMock)
+                .willReturn(secondWindowMock);
+        given(secondWindowMock.isExpired())
+                .willReturn(false)
+                .willReturn(true);
+
+        RetryOutcome<Integer> outcome = RetryLoop.<Integer>until(i -> i == 3)
+                .deadline(deadlineMock)
+                .waitPolicy(waitPolicyMock)
+                .failWhenStalled(Comparator.naturalOrder(), stallWindowMock)
+                .build()
+                .run(supplierMock);
+
+        assertEquals(Status.STALLED, outcome.getStatus());
+        assertEquals(3, outcome.getAttempts());
+        verify(stallWindowMock, times(2)).begin();
+    }
+
+    @Test
+    public void aFailingProgressComparatorShouldNotBeReportedAsASupplierFailure() throws Exception {
+        Comparator<Integer> failingComparator = (a, b) -> {
+            throw new IllegalStateException("Comparator failed");
+        };
+        RetryLoop<Integer> sut = RetryLoop.<Integer>until(i -> i == 10)
+                .deadline(deadlineMock)
+                .waitPolicy(waitPolicyMock)
+                .retryOn(e -> true)
+                .listener(listenerMock)
+                .failWhenStalled(failingComparator, mock(Deadline.class))
+                .build();
+
+        try {
+            sut.run(supplierMock);
+            fail("exception expected");
+        } catch (IllegalStateException e) {
+            assertEquals("Comparator failed", e.getMessage());
+        }
+        verify(listenerMock, times(2)).onValue(anyInt(), eq(false), eq(false));
+        verify(listenerMock, never()).onException(any());
+    }
+}
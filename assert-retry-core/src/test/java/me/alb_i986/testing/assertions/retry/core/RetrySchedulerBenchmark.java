@@ -0,0 +1,55 @@
+package me.alb_i986.testing.assertions.retry.core;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures how many concurrent retry loops a {@link RetryScheduler} sustains.
+ * <p>
+ * Each loop matches at its 5th attempt, waiting 100ms between attempts, so that the loops overlap.
+ * Run with e.g. {@code java -cp target/classes:target/test-classes RetrySchedulerBenchmark 10000 50000 100000}.
+ */
+public class RetrySchedulerBenchmark {
+
+    private static final int ATTEMPTS = 5;
+    private static final Duration INTERVAL = Duration.ofMillis(100);
+
+    public static void main(String[] args) throws Exception {
+        int workers = Integer.getInteger("workers", 4);
+        for (String arg : args) {
+            int loops = Integer.parseInt(arg);
+            try (RetryScheduler scheduler = new RetryScheduler(workers)) {
+                run(loops, scheduler); // warm-up
+                long start = System.nanoTime();
+                int failed = run(loops, scheduler);
+                long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                System.out.printf("%,d concurrent loops, %d workers: %,d ms, %,d attempts/s, %d failed, %d live threads%n",
+                        loops, workers, elapsedMillis, loops * (long) ATTEMPTS * 1000 / Math.max(1, elapsedMillis),
+                        failed, Thread.activeCount());
+            }
+        }
+    }
+
+    private static int run(int loops, RetryScheduler scheduler) {
+        RetryLoop<Integer> loop = RetryLoop.<Integer>until(i -> i == ATTEMPTS)
+                .deadline(Deadline.after(Duration.ofMinutes(1)))
+                .waitPolicy(WaitPolicy.sleep(INTERVAL))
+                .build();
+        List<CompletableFuture<RetryOutcome<Integer>>> outcomes = new ArrayList<>(loops);
+        for (int i = 0; i < loops; i++) {
+            AtomicInteger counter = new AtomicInteger();
+            outcomes.add(loop.runAsync(counter::incrementAndGet, INTERVAL, scheduler));
+        }
+        int failed = 0;
+        for (CompletableFuture<RetryOutcome<Integer>> outcome : outcomes) {
+            if (!outcome.join().isMatched()) {
+                failed++;
+            }
+        }
+        return failed;
+    }
+}
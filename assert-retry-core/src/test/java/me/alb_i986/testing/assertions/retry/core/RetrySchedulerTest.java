@@ -0,0 +1,91 @@
+package me.alb_i986.testing.assertions.retry.core;
+
+import me.alb_i986.testing.assertions.retry.core.RetryOutcome.Status;
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RetrySchedulerTest {
+
+    private final RetryScheduler sut = new RetryScheduler(2, Duration.ofMillis(1), 64);
+
+    @After
+    public void tearDown() {
+        sut.close();
+    }
+
+    @Test
+    public void shouldRetryUntilTheConditionIsMet() throws Exception {
+        AtomicInteger counter = new AtomicInteger();
+
+        RetryOutcome<Integer> outcome = RetryLoop.<Integer>until(i -> i == 3)
+                .deadline(Deadline.after(Duration.ofSeconds(10)))
+                .waitPolicy(() -> {
+                    throw new AssertionError("the wait policy should not be run");
+                })
+                .build()
+                .runAsync(counter::incrementAndGet, Duration.ofMillis(5), sut)
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(Status.MATCHED, outcome.getStatus());
+        assertEquals(3, outcome.getAttempts());
+        assertTrue(outcome.getWaitNanos() >= TimeUnit.MILLISECONDS.toNanos(10));
+    }
+
+    @Test
+    public void shouldRunManyLoopsConcurrently() throws Exception {
+        RetryLoop<Integer> loop = RetryLoop.<Integer>until(i -> i == 5)
+                .deadline(Deadline.after(Duration.ofSeconds(10)))
+                .waitPolicy(WaitPolicy.sleep(Duration.ofMillis(1)))
+                .build();
+
+        List<CompletableFuture<RetryOutcome<Integer>>> outcomes = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            AtomicInteger counter = new AtomicInteger();
+            outcomes.add(loop.runAsync(counter::incrementAndGet, Duration.ofMillis(10), sut));
+        }
+
+        for (CompletableFuture<RetryOutcome<Integer>> outcome : outcomes) {
+            assertEquals(5, outcome.get(5, TimeUnit.SECONDS).getAttempts());
+        }
+    }
+
+    @Test
+    public void shouldStopWhenTheDeadlineExpires() throws Exception {
+        RetryOutcome<Integer> outcome = RetryLoop.<Integer>until(i -> false)
+                .deadline(Deadline.after(Duration.ofMillis(30)))
+                .waitPolicy(WaitPolicy.sleep(Duration.ofMillis(1)))
+                .build()
+                .runAsync(() -> 1, Duration.ofMillis(5), sut)
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(Status.TIMEOUT_EXPIRED, outcome.getStatus());
+    }
+
+    @Test
+    public void shouldStopWhenTheFutureIsCancelled() throws Exception {
+        AtomicInteger counter = new AtomicInteger();
+        CompletableFuture<RetryOutcome<Integer>> outcome = RetryLoop.<Integer>until(i -> false)
+                .deadline(Deadline.after(Duration.ofMinutes(1)))
+                .waitPolicy(WaitPolicy.sleep(Duration.ofMillis(1)))
+                .build()
+                .runAsync(counter::incrementAndGet, Duration.ofMillis(5), sut);
+        Thread.sleep(50);
+
+        outcome.cancel(false);
+        Thread.sleep(20);
+        int attempts = counter.get();
+        Thread.sleep(50);
+
+        assertEquals(attempts, counter.get());
+    }
+}
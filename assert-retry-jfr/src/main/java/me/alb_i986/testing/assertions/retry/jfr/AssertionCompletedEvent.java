@@ -0,0 +1,39 @@
+package me.alb_i986.testing.assertions.retry.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * The end of an assertion. Unlike the other events, this is instantaneous, and it records the stack trace,
+ * so that the assertion can be told apart.
+ */
+@Name(AssertionCompletedEvent.NAME)
+@Label("Retry Assertion Completed")
+@Description("The end of an assertion with retries")
+@Category({"Assert Retry"})
+class AssertionCompletedEvent extends jdk.jfr.Event {
+
+    static final String NAME = "me.alb_i986.assertretry.AssertionCompleted";
+
+    @Label("Assertion")
+    String assertion;
+
+    @Label("Outcome")
+    @Description("Either MATCHED, or the reason of the failure")
+    String outcome;
+
+    @Label("Attempts")
+    int attempts;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+
+    @Label("Waited")
+    @Description("How long the assertion spent waiting between attempts")
+    @Timespan(Timespan.NANOSECONDS)
+    long waited;
+}
@@ -0,0 +1,28 @@
+package me.alb_i986.testing.assertions.retry.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * An attempt, i.e. a call to the supplier and the evaluation of the matcher.
+ */
+@Name(AttemptEvent.NAME)
+@Label("Retry Attempt")
+@Description("A call to the supplier of the actual values, and the evaluation of the matcher")
+@Category({"Assert Retry"})
+@StackTrace(false)
+class AttemptEvent extends jdk.jfr.Event {
+
+    static final String NAME = "me.alb_i986.assertretry.Attempt";
+
+    @Label("Outcome")
+    @Description("Either MATCHED, NOT MATCHED, ABORTED, THREW, or UNCHANGED")
+    String outcome;
+
+    @Label("Exception Class")
+    @Description("The class of the exception thrown by the supplier, if any")
+    Class<?> exceptionClass;
+}
@@ -0,0 +1,85 @@
+package me.alb_i986.testing.assertions.retry.jfr;
+
+import me.alb_i986.testing.assertions.retry.RetryTracer;
+import me.alb_i986.testing.assertions.retry.WaitStrategy;
+import org.hamcrest.SelfDescribing;
+import org.hamcrest.StringDescription;
+
+import java.time.Duration;
+
+/**
+ * Emits JDK Flight Recorder events for the attempts, the waits, and the end of the assertions,
+ * so that retry stalls show up in JDK Mission Control next to GC and I/O events.
+ * <p>
+ * Registered as a {@link RetryTracer} service: adding this module to the classpath is enough.
+ * The events are enabled by default, hence they are recorded by any running recording,
+ * unless its settings disable them. When no recording is running, the overhead is an allocation per attempt and per wait.
+ *
+ * @see AttemptEvent
+ * @see WaitEvent
+ * @see AssertionCompletedEvent
+ */
+public class JfrRetryTracer implements RetryTracer {
+
+    @Override
+    public Object attemptStarted() {
+        AttemptEvent event = new AttemptEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void attemptFinished(Object attempt, String outcome, Exception exception) {
+        if (attempt == null) {
+            return;
+        }
+        AttemptEvent event = (AttemptEvent) attempt;
+        event.end();
+        if (event.shouldCommit()) {
+            event.outcome = outcome;
+            event.exceptionClass = exception != null ? exception.getClass() : null;
+            event.commit();
+        }
+    }
+
+    @Override
+    public Object waitStarted() {
+        WaitEvent event = new WaitEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void waitFinished(Object wait, WaitStrategy waitStrategy, Duration expected) {
+        if (wait == null) {
+            return;
+        }
+        WaitEvent event = (WaitEvent) wait;
+        event.end();
+        if (event.shouldCommit()) {
+            event.strategy = waitStrategy.getDescription();
+            event.expectedDuration = expected != null ? expected.toNanos() : -1;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void assertionCompleted(SelfDescribing assertion, String outcome, int attempts,
+                                   long elapsedNanos, long waitNanos) {
+        AssertionCompletedEvent event = new AssertionCompletedEvent();
+        if (event.shouldCommit()) {
+            event.assertion = StringDescription.toString(assertion);
+            event.outcome = outcome;
+            event.attempts = attempts;
+            event.elapsed = elapsedNanos;
+            event.waited = waitNanos;
+            event.commit();
+        }
+    }
+}
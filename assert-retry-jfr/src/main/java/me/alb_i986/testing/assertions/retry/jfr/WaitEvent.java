@@ -0,0 +1,29 @@
+package me.alb_i986.testing.assertions.retry.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A wait between attempts. The duration of the event is the actual duration of the wait.
+ */
+@Name(WaitEvent.NAME)
+@Label("Retry Wait")
+@Description("A wait between two attempts")
+@Category({"Assert Retry"})
+@StackTrace(false)
+class WaitEvent extends jdk.jfr.Event {
+
+    static final String NAME = "me.alb_i986.assertretry.Wait";
+
+    @Label("Strategy")
+    String strategy;
+
+    @Label("Expected Duration")
+    @Description("How long the wait was expected to last, or -1 if unknown")
+    @Timespan(Timespan.NANOSECONDS)
+    long expectedDuration;
+}
@@ -0,0 +1,75 @@
+package me.alb_i986.testing.assertions.retry.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import me.alb_i986.testing.assertions.retry.RetryConfig;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static me.alb_i986.testing.assertions.retry.RetryMatcher.eventually;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class JfrRetryTracerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldEmitAnEventForEachAttemptAndWait() throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(AttemptEvent.NAME).withoutThreshold();
+            recording.enable(WaitEvent.NAME).withoutThreshold();
+            recording.enable(AssertionCompletedEvent.NAME);
+            recording.start();
+
+            int[] calls = {0};
+            Supplier<Integer> supplier = () -> {
+                if (++calls[0] == 1) {
+                    throw new IllegalStateException("not ready");
+                }
+                return calls[0];
+            };
+            assertThat(supplier, eventually(is(3), RetryConfig.builder()
+                    .timeoutAfter(Duration.ofSeconds(10))
+                    .sleepForMillis(5)
+                    .retryOnException(IllegalStateException.class)));
+
+            recording.stop();
+            Path dump = folder.newFile("retry.jfr").toPath();
+            recording.dump(dump);
+            events = RecordingFile.readAllEvents(dump);
+        }
+
+        List<RecordedEvent> attempts = ofType(events, AttemptEvent.NAME);
+        assertThat(attempts.stream().map(e -> e.getString("outcome")).collect(Collectors.toList()),
+                contains("THREW", "NOT MATCHED", "MATCHED"));
+        assertThat(attempts.get(0).getClass("exceptionClass").getName(), is(IllegalStateException.class.getName()));
+
+        List<RecordedEvent> waits = ofType(events, WaitEvent.NAME);
+        assertThat(waits, hasSize(2));
+        assertThat(waits.get(0).getString("strategy"), is("sleep for 5ms"));
+        assertThat(waits.get(0).getDuration("expectedDuration"), is(Duration.ofMillis(5)));
+
+        List<RecordedEvent> completions = ofType(events, AssertionCompletedEvent.NAME);
+        assertThat(completions, hasSize(1));
+        assertThat(completions.get(0).getString("outcome"), is("MATCHED"));
+        assertThat(completions.get(0).getInt("attempts"), is(3));
+        assertThat(completions.get(0).getString("assertion"), startsWith("supplied value to *eventually* match is <3>"));
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,65 @@
+package me.alb_i986.testing.assertions.retry;
+
+import me.alb_i986.testing.assertions.retry.core.RetryScheduler;
+import org.hamcrest.Matcher;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Assertions with tolerance which do not block the calling thread,
+ * meant for verifying many conditions concurrently, e.g. thousands of in-flight transactions in a load test.
+ * <p>
+ * Example:
+ * <pre>
+ * try (RetryScheduler scheduler = new RetryScheduler(8)) {
+ *     List&lt;CompletableFuture&lt;Void&gt;&gt; assertions = transactions.stream()
+ *             .map(tx -&gt; AsyncAssert.assertEventually(() -&gt; statusOf(tx), is("COMPLETED"), retryConfig, scheduler))
+ *             .collect(toList());
+ *     CompletableFuture.allOf(assertions.toArray(new CompletableFuture[0])).join();
+ * }
+ * </pre>
+ *
+ * @see RetryScheduler
+ */
+public final class AsyncAssert {
+
+    private AsyncAssert() {
+    }
+
+    /**
+     * Same as {@code assertThat(actualValuesSupplier, eventually(matcher, retryConfig))},
+     * but the retry loop runs on the given scheduler.
+     * The wait between attempts lasts the expected duration of the configured wait strategy,
+     * e.g. the duration of the sleep.
+     *
+     * @return a future which completes when the assertion passes, or exceptionally with
+     *         the same AssertionError which {@code assertThat} would throw.
+     *         Completing it otherwise, e.g. cancelling it, or timing it out, stops the retry loop
+     *
+     * @throws IllegalArgumentException if the wait strategy does not have an expected duration,
+     *                                  or the config prefetches, or is driven by virtual time
+     *
+     * @see RetryMatcher#eventually(Matcher, RetryConfig)
+     * @see WaitStrategy#getExpectedDuration()
+     */
+    public static <T> CompletableFuture<Void> assertEventually(Supplier<? extends T> actualValuesSupplier,
+                                                               Matcher<? super T> matcher,
+                                                               RetryConfig retryConfig,
+                                                               RetryScheduler scheduler) {
+        RetryMatcher<T> retryMatcher = new RetryMatcher<>(matcher, retryConfig);
+        CompletableFuture<Void> assertion = new CompletableFuture<>();
+        CompletableFuture<Boolean> retry = retryMatcher.matchesAsync(actualValuesSupplier, scheduler);
+        assertion.whenComplete((v, e) -> retry.cancel(false)); // does nothing if the retry loop is over
+        retry.whenComplete((matches, e) -> {
+            if (e != null) {
+                assertion.completeExceptionally(e);
+            } else if (matches) {
+                assertion.complete(null);
+            } else {
+                assertion.completeExceptionally(retryMatcher.newAssertionError(actualValuesSupplier));
+            }
+        });
+        return assertion;
+    }
+}
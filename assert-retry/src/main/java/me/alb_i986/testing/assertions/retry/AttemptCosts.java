@@ -0,0 +1,111 @@
+package me.alb_i986.testing.assertions.retry;
+
+import me.alb_i986.testing.assertions.retry.internal.ThreadResources;
+
+import java.util.Locale;
+
+/**
+ * The CPU time used, and the bytes allocated, by the attempts of one or more retry loops,
+ * i.e. by the calls to the supplier and the evaluations of the matcher,
+ * excluding the waits between attempts.
+ * <p>
+ * Useful to tell whether a slow assertion is burning CPU locally, e.g. deserializing huge payloads,
+ * or just waiting on I/O.
+ * The values which the JVM cannot measure are reported as -1 (see {@link #isCpuTimeSupported()}).
+ * <p>
+ * Thread-safe.
+ *
+ * @see RetryConfigBuilder#measureAttemptCosts(AttemptCosts)
+ */
+public class AttemptCosts {
+
+    private long attempts;
+    private long totalCpuNanos;
+    private long maxCpuNanos;
+    private long totalAllocatedBytes;
+    private long maxAllocatedBytes;
+
+    synchronized void record(long cpuNanos, long allocatedBytes) {
+        attempts++;
+        totalCpuNanos += cpuNanos;
+        maxCpuNanos = Math.max(maxCpuNanos, cpuNanos);
+        totalAllocatedBytes += allocatedBytes;
+        maxAllocatedBytes = Math.max(maxAllocatedBytes, allocatedBytes);
+    }
+
+    void merge(AttemptCosts other) {
+        long otherAttempts;
+        long otherTotalCpuNanos;
+        long otherMaxCpuNanos;
+        long otherTotalAllocatedBytes;
+        long otherMaxAllocatedBytes;
+        synchronized (other) {
+            otherAttempts = other.attempts;
+            otherTotalCpuNanos = other.totalCpuNanos;
+            otherMaxCpuNanos = other.maxCpuNanos;
+            otherTotalAllocatedBytes = other.totalAllocatedBytes;
+            otherMaxAllocatedBytes = other.maxAllocatedBytes;
+        }
+        synchronized (this) {
+            attempts += otherAttempts;
+            totalCpuNanos += otherTotalCpuNanos;
+            maxCpuNanos = Math.max(maxCpuNanos, otherMaxCpuNanos);
+            totalAllocatedBytes += otherTotalAllocatedBytes;
+            maxAllocatedBytes = Math.max(maxAllocatedBytes, otherMaxAllocatedBytes);
+        }
+    }
+
+    public boolean isCpuTimeSupported() {
+        return ThreadResources.isCpuTimeSupported();
+    }
+
+    public boolean isAllocatedBytesSupported() {
+        return ThreadResources.isAllocatedBytesSupported();
+    }
+
+    public synchronized long getAttempts() {
+        return attempts;
+    }
+
+    public synchronized long getTotalCpuNanos() {
+        return isCpuTimeSupported() ? totalCpuNanos : -1;
+    }
+
+    public synchronized long getMaxCpuNanos() {
+        return isCpuTimeSupported() ? maxCpuNanos : -1;
+    }
+
+    public synchronized long getTotalAllocatedBytes() {
+        return isAllocatedBytesSupported() ? totalAllocatedBytes : -1;
+    }
+
+    public synchronized long getMaxAllocatedBytes() {
+        return isAllocatedBytesSupported() ? maxAllocatedBytes : -1;
+    }
+
+    /**
+     * E.g. "CPU time 12.500ms in total, 5.000ms at most; allocated 1048576 bytes in total, 524288 bytes at most"
+     */
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder("CPU time ");
+        if (isCpuTimeSupported()) {
+            sb.append(millis(totalCpuNanos)).append(" in total, ")
+                    .append(millis(maxCpuNanos)).append(" at most");
+        } else {
+            sb.append("not supported");
+        }
+        sb.append("; allocated ");
+        if (isAllocatedBytesSupported()) {
+            sb.append(totalAllocatedBytes).append(" bytes in total, ")
+                    .append(maxAllocatedBytes).append(" bytes at most");
+        } else {
+            sb.append("bytes not supported");
+        }
+        return sb.toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3fms", nanos / 1_000_000.0);
+    }
+}
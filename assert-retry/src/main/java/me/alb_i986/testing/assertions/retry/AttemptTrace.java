@@ -0,0 +1,174 @@
+package me.alb_i986.testing.assertions.retry;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A compact binary trace of the attempts of {@code eventually} assertions, passing or failing,
+ * meant to be left on in CI in place of debug logging.
+ * <p>
+ * Each attempt is appended as a fixed-size record of {@value #RECORD_SIZE} bytes (when it started,
+ * how long it took, its outcome, the hash code of the value supplied, and the class of the exception thrown, if any),
+ * to a buffer which is written to the file through a {@link FileChannel} only when full, and on {@link #close()}.
+ * No string is formatted while the assertions run: use {@link AttemptTraceReader} to print the trace.
+ * <p>
+ * Format, all big-endian:
+ * <pre>
+ * header: int magic, short version, short record size, long epoch millis at open, long System.nanoTime() at open
+ * then, a sequence of
+ *   attempt record:     byte 1, byte outcome, short exception class id (0 if none), int assertion id, int attempt,
+ *                       long System.nanoTime() at start, long duration in nanos, int hash code of the value
+ *   exception class:    byte 2, short exception class id, short length, UTF-8 class name
+ *                       (written before the first attempt record referring to it)
+ * </pre>
+ * <p>
+ * Thread-safe. One trace can be shared by all of the assertions of a run.
+ *
+ * @see RetryConfigBuilder#traceAttemptsTo(AttemptTrace)
+ */
+public final class AttemptTrace implements Closeable {
+
+    static final int MAGIC = 0x41525452; // "ARTR"
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 24;
+    static final int RECORD_SIZE = 32;
+    static final byte ATTEMPT_RECORD = 1;
+    static final byte EXCEPTION_CLASS_RECORD = 2;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The outcome of an attempt, as encoded in the trace.
+     */
+    enum Outcome {
+        MATCHED, NOT_MATCHED, ABORTED, THREW, UNCHANGED
+    }
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final Map<Class<?>, Short> exceptionClassIds = new HashMap<>();
+    private int lastAssertionId;
+    private boolean closed;
+
+    private AttemptTrace(FileChannel channel) throws IOException {
+        this.channel = channel;
+        buffer.putInt(MAGIC)
+                .putShort(VERSION)
+                .putShort((short) RECORD_SIZE)
+                .putLong(System.currentTimeMillis())
+                .putLong(System.nanoTime());
+        flush();
+    }
+
+    /**
+     * Creates the given file, overwriting it if it exists.
+     */
+    public static AttemptTrace open(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        return new AttemptTrace(FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+    }
+
+    /**
+     * Creates a new file in the given directory, named after the current time, e.g. {@code attempts-1700000000000-123.trace}.
+     * Useful to keep one trace per test run.
+     */
+    public static AttemptTrace openInDirectory(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        return new AttemptTrace(FileChannel.open(
+                Files.createTempFile(directory, "attempts-" + System.currentTimeMillis() + "-", ".trace"),
+                StandardOpenOption.WRITE));
+    }
+
+    /**
+     * @return the id of a new assertion, for its attempts to be told apart from those of the others
+     */
+    synchronized int assertionStarted() {
+        return ++lastAssertionId;
+    }
+
+    synchronized void record(int assertionId, int attempt, long startNanos, long durationNanos,
+                             Outcome outcome, Object value, Exception exception) throws IOException {
+        if (closed) {
+            return;
+        }
+        short exceptionClassId = 0;
+        if (exception != null) {
+            exceptionClassId = exceptionClassId(exception.getClass());
+        }
+        ensureRemaining(RECORD_SIZE);
+        buffer.put(ATTEMPT_RECORD)
+                .put((byte) outcome.ordinal())
+                .putShort(exceptionClassId)
+                .putInt(assertionId)
+                .putInt(attempt)
+                .putLong(startNanos)
+                .putLong(durationNanos)
+                .putInt(hashCode(value));
+    }
+
+    private static int hashCode(Object value) {
+        if (value != null && value.getClass().isArray()) {
+            return Arrays.deepHashCode(new Object[]{value}) - 31;
+        }
+        return Objects.hashCode(value);
+    }
+
+    private short exceptionClassId(Class<?> exceptionClass) throws IOException {
+        Short id = exceptionClassIds.get(exceptionClass);
+        if (id != null) {
+            return id;
+        }
+        id = (short) (exceptionClassIds.size() + 1);
+        exceptionClassIds.put(exceptionClass, id);
+        byte[] name = exceptionClass.getName().getBytes(StandardCharsets.UTF_8);
+        ensureRemaining(5 + name.length);
+        buffer.put(EXCEPTION_CLASS_RECORD)
+                .putShort(id)
+                .putShort((short) name.length)
+                .put(name);
+        return id;
+    }
+
+    private void ensureRemaining(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the buffered records to the file.
+     */
+    public synchronized void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package me.alb_i986.testing.assertions.retry;
+
+import me.alb_i986.testing.assertions.retry.AttemptTrace.Outcome;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Turns an {@link AttemptTrace} back into a human readable report, listing the attempts of each assertion
+ * the same way as the AssertionError does, plus the timings.
+ * Values are identified by their hash code, since the trace does not store them.
+ * <p>
+ * Example:
+ * <pre>
+ * Assertion #1, started at 2020-01-01 10:00:00.000
+ *           Actual values (in order of appearance):
+ *            - thrown java.net.ConnectException, at +0.000ms, in 2.101ms
+ *            - value #1f3a55c2, at +100.312ms, in 0.980ms
+ *            - MATCH! value #4b1d09e7, at +200.547ms, in 1.002ms
+ * </pre>
+ * <p>
+ * Can be run from the command line: {@code java me.alb_i986.testing.assertions.retry.AttemptTraceReader <file>...}
+ * A trace which was not closed properly, e.g. because the JVM crashed, is read up to the last complete record.
+ */
+public final class AttemptTraceReader {
+
+    private AttemptTraceReader() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: AttemptTraceReader <trace file>...");
+            System.exit(1);
+        }
+        for (String arg : args) {
+            System.out.print(report(Paths.get(arg)));
+        }
+    }
+
+    /**
+     * @throws IOException if the file cannot be read, or is not a trace
+     */
+    public static String report(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() < AttemptTrace.HEADER_SIZE || buffer.getInt() != AttemptTrace.MAGIC) {
+            throw new IOException("Not an attempt trace: " + file);
+        }
+        short version = buffer.getShort();
+        if (version != AttemptTrace.VERSION) {
+            throw new IOException("Unsupported version of the attempt trace: " + version);
+        }
+        int recordSize = buffer.getShort();
+        long openEpochMillis = buffer.getLong();
+        long openNanos = buffer.getLong();
+
+        Map<Short, String> exceptionClasses = new HashMap<>();
+        Map<Integer, List<ByteBuffer>> attemptsByAssertion = new LinkedHashMap<>();
+        try {
+            while (buffer.hasRemaining()) {
+                byte type = buffer.get();
+                if (type == AttemptTrace.EXCEPTION_CLASS_RECORD) {
+                    short id = buffer.getShort();
+                    byte[] name = new byte[buffer.getShort()];
+                    buffer.get(name);
+                    exceptionClasses.put(id, new String(name, StandardCharsets.UTF_8));
+                } else if (type == AttemptTrace.ATTEMPT_RECORD) {
+                    if (buffer.remaining() < recordSize - 1) {
+                        break;
+                    }
+                    ByteBuffer record = buffer.slice();
+                    buffer.position(buffer.position() + recordSize - 1);
+                    attemptsByAssertion.computeIfAbsent(record.getInt(3), k -> new ArrayList<>())
+                            .add(record);
+                } else {
+                    throw new IOException("Corrupted attempt trace: unknown record type " + type);
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            // the trace was truncated: ignore the incomplete record
+        }
+
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS", Locale.ROOT);
+        StringBuilder report = new StringBuilder();
+        for (Map.Entry<Integer, List<ByteBuffer>> entry : attemptsByAssertion.entrySet()) {
+            long assertionStartNanos = entry.getValue().get(0).getLong(11);
+            long startEpochMillis = openEpochMillis + (assertionStartNanos - openNanos) / 1_000_000;
+            report.append("Assertion #").append(entry.getKey())
+                    .append(", started at ").append(dateFormat.format(new Date(startEpochMillis)))
+                    .append(System.lineSeparator())
+                    .append("          Actual values (in order of appearance):");
+            for (ByteBuffer record : entry.getValue()) {
+                report.append(System.lineSeparator())
+                        .append("           - ")
+                        .append(describe(record, exceptionClasses))
+                        .append(String.format(Locale.ROOT, ", at +%.3fms, in %.3fms",
+                                (record.getLong(11) - assertionStartNanos) / 1_000_000.0,
+                                record.getLong(19) / 1_000_000.0));
+            }
+            report.append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+
+    /**
+     * The offsets are relative to the byte following the type of the record.
+     */
+    private static String describe(ByteBuffer record, Map<Short, String> exceptionClasses) {
+        Outcome outcome = Outcome.values()[record.get(0)];
+        String value = String.format("value #%08x", record.getInt(27));
+        switch (outcome) {
+            case MATCHED:
+                return "MATCH! " + value;
+            case ABORTED:
+                return value + " (ABORT!)";
+            case UNCHANGED:
+                return "unchanged";
+            case THREW:
+                short exceptionClassId = record.getShort(1);
+                return "thrown " + exceptionClasses.getOrDefault(exceptionClassId, "exception #" + exceptionClassId);
+            default:
+                return value;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package me.alb_i986.testing.assertions.retry;
+
+import org.hamcrest.Matcher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A list of conditions, each made of a supplier of actual values and a matcher,
+ * to be verified all together by {@link MultiRetryMatcher#eventuallyAll(RetryConfig)}.
+ * <p>
+ * Example:
+ * <pre>
+ * condition(orderStatus, is("SHIPPED"))
+ *         .and(invoices, hasSize(1))
+ * </pre>
+ */
+public class Conditions {
+
+    private final List<Condition<?>> conditions = new ArrayList<>();
+
+    private Conditions() {
+    }
+
+    public static <T> Conditions condition(Supplier<? extends T> supplier, Matcher<? super T> matcher) {
+        return new Conditions().and(supplier, matcher);
+    }
+
+    public <T> Conditions and(Supplier<? extends T> supplier, Matcher<? super T> matcher) {
+        if (supplier == null) {
+            throw new IllegalArgumentException("The supplier must not be null");
+        }
+        if (matcher == null) {
+            throw new IllegalArgumentException("The matcher must not be null");
+        }
+        conditions.add(new Condition<>(supplier, matcher));
+        return this;
+    }
+
+    List<Condition<?>> asList() {
+        return Collections.unmodifiableList(conditions);
+    }
+
+    static class Condition<T> {
+        private final Supplier<? extends T> supplier;
+        private final Matcher<? super T> matcher;
+
+        private Condition(Supplier<? extends T> supplier, Matcher<? super T> matcher) {
+            this.supplier = supplier;
+            this.matcher = matcher;
+        }
+
+        Supplier<? extends T> getSupplier() {
+            return supplier;
+        }
+
+        Matcher<? super T> getMatcher() {
+            return matcher;
+        }
+    }
+}
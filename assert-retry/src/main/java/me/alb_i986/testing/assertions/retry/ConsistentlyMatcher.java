@@ -0,0 +1,224 @@
+package me.alb_i986.testing.assertions.retry;
+
+import me.alb_i986.testing.assertions.retry.RetryMatcher.FailureReason;
+import me.alb_i986.testing.assertions.retry.internal.AssertRetryResult;
+import me.alb_i986.testing.assertions.retry.internal.BusyLoopGuard;
+import me.alb_i986.testing.assertions.retry.internal.ThrownExceptions;
+import me.alb_i986.testing.assertions.retry.internal.TimeFormatter;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * The dual of {@link RetryMatcher}: a {@link Matcher} allowing for making assertions
+ * which need to hold <i>consistently</i> for a whole time window,
+ * e.g. "no duplicate message is received for 30s", or "the health check stays green while under load".
+ * <p>
+ * The actual values are sampled according to the configured {@link WaitStrategy},
+ * until the configured timeout, which acts as the time window, expires.
+ * The assertion fails as soon as an actual value does not match.
+ * The waits are bounded by the end of the time window, so that the last sample is taken right at the end of it.
+ *
+ * @param <T> the type of actual values we need to test
+ *
+ * @see #consistently(Matcher, RetryConfig)
+ */
+public class ConsistentlyMatcher<T> extends TypeSafeMatcher<Supplier<? extends T>> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsistentlyMatcher.class);
+
+    private final Matcher<? super T> matcher;
+    private final RetryConfig config;
+    private final TimeFormatter timeFormatter;
+
+    private final List<AssertRetryResult<T>> samples = new ArrayList<>();
+    private final ThrownExceptions thrownExceptions = new ThrownExceptions();
+    private int attempts;
+
+    private FailureReason failureReason;
+    private int busyLoopGuardActivations;
+
+    ConsistentlyMatcher(Matcher<? super T> matcher, RetryConfig config) {
+        super(Supplier.class);
+        this.matcher = matcher;
+        this.config = config;
+        this.timeFormatter = TimeFormatter.SINGLETON;
+    }
+
+    @Override
+    protected boolean matchesSafely(Supplier<? extends T> actualValuesSupplier) {
+        VirtualTimeScheduler virtualTime = config.getVirtualTime();
+        if (virtualTime == null) {
+            return sample(actualValuesSupplier);
+        }
+        virtualTime.loopStarted();
+        try {
+            return sample(actualValuesSupplier);
+        } finally {
+            virtualTime.loopFinished();
+        }
+    }
+
+    private boolean sample(Supplier<? extends T> actualValuesSupplier) {
+        // the state of the previous run, if any, so that the same instance can be reused for many assertions
+        samples.clear();
+        thrownExceptions.clear();
+        attempts = 0;
+        failureReason = null;
+        busyLoopGuardActivations = 0;
+
+        config.getTimeout().restart();
+        config.getWaitStrategy().reset();
+        config.getBusyLoopGuard().reset();
+        try {
+            return sampleUntilTheEndOfTheWindow(actualValuesSupplier);
+        } finally {
+            config.getWaitStrategy().release();
+        }
+    }
+
+    private boolean sampleUntilTheEndOfTheWindow(Supplier<? extends T> actualValuesSupplier) {
+        while (true) {
+            if (isCancelled()) {
+                return false;
+            }
+            attempts++;
+            try {
+                T actual = actualValuesSupplier.get();
+                AssertRetryResult<T> sample = new AssertRetryResult<>();
+                sample.suppliedValue(actual);
+                samples.add(sample);
+
+                if (!matcher.matches(actual)) { // assertion FAILED!
+                    logger.debug("The actual value supplied did not match: {}", actual);
+                    failureReason = FailureReason.DID_NOT_HOLD;
+                    return false;
+                }
+                logger.debug("The actual value supplied matched: {}", actual);
+            } catch (Exception e) {
+                logger.debug("The Supplier threw", e);
+                thrownExceptions.addTo(samples, e, attempts);
+                if (config.getRetryOnException().isOff()) {
+                    failureReason = FailureReason.SUPPLIER_THREW;
+                    return false;
+                } else if (!config.getRetryOnException().matches(e)) {
+                    failureReason = FailureReason.SUPPLIER_THREW_UNCONFIGURED_EXCEPTION;
+                    return false;
+                }
+            }
+
+            Duration remaining = config.getTimeout().getRemaining();
+            if (remaining.isZero()) { // assertion PASSED!
+                logger.debug("The time window is over and all of the actual values matched");
+                return true;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                failureReason = FailureReason.INTERRUPTED;
+                return false;
+            }
+            logger.debug("The time window is not over yet: we're gonna wait before sampling again. {}", config.getWaitStrategy());
+
+            try {
+                config.getBusyLoopGuard().runWait(config.getWaitStrategy(), remaining);
+            } catch (InterruptedException e) {
+                logger.debug("The WaitStrategy was interrupted: we're gonna stop sampling", e);
+                Thread.currentThread().interrupt();
+                failureReason = FailureReason.INTERRUPTED;
+                return false;
+            } finally {
+                busyLoopGuardActivations = config.getBusyLoopGuard().getActivations();
+            }
+        }
+    }
+
+    private boolean isCancelled() {
+        if (config.getCancellation() != null && config.getCancellation().isCancelled()) {
+            failureReason = FailureReason.CANCELLED;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendText("supplied value to *consistently* match ")
+                .appendDescriptionOf(matcher)
+                .appendText(" for " + timeFormatter.prettyPrint(
+                        config.getTimeout().getDuration()));
+    }
+
+    @Override
+    protected void describeMismatchSafely(Supplier<? extends T> item, Description mismatchDescription) {
+        mismatchDescription.appendText(failureReason.getDescription())
+                .appendText(System.lineSeparator())
+                .appendText("          Actual values (in order of appearance):");
+
+        Object previousValue = null;
+        for (AssertRetryResult<T> sample : samples) {
+            mismatchDescription.appendText(System.lineSeparator());
+            mismatchDescription.appendText("           - ");
+            sample.describeTo(mismatchDescription, config.isReportingDiffs() ? previousValue : null);
+            if (sample.getActual() != null) {
+                previousValue = sample.getActual();
+            }
+        }
+        thrownExceptions.describeTo(mismatchDescription);
+        if (busyLoopGuardActivations > 0) {
+            mismatchDescription.appendText(System.lineSeparator())
+                    .appendText("          " + BusyLoopGuard.describeActivations(busyLoopGuardActivations));
+        }
+    }
+
+    public static <T> Matcher<Supplier<? extends T>> consistently(Matcher<? super T> matcher, RetryConfigBuilder retryConfigBuilder) {
+        return consistently(matcher, retryConfigBuilder.build());
+    }
+
+    /**
+     * Allows to verify that the actual values returned by the {@code Supplier} <i>consistently</i>
+     * satisfy the condition specified by the given {@code Matcher}, for the whole time window
+     * defined by the configured timeout.
+     * In case the condition is not satisfied at some point, the AssertionError thrown will report
+     * all of the actual values sampled until then, the last one being the value which did not match.
+     * <p>
+     * Example:
+     * <pre>
+     * assertThat(healthStatus, consistently(is("GREEN"),
+     *         RetryConfig.builder()
+     *             .timeoutAfter(Duration.ofSeconds(30))
+     *             .sleepFor(Duration.ofSeconds(1))
+     *             .doNotRetryOnException()));
+     * </pre>
+     *
+     * If the health status turns to RED after a couple of seconds,
+     * an AssertionError similar to the following will be thrown:
+     * <pre>
+     * java.lang.AssertionError:
+     * Expected: supplied value to *consistently* match is "GREEN" for 30s
+     *      but: An actual value did not match before the end of the time window
+     *           Actual values (in order of appearance):
+     *            - "GREEN"
+     *            - "GREEN"
+     *            - "RED"
+     * </pre>
+     *
+     * If the {@code Supplier} throws an exception which is configured to be retried on
+     * (see {@link RetryConfigBuilder#retryOnException(Class)}), the sample is simply skipped.
+     *
+     * @param <T> the type of the actual values
+     *
+     * @param matcher a Hamcrest matcher, encapsulating the condition under which the actual value is as expected
+     * @param retryConfig the configuration of the sampling mechanism, where the timeout defines the time window
+     *
+     * @see RetryMatcher#eventually(Matcher, RetryConfig)
+     */
+    public static <T> Matcher<Supplier<? extends T>> consistently(Matcher<? super T> matcher, RetryConfig retryConfig) {
+        return new ConsistentlyMatcher<>(matcher, retryConfig);
+    }
+}
@@ -0,0 +1,39 @@
+package me.alb_i986.testing.assertions.retry;
+
+import me.alb_i986.testing.assertions.retry.internal.TimeFormatter;
+
+import java.time.Duration;
+
+/**
+ * How long, and how many attempts, it took an assertion to pass.
+ * Immutable.
+ *
+ * @see ConvergenceHistogram#measure(java.util.function.Supplier, org.hamcrest.Matcher, RetryConfig)
+ */
+public final class Convergence {
+
+    private final Duration timeToMatch;
+    private final int attempts;
+
+    Convergence(Duration timeToMatch, int attempts) {
+        this.timeToMatch = timeToMatch;
+        this.attempts = attempts;
+    }
+
+    /**
+     * @return the time elapsed from the beginning of the first attempt to the end of the one which matched,
+     *         including the waits in between
+     */
+    public Duration getTimeToMatch() {
+        return timeToMatch;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    @Override
+    public String toString() {
+        return "matched in " + TimeFormatter.SINGLETON.prettyPrint(timeToMatch) + ", after " + attempts + " attempts";
+    }
+}
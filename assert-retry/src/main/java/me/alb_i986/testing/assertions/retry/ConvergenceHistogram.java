@@ -0,0 +1,137 @@
+package me.alb_i986.testing.assertions.retry;
+
+import me.alb_i986.testing.assertions.retry.core.RetryOutcome;
+import me.alb_i986.testing.assertions.retry.internal.LatencyHistogram;
+import me.alb_i986.testing.assertions.retry.internal.TimeFormatter;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeDiagnosingMatcher;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Measures how long assertions take to pass, and allows to assert on the percentiles of the times measured,
+ * turning an integration test into a latency regression test.
+ * <p>
+ * Example:
+ * <pre>
+ * ConvergenceHistogram deliveryTimes = new ConvergenceHistogram();
+ * for (int i = 0; i &lt; 500; i++) {
+ *     String id = publishEvent();
+ *     deliveryTimes.measure(() -&gt; consumedEvents(), hasItem(id), retryConfig);
+ * }
+ * assertThat(deliveryTimes, hasPercentile(99, lessThan(Duration.ofSeconds(2))));
+ * </pre>
+ * which, in case of failure, would report e.g.:
+ * <pre>
+ * Expected: p99 of the times to match a value less than &lt;PT2S&gt;
+ *      but: p99 was 2s 348ms, over 500 assertions: p50 212ms, p90 1s 117ms, p99 2s 348ms, max 2s 901ms
+ * </pre>
+ * <p>
+ * The times are recorded in a fixed-memory histogram, accurate to within about 12%.
+ * Histograms can be merged, e.g. to aggregate the measurements of tests running in parallel.
+ * <p>
+ * Thread-safe.
+ */
+public final class ConvergenceHistogram {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    /**
+     * Same as {@code assertThat(actualValuesSupplier, eventually(matcher, retryConfig))},
+     * but also records how long the assertion took to pass.
+     *
+     * @return how long, and how many attempts, the assertion took to pass
+     *
+     * @throws AssertionError if the assertion fails, in which case nothing is recorded
+     */
+    public <T> Convergence measure(Supplier<? extends T> actualValuesSupplier, Matcher<? super T> matcher,
+                                   RetryConfig retryConfig) {
+        RetryMatcher<T> retryMatcher = new RetryMatcher<>(matcher, retryConfig);
+        if (!retryMatcher.matches(actualValuesSupplier)) {
+            throw retryMatcher.newAssertionError(actualValuesSupplier);
+        }
+        RetryOutcome<T> outcome = retryMatcher.getOutcome();
+        histogram.record(outcome.getElapsedNanos());
+        return new Convergence(Duration.ofNanos(outcome.getElapsedNanos()), outcome.getAttempts());
+    }
+
+    /**
+     * Adds all of the times recorded by the given histogram to this one.
+     */
+    public void merge(ConvergenceHistogram other) {
+        histogram.merge(other.histogram);
+    }
+
+    /**
+     * @return how many times were recorded
+     */
+    public long getCount() {
+        return histogram.getCount();
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the time within which the given percentile of the assertions passed, or zero if none was recorded
+     *
+     * @throws IllegalArgumentException if the percentile is out of range
+     */
+    public Duration getPercentile(double percentile) {
+        return histogram.getDurationAtPercentile(percentile);
+    }
+
+    public Duration getMax() {
+        return Duration.ofNanos(histogram.getMaxNanos());
+    }
+
+    /**
+     * E.g. {@code "500 assertions: p50 212ms, p90 1s 117ms, p99 2s 348ms, max 2s 901ms"}
+     */
+    @Override
+    public String toString() {
+        TimeFormatter formatter = TimeFormatter.SINGLETON;
+        return getCount() + " assertions: p50 " + formatter.prettyPrint(getPercentile(50))
+                + ", p90 " + formatter.prettyPrint(getPercentile(90))
+                + ", p99 " + formatter.prettyPrint(getPercentile(99))
+                + ", max " + formatter.prettyPrint(getMax());
+    }
+
+    /**
+     * Matches a histogram whose given percentile satisfies the given matcher,
+     * e.g. {@code hasPercentile(99, lessThan(Duration.ofSeconds(2)))}.
+     * Does not match an empty histogram.
+     *
+     * @param percentile between 0 and 100
+     *
+     * @throws IllegalArgumentException if the percentile is out of range
+     */
+    public static Matcher<ConvergenceHistogram> hasPercentile(double percentile, Matcher<? super Duration> matcher) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("The percentile must be between 0 and 100: " + percentile);
+        }
+        String name = "p" + (percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile));
+        return new TypeSafeDiagnosingMatcher<ConvergenceHistogram>() {
+            @Override
+            protected boolean matchesSafely(ConvergenceHistogram histogram, Description mismatchDescription) {
+                if (histogram.getCount() == 0) {
+                    mismatchDescription.appendText("no assertion was measured");
+                    return false;
+                }
+                Duration value = histogram.getPercentile(percentile);
+                if (matcher.matches(value)) {
+                    return true;
+                }
+                mismatchDescription.appendText(name + " was " + TimeFormatter.SINGLETON.prettyPrint(value)
+                        + ", over " + histogram);
+                return false;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText(name + " of the times to match ")
+                        .appendDescriptionOf(matcher);
+            }
+        };
+    }
+}
@@ -0,0 +1,187 @@
+package me.alb_i986.testing.assertions.retry;
+
+import me.alb_i986.testing.assertions.retry.internal.TimeFormatter;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.Matchers;
+import org.hamcrest.TypeSafeMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Matcher} verifying that a supplier of append-only collections, e.g. "all of the events in the audit log",
+ * <i>eventually</i> supplies an element matching a given condition.
+ * <p>
+ * Instead of re-scanning the whole collection at every attempt, only the elements which are new
+ * since the previous attempt are matched, so that the cost of each attempt is proportional to the new data,
+ * rather than to the whole history.
+ * Accordingly, the actual values reported in case of failure are the new elements found at each attempt.
+ *
+ * @param <E> the type of the elements of the collections supplied
+ *
+ * @see #eventuallyHasItem(Matcher, RetryConfig)
+ * @see #eventuallyReceives(Matcher, RetryConfig)
+ */
+public class IncrementalRetryMatcher<E> extends TypeSafeMatcher<Supplier<? extends Iterable<? extends E>>> {
+
+    private static final Logger logger = LoggerFactory.getLogger(IncrementalRetryMatcher.class);
+
+    private final Matcher<? super E> elementMatcher;
+    private final RetryConfig config;
+    private final boolean cumulative;
+    private final RetryMatcher<List<E>> newElementsMatcher;
+    private final TimeFormatter timeFormatter;
+
+    private Supplier<List<E>> newElementsSupplier;
+
+    /**
+     * @param cumulative true if the supplier returns all of the elements so far,
+     *                   false if it returns only the new elements since the previous call
+     */
+    IncrementalRetryMatcher(Matcher<? super E> elementMatcher, RetryConfig config, boolean cumulative) {
+        super(Supplier.class);
+        this.elementMatcher = elementMatcher;
+        this.config = config;
+        this.cumulative = cumulative;
+        this.newElementsMatcher = new RetryMatcher<>(Matchers.hasItem(elementMatcher), config);
+        this.timeFormatter = TimeFormatter.SINGLETON;
+    }
+
+    @Override
+    protected boolean matchesSafely(Supplier<? extends Iterable<? extends E>> actualValuesSupplier) {
+        newElementsSupplier = cumulative
+                ? new NewElementsSupplier<>(actualValuesSupplier)
+                : () -> copyOf(actualValuesSupplier.get().iterator());
+        return newElementsMatcher.matches(newElementsSupplier);
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendText("supplied elements to *eventually* include an item matching ")
+                .appendDescriptionOf(elementMatcher)
+                .appendText(" within " + timeFormatter.prettyPrint(
+                        config.getTimeout().getDuration()));
+    }
+
+    @Override
+    protected void describeMismatchSafely(Supplier<? extends Iterable<? extends E>> item, Description mismatchDescription) {
+        newElementsMatcher.describeMismatch(newElementsSupplier, mismatchDescription);
+    }
+
+    private static <E> List<E> copyOf(Iterator<? extends E> elements) {
+        List<E> copy = new ArrayList<>();
+        while (elements.hasNext()) {
+            copy.add(elements.next());
+        }
+        return copy;
+    }
+
+    /**
+     * Keeps track of how many elements have been seen so far, and returns only the new ones.
+     */
+    private static class NewElementsSupplier<E> implements Supplier<List<E>> {
+
+        private final Supplier<? extends Iterable<? extends E>> allElementsSupplier;
+        private int offset;
+
+        NewElementsSupplier(Supplier<? extends Iterable<? extends E>> allElementsSupplier) {
+            this.allElementsSupplier = allElementsSupplier;
+        }
+
+        @Override
+        public List<E> get() {
+            Iterable<? extends E> allElements = allElementsSupplier.get();
+            List<E> newElements;
+            if (allElements instanceof List) {
+                List<? extends E> list = (List<? extends E>) allElements;
+                if (list.size() < offset) {
+                    logger.debug("The collection supplied shrank from {} to {} elements: starting over", offset, list.size());
+                    offset = 0;
+                }
+                newElements = new ArrayList<>(list.subList(offset, list.size()));
+            } else {
+                Iterator<? extends E> it = allElements.iterator();
+                int skipped = 0;
+                while (skipped < offset && it.hasNext()) {
+                    it.next();
+                    skipped++;
+                }
+                if (skipped < offset) {
+                    logger.debug("The collection supplied shrank from {} to {} elements: starting over", offset, skipped);
+                    offset = 0;
+                    it = allElements.iterator();
+                }
+                newElements = copyOf(it);
+            }
+            offset += newElements.size();
+            return newElements;
+        }
+    }
+
+    public static <E> Matcher<Supplier<? extends Iterable<? extends E>>> eventuallyHasItem(
+            Matcher<? super E> elementMatcher, RetryConfigBuilder retryConfigBuilder) {
+        return eventuallyHasItem(elementMatcher, retryConfigBuilder.build());
+    }
+
+    /**
+     * Allows to verify that a supplier of a growing, append-only, collection
+     * <i>eventually</i> supplies an element matching the given condition.
+     * <p>
+     * The supplier is expected to return all of the elements so far, e.g. all of the messages received:
+     * the elements already seen at the previous attempts are skipped, and only the new ones are matched.
+     * In case the collection shrinks, it is matched as a whole again.
+     * <pre>
+     * assertThat(() -&gt; auditLog.allEvents(), eventuallyHasItem(hasProperty("type", is("LOGIN")),
+     *         RetryConfig.builder()
+     *             .timeoutAfter(Duration.ofSeconds(60))
+     *             .sleepFor(Duration.ofSeconds(1))
+     *             .doNotRetryOnException()));
+     * </pre>
+     *
+     * @param <E> the type of the elements
+     *
+     * @param elementMatcher a Hamcrest matcher, encapsulating the condition under which an element is as expected
+     * @param retryConfig the configuration of the retry mechanism
+     *
+     * @see #eventuallyReceives(Matcher, RetryConfig)
+     */
+    public static <E> Matcher<Supplier<? extends Iterable<? extends E>>> eventuallyHasItem(
+            Matcher<? super E> elementMatcher, RetryConfig retryConfig) {
+        return new IncrementalRetryMatcher<>(elementMatcher, retryConfig, true);
+    }
+
+    public static <E> Matcher<Supplier<? extends Iterable<? extends E>>> eventuallyReceives(
+            Matcher<? super E> elementMatcher, RetryConfigBuilder retryConfigBuilder) {
+        return eventuallyReceives(elementMatcher, retryConfigBuilder.build());
+    }
+
+    /**
+     * Allows to verify that a supplier of new elements <i>eventually</i> supplies an element matching the given condition.
+     * <p>
+     * The supplier is expected to return only the new elements since the previous call,
+     * e.g. the messages received since the last poll.
+     * <pre>
+     * assertThat(() -&gt; consumer.poll(Duration.ZERO), eventuallyReceives(hasProperty("key", is("order-42")),
+     *         RetryConfig.builder()
+     *             .timeoutAfter(Duration.ofSeconds(60))
+     *             .sleepFor(Duration.ofSeconds(1))
+     *             .doNotRetryOnException()));
+     * </pre>
+     *
+     * @param <E> the type of the elements
+     *
+     * @param elementMatcher a Hamcrest matcher, encapsulating the condition under which an element is as expected
+     * @param retryConfig the configuration of the retry mechanism
+     *
+     * @see #eventuallyHasItem(Matcher, RetryConfig)
+     */
+    public static <E> Matcher<Supplier<? extends Iterable<? extends E>>> eventuallyReceives(
+            Matcher<? super E> elementMatcher, RetryConfig retryConfig) {
+        return new IncrementalRetryMatcher<>(elementMatcher, retryConfig, false);
+    }
+}
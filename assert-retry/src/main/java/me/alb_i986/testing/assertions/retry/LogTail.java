@@ -0,0 +1,257 @@
+package me.alb_i986.testing.assertions.retry;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Supplies the lines appended to a file, e.g. the log of a service, since the previous call,
+ * reading only the new bytes, so that each attempt costs the same however large the file grows.
+ * <p>
+ * Example:
+ * <pre>
+ * try (LogTail log = LogTail.fromEnd(Paths.get("/var/log/shipping/service.log"))) {
+ *     shippingService.start();
+ *     assertThat(log, eventually(hasItem(containsString("Started ShippingService")), retryConfig));
+ * }
+ * </pre>
+ * The position in the file is kept between calls, and the bytes from there on are read into a direct buffer,
+ * sparing the copy which the JDK makes when reading into a heap buffer. The line terminators are looked for
+ * in the direct buffer itself, and the bytes of each line are copied out of it once, to be decoded.
+ * A line is supplied only once it is terminated, the rest being kept for the following call.
+ * <p>
+ * The lines are split on the byte {@code '\n'}, hence only the charsets encoding it as that single byte are supported,
+ * e.g. UTF-8, or ISO-8859-1, but not UTF-16.
+ * <ul>
+ *     <li>If the file shrinks, i.e. it was truncated, it is read again from the beginning.</li>
+ *     <li>If the file is replaced, i.e. it was rotated, the rest of the old one is read first,
+ *         and then the new one from the beginning (on the file systems which identify files, see
+ *         {@link BasicFileAttributes#fileKey()}).</li>
+ *     <li>If the file does not exist (yet, or anymore), no lines are supplied.</li>
+ * </ul>
+ * The lines supplied describe themselves by the latest {@value #REPORTED_LINES} only,
+ * so that the mismatch description stays readable, however many are appended between the attempts.
+ * <p>
+ * Thread-safe.
+ */
+public final class LogTail implements Supplier<LogTail.Lines>, Closeable {
+
+    public static final int REPORTED_LINES = 10;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final Charset charset;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    private byte[] partialLine = new byte[256];
+    private int partialLineLength;
+
+    private FileChannel channel;
+    private Object fileKey;
+    private long position;
+
+    private LogTail(Path file, Charset charset) {
+        if (!Arrays.equals("\n".getBytes(charset), new byte[]{'\n'})) {
+            throw new IllegalArgumentException("The lines are split on the byte '\\n': "
+                    + charset + " does not encode it as such, unlike e.g. UTF-8");
+        }
+        this.file = file;
+        this.charset = charset;
+    }
+
+    /**
+     * Same as {@link #fromEnd(Path, Charset)}, decoding the lines as UTF-8.
+     */
+    public static LogTail fromEnd(Path file) throws IOException {
+        return fromEnd(file, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Supplies the lines appended from now on, i.e. skips the current content of the file, if any.
+     *
+     * @throws IllegalArgumentException if the charset does not encode {@code '\n'} as a single byte, e.g. UTF-16
+     */
+    public static LogTail fromEnd(Path file, Charset charset) throws IOException {
+        LogTail tail = new LogTail(file, charset);
+        if (tail.open()) {
+            tail.position = tail.channel.size();
+        }
+        return tail;
+    }
+
+    /**
+     * Same as {@link #fromStart(Path, Charset)}, decoding the lines as UTF-8.
+     */
+    public static LogTail fromStart(Path file) {
+        return fromStart(file, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Supplies the whole content of the file first, and then the lines appended.
+     *
+     * @throws IllegalArgumentException if the charset does not encode {@code '\n'} as a single byte, e.g. UTF-16
+     */
+    public static LogTail fromStart(Path file, Charset charset) {
+        return new LogTail(file, charset);
+    }
+
+    /**
+     * @return the lines appended since the previous call, possibly none
+     * @throws UncheckedIOException if the file could not be read
+     */
+    @Override
+    public synchronized Lines get() {
+        List<String> lines = new ArrayList<>();
+        try {
+            if (channel == null && !open()) {
+                return new Lines(lines);
+            }
+            Object currentKey = currentFileKey();
+            if (currentKey != null && !currentKey.equals(fileKey)) {
+                readAppended(lines); // the rest of the rotated file
+                if (partialLineLength > 0) {
+                    lines.add(decodeLine());
+                }
+                closeChannel();
+                if (!open()) {
+                    return new Lines(lines);
+                }
+            } else if (channel.size() < position) {
+                partialLineLength = 0;
+                position = 0;
+            }
+            readAppended(lines);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + file, e);
+        }
+        return new Lines(lines);
+    }
+
+    /**
+     * @return false if the file does not exist
+     */
+    private boolean open() throws IOException {
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        fileKey = currentFileKey();
+        position = 0;
+        partialLineLength = 0;
+        return true;
+    }
+
+    /**
+     * @return null if the file does not exist, or the file system does not identify files
+     */
+    private Object currentFileKey() throws IOException {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private void readAppended(List<String> lines) throws IOException {
+        int read;
+        while ((read = channel.read(buffer, position)) > 0) {
+            position += read;
+            int lineStart = 0;
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    copyToPartialLine(lineStart, i);
+                    lines.add(decodeLine());
+                    lineStart = i + 1;
+                }
+            }
+            copyToPartialLine(lineStart, read);
+            ((Buffer) buffer).clear(); // as a Buffer, not to depend on the overloads of JDK 9+
+        }
+    }
+
+    private void copyToPartialLine(int from, int to) {
+        int length = to - from;
+        if (partialLineLength + length > partialLine.length) {
+            partialLine = Arrays.copyOf(partialLine, Math.max(partialLine.length * 2, partialLineLength + length));
+        }
+        ((Buffer) buffer).limit(to).position(from);
+        buffer.get(partialLine, partialLineLength, length);
+        ((Buffer) buffer).limit(buffer.capacity());
+        partialLineLength += length;
+    }
+
+    private String decodeLine() {
+        int length = partialLineLength > 0 && partialLine[partialLineLength - 1] == '\r'
+                ? partialLineLength - 1 : partialLineLength;
+        partialLineLength = 0;
+        return new String(partialLine, 0, length, charset);
+    }
+
+    private void closeChannel() throws IOException {
+        channel.close();
+        channel = null;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            closeChannel();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "tail of " + file;
+    }
+
+    /**
+     * The lines supplied by one call.
+     * Its string representation is bounded to the latest {@value #REPORTED_LINES} lines.
+     */
+    public static final class Lines extends AbstractList<String> {
+
+        private final List<String> lines;
+
+        Lines(List<String> lines) {
+            this.lines = Objects.requireNonNull(lines);
+        }
+
+        @Override
+        public String get(int index) {
+            return lines.get(index);
+        }
+
+        @Override
+        public int size() {
+            return lines.size();
+        }
+
+        @Override
+        public String toString() {
+            if (lines.size() <= REPORTED_LINES) {
+                return lines.toString();
+            }
+            List<String> latest = lines.subList(lines.size() - REPORTED_LINES, lines.size());
+            return "[... " + (lines.size() - REPORTED_LINES) + " more lines, "
+                    + latest.toString().substring(1);
+        }
+    }
+}
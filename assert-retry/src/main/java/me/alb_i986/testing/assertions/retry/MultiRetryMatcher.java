@@ -0,0 +1,287 @@
+package me.alb_i986.testing.assertions.retry;
+
+import me.alb_i986.testing.assertions.retry.Conditions.Condition;
+import me.alb_i986.testing.assertions.retry.RetryMatcher.FailureReason;
+import me.alb_i986.testing.assertions.retry.internal.AssertRetryResult;
+import me.alb_i986.testing.assertions.retry.internal.BusyLoopGuard;
+import me.alb_i986.testing.assertions.retry.internal.RetryProfiler;
+import me.alb_i986.testing.assertions.retry.internal.ThrownExceptions;
+import me.alb_i986.testing.assertions.retry.internal.TimeFormatter;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A {@link Matcher} verifying that several conditions, each on its own supplier of actual values,
+ * are <i>eventually</i> all satisfied, within the same timeout.
+ * <p>
+ * All of the conditions are polled in a single retry loop:
+ * in each cycle, every condition which has not matched yet is polled once,
+ * then the configured {@link WaitStrategy} is run, once.
+ * A condition which has matched is not polled anymore.
+ *
+ * @see #eventuallyAll(RetryConfig)
+ */
+public class MultiRetryMatcher extends TypeSafeMatcher<Conditions> {
+
+    private static final Logger logger = LoggerFactory.getLogger(MultiRetryMatcher.class);
+
+    private final RetryConfig config;
+    private final TimeFormatter timeFormatter;
+    private final RetryProfiler profiler;
+
+    private final List<ConditionResults<?>> conditionsResults = new ArrayList<>();
+    private int cycles;
+    private long waitNanos;
+
+    private FailureReason failureReason;
+    private int busyLoopGuardActivations;
+
+    MultiRetryMatcher(RetryConfig config) {
+        super(Conditions.class);
+        this.config = config;
+        this.timeFormatter = TimeFormatter.SINGLETON;
+        this.profiler = RetryProfiler.SINGLETON;
+    }
+
+    @Override
+    protected boolean matchesSafely(Conditions conditions) {
+        started(conditions);
+
+        if (!profiler.isEnabled()) {
+            return retry();
+        }
+        long start = System.nanoTime();
+        boolean matches = retry();
+        profiler.record(cycles, System.nanoTime() - start, waitNanos, matches, failureReason == FailureReason.CONDITIONS_NOT_CONVERGED);
+        return matches;
+    }
+
+    /**
+     * Resets the state of the previous run, if any, so that the same instance can be reused for many assertions.
+     */
+    private void started(Conditions conditions) {
+        conditionsResults.clear();
+        for (Condition<?> condition : conditions.asList()) {
+            conditionsResults.add(new ConditionResults<>(condition));
+        }
+        cycles = 0;
+        waitNanos = 0;
+        failureReason = null;
+        busyLoopGuardActivations = 0;
+    }
+
+    private boolean retry() {
+        VirtualTimeScheduler virtualTime = config.getVirtualTime();
+        if (virtualTime == null) {
+            return retryLoop();
+        }
+        virtualTime.loopStarted();
+        try {
+            return retryLoop();
+        } finally {
+            virtualTime.loopFinished();
+        }
+    }
+
+    private boolean retryLoop() {
+        config.getTimeout().restart();
+        config.getWaitStrategy().reset();
+        config.getBusyLoopGuard().reset();
+        try {
+            return pollUntilConverged();
+        } finally {
+            config.getWaitStrategy().release();
+        }
+    }
+
+    private boolean pollUntilConverged() {
+        List<ConditionResults<?>> pending = new ArrayList<>(conditionsResults);
+        while (true) {
+            if (isCancelled()) {
+                return false;
+            }
+            cycles++;
+            for (Iterator<ConditionResults<?>> it = pending.iterator(); it.hasNext(); ) {
+                ConditionResults<?> conditionResults = it.next();
+                try {
+                    if (conditionResults.poll()) {
+                        it.remove();
+                    }
+                } catch (Exception e) {
+                    logger.debug("The Supplier threw", e);
+                    if (config.getRetryOnException().isOff()) {
+                        failureReason = FailureReason.SUPPLIER_THREW;
+                        return false;
+                    } else if (!config.getRetryOnException().matches(e)) {
+                        failureReason = FailureReason.SUPPLIER_THREW_UNCONFIGURED_EXCEPTION;
+                        return false;
+                    }
+                }
+            }
+
+            if (pending.isEmpty()) { // assertion PASSED!
+                logger.debug("All of the conditions MATCHED");
+                return true;
+            }
+
+            if (config.getTimeout().isExpired()) {
+                failureReason = FailureReason.CONDITIONS_NOT_CONVERGED;
+                return false;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                failureReason = FailureReason.INTERRUPTED;
+                return false;
+            }
+            logger.debug("{} conditions did not match yet: we're gonna wait before trying again. {}",
+                    pending.size(), config.getWaitStrategy());
+
+            long waitStart = System.nanoTime();
+            try {
+                config.getBusyLoopGuard().runWait(config.getWaitStrategy(), null);
+            } catch (InterruptedException e) {
+                logger.debug("The WaitStrategy was interrupted: we're gonna stop trying", e);
+                Thread.currentThread().interrupt();
+                failureReason = FailureReason.INTERRUPTED;
+                return false;
+            } finally {
+                waitNanos += System.nanoTime() - waitStart;
+                busyLoopGuardActivations = config.getBusyLoopGuard().getActivations();
+            }
+        }
+    }
+
+    private boolean isCancelled() {
+        if (config.getCancellation() != null && config.getCancellation().isCancelled()) {
+            failureReason = FailureReason.CANCELLED;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendText("all of the conditions to *eventually* match within " + timeFormatter.prettyPrint(
+                config.getTimeout().getDuration()));
+    }
+
+    @Override
+    protected void describeMismatchSafely(Conditions conditions, Description mismatchDescription) {
+        mismatchDescription.appendText(failureReason.getDescription());
+
+        int i = 1;
+        for (ConditionResults<?> conditionResults : conditionsResults) {
+            mismatchDescription.appendText(System.lineSeparator())
+                    .appendText("          Condition " + i++ + " of " + conditionsResults.size() + ", ");
+            conditionResults.describeTo(mismatchDescription);
+        }
+        if (busyLoopGuardActivations > 0) {
+            mismatchDescription.appendText(System.lineSeparator())
+                    .appendText("          " + BusyLoopGuard.describeActivations(busyLoopGuardActivations));
+        }
+    }
+
+    private static class ConditionResults<T> {
+
+        private final Condition<T> condition;
+        private final List<AssertRetryResult<T>> retryResults = new ArrayList<>();
+        private final ThrownExceptions thrownExceptions = new ThrownExceptions();
+        private int polls;
+        private boolean matched;
+
+        ConditionResults(Condition<T> condition) {
+            this.condition = condition;
+        }
+
+        /**
+         * @return true if the actual value supplied matches
+         */
+        boolean poll() {
+            polls++;
+            try {
+                T actual = condition.getSupplier().get();
+                AssertRetryResult<T> result = new AssertRetryResult<>();
+                result.suppliedValue(actual);
+                retryResults.add(result);
+
+                if (condition.getMatcher().matches(actual)) {
+                    logger.debug("The actual value supplied MATCHED: {}", actual);
+                    result.actualMatches();
+                    matched = true;
+                    return true;
+                }
+                logger.debug("The actual value supplied did not match: {}", actual);
+                return false;
+            } catch (Exception e) {
+                thrownExceptions.addTo(retryResults, e, polls);
+                throw e;
+            }
+        }
+
+        void describeTo(Description description) {
+            description.appendText("supplied value to match ")
+                    .appendDescriptionOf(condition.getMatcher())
+                    .appendText(matched ? ": MATCHED" : ": NOT MATCHED")
+                    .appendText(System.lineSeparator())
+                    .appendText("          Actual values (in order of appearance):");
+            for (AssertRetryResult<T> retryResult : retryResults) {
+                description.appendText(System.lineSeparator());
+                description.appendText("           - ");
+                description.appendDescriptionOf(retryResult);
+            }
+            thrownExceptions.describeTo(description);
+        }
+    }
+
+    public static Matcher<Conditions> eventuallyAll(RetryConfigBuilder retryConfigBuilder) {
+        return eventuallyAll(retryConfigBuilder.build());
+    }
+
+    /**
+     * Allows to verify that several conditions, each on its own supplier of actual values,
+     * are <i>eventually</i> all satisfied, within the configured timeout.
+     * <p>
+     * Instead of asserting the conditions one after the other, each with its own retry loop,
+     * the conditions are polled together in a single retry loop, under the same timeout,
+     * and the conditions already satisfied are not polled anymore.
+     * <pre>
+     * assertThat(condition(orderStatus, is("SHIPPED"))
+     *                 .and(invoices, hasSize(1)),
+     *         eventuallyAll(RetryConfig.builder()
+     *             .timeoutAfter(Duration.ofSeconds(60))
+     *             .sleepFor(Duration.ofSeconds(5))
+     *             .doNotRetryOnException()));
+     * </pre>
+     *
+     * In case the timeout expires, the AssertionError thrown reports, for each condition,
+     * whether it matched, and all of its actual values:
+     * <pre>
+     * java.lang.AssertionError:
+     * Expected: all of the conditions to *eventually* match within 60s
+     *      but: The timeout was reached and not all of the conditions matched
+     *           Condition 1 of 2, supplied value to match is "SHIPPED": MATCHED
+     *           Actual values (in order of appearance):
+     *            - "CREATED"
+     *            - MATCH!
+     *           Condition 2 of 2, supplied value to match a collection with size &lt;1&gt;: NOT MATCHED
+     *           Actual values (in order of appearance):
+     *            - &lt;[]&gt;
+     *            - &lt;[]&gt;
+     *            ...
+     * </pre>
+     *
+     * @param retryConfig the configuration of the retry mechanism
+     *
+     * @see Conditions#condition(java.util.function.Supplier, Matcher)
+     * @see RetryMatcher#eventually(Matcher, RetryConfig)
+     */
+    public static Matcher<Conditions> eventuallyAll(RetryConfig retryConfig) {
+        return new MultiRetryMatcher(retryConfig);
+    }
+}
@@ -0,0 +1,58 @@
+package me.alb_i986.testing.assertions.retry;
+
+import org.hamcrest.Matcher;
+
+import java.util.function.Supplier;
+
+/**
+ * An {@code eventually} assertion which is built once, and run many times,
+ * e.g. by data-driven suites running hundreds of thousands of assertions with the same matcher and config:
+ * <pre>
+ * private static final PreparedAssertion&lt;Order&gt; IS_SHIPPED =
+ *         PreparedAssertion.eventually(hasStatus("SHIPPED"), retryConfig);
+ *
+ * &#64;Test
+ * public void orderIsShipped() {
+ *     IS_SHIPPED.assertThat(() -&gt; orders.get(orderId));
+ * }
+ * </pre>
+ * Each thread running the assertion gets its own {@link RetryMatcher}, built on first use, and reused afterwards,
+ * hence the retry loop and the matchers are not rebuilt at every assertion.
+ * <p>
+ * Thread-safe, provided that the wait strategy of the config can be shared by many threads, as the default ones can.
+ */
+public final class PreparedAssertion<T> {
+
+    private final ThreadLocal<RetryMatcher<T>> retryMatcher;
+
+    private PreparedAssertion(Matcher<? super T> matcher, Matcher<? super T> abortWhen, RetryConfig retryConfig) {
+        this.retryMatcher = ThreadLocal.withInitial(() -> new RetryMatcher<>(matcher, abortWhen, retryConfig));
+    }
+
+    /**
+     * @see RetryMatcher#eventually(Matcher, RetryConfig)
+     */
+    public static <T> PreparedAssertion<T> eventually(Matcher<? super T> matcher, RetryConfig retryConfig) {
+        return new PreparedAssertion<>(matcher, null, retryConfig);
+    }
+
+    /**
+     * @see RetryMatcher#eventually(Matcher, Matcher, RetryConfig)
+     */
+    public static <T> PreparedAssertion<T> eventually(Matcher<? super T> matcher, Matcher<? super T> abortWhen,
+                                                      RetryConfig retryConfig) {
+        return new PreparedAssertion<>(matcher, abortWhen, retryConfig);
+    }
+
+    /**
+     * Same as {@code org.hamcrest.MatcherAssert.assertThat(actualValuesSupplier, eventually(matcher, retryConfig))}.
+     *
+     * @throws AssertionError if the assertion fails
+     */
+    public void assertThat(Supplier<? extends T> actualValuesSupplier) {
+        RetryMatcher<T> matcher = retryMatcher.get();
+        if (!matcher.matches(actualValuesSupplier)) {
+            throw matcher.newAssertionError(actualValuesSupplier);
+        }
+    }
+}
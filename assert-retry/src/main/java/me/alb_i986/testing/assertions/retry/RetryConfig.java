@@ -0,0 +1,148 @@
+package me.alb_i986.testing.assertions.retry;
+
+import me.alb_i986.testing.assertions.retry.core.CancellationToken;
+import me.alb_i986.testing.assertions.retry.internal.BusyLoopGuard;
+import me.alb_i986.testing.assertions.retry.internal.RetryOnException;
+import me.alb_i986.testing.assertions.retry.internal.SystemSleeper;
+import me.alb_i986.testing.assertions.retry.internal.Timeout;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.function.Supplier;
+
+/**
+ * Immutable object.
+ * Use {@link RetryConfigBuilder} to build an instance.
+ *
+ * @see RetryConfigBuilder
+ */
+public class RetryConfig {
+
+    private final Timeout timeout;
+    private final WaitStrategy waitStrategy;
+    private final RetryOnException retryOnException;
+    private final VirtualTimeScheduler virtualTime;
+    private final CancellationToken cancellation;
+    private final BusyLoopGuard busyLoopGuard;
+    private final AttemptCosts attemptCosts;
+    private final int prefetch;
+    private final AttemptTrace attemptTrace;
+    private final Supplier<?> versionProbe;
+    private final Timeout stallWindow;
+    private final Comparator<Object> progress;
+    private final boolean reportingDiffs;
+
+    RetryConfig(Timeout timeout, WaitStrategy waitStrategy, RetryOnException retryOnException) {
+        this(timeout, waitStrategy, retryOnException, null);
+    }
+
+    RetryConfig(Timeout timeout, WaitStrategy waitStrategy, RetryOnException retryOnException,
+                VirtualTimeScheduler virtualTime) {
+        this(timeout, waitStrategy, retryOnException, virtualTime, null,
+                new BusyLoopGuard(Duration.ZERO, Clock.systemDefaultZone(), new SystemSleeper()), null, 0, null, null, null, null, false);
+    }
+
+    RetryConfig(Timeout timeout, WaitStrategy waitStrategy, RetryOnException retryOnException,
+                VirtualTimeScheduler virtualTime, CancellationToken cancellation, BusyLoopGuard busyLoopGuard,
+                AttemptCosts attemptCosts, int prefetch, AttemptTrace attemptTrace,
+                Supplier<?> versionProbe, Timeout stallWindow, Comparator<Object> progress,
+                boolean reportingDiffs) {
+        this.timeout = timeout;
+        this.waitStrategy = waitStrategy;
+        this.retryOnException = retryOnException;
+        this.virtualTime = virtualTime;
+        this.cancellation = cancellation;
+        this.busyLoopGuard = busyLoopGuard;
+        this.attemptCosts = attemptCosts;
+        this.prefetch = prefetch;
+        this.attemptTrace = attemptTrace;
+        this.versionProbe = versionProbe;
+        this.stallWindow = stallWindow;
+        this.progress = progress;
+        this.reportingDiffs = reportingDiffs;
+    }
+
+    public static RetryConfigBuilder builder() {
+        return new RetryConfigBuilder();
+    }
+
+    public Timeout getTimeout() {
+        return timeout;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public RetryOnException getRetryOnException() {
+        return retryOnException;
+    }
+
+    /**
+     * @return null unless the retry mechanism is driven by virtual time
+     */
+    public VirtualTimeScheduler getVirtualTime() {
+        return virtualTime;
+    }
+
+    /**
+     * @return null unless the retry mechanism can be cancelled
+     */
+    public CancellationToken getCancellation() {
+        return cancellation;
+    }
+
+    public BusyLoopGuard getBusyLoopGuard() {
+        return busyLoopGuard;
+    }
+
+    /**
+     * @return null unless the costs of the attempts are to be measured
+     */
+    public AttemptCosts getAttemptCosts() {
+        return attemptCosts;
+    }
+
+    /**
+     * @return how many values can be prefetched at most, or 0 if the values are not to be prefetched
+     */
+    public int getPrefetch() {
+        return prefetch;
+    }
+
+    /**
+     * @return null unless the attempts are to be traced
+     */
+    public AttemptTrace getAttemptTrace() {
+        return attemptTrace;
+    }
+
+    /**
+     * @return null unless the supplier is to be called only when the version probe returns a new value
+     */
+    public Supplier<?> getVersionProbe() {
+        return versionProbe;
+    }
+
+    /**
+     * @return null unless the retry mechanism is to fail early when the actual values stop making progress
+     */
+    public Timeout getStallWindow() {
+        return stallWindow;
+    }
+
+    /**
+     * @return null unless the retry mechanism is to fail early when the actual values stop making progress
+     */
+    public Comparator<Object> getProgress() {
+        return progress;
+    }
+
+    /**
+     * @return true if the actual values are to be reported by their differences from the previous ones
+     */
+    public boolean isReportingDiffs() {
+        return reportingDiffs;
+    }
+}
@@ -0,0 +1,446 @@
+package me.alb_i986.testing.assertions.retry;
+
+import me.alb_i986.testing.assertions.retry.core.CancellationToken;
+import me.alb_i986.testing.assertions.retry.internal.BusyLoopGuard;
+import me.alb_i986.testing.assertions.retry.internal.CancellableSleeper;
+import me.alb_i986.testing.assertions.retry.internal.RetryOnException;
+import me.alb_i986.testing.assertions.retry.internal.SystemSleeper;
+import me.alb_i986.testing.assertions.retry.internal.Timeout;
+import me.alb_i986.testing.assertions.retry.internal.ValueDiff;
+import me.alb_i986.testing.assertions.retry.internal.WatchServiceWaitStrategy;
+import me.alb_i986.testing.assertions.retry.internal.SleepWaitStrategy;
+import me.alb_i986.testing.assertions.retry.internal.SpinThenParkWaitStrategy;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.function.Supplier;
+
+/**
+ * Provides a fluent DSL for configuring the retry mechanism.
+ */
+public class RetryConfigBuilder {
+
+    private WaitStrategy waitStrategy;
+    private Duration sleepDuration;
+    private RetryOnException retryOnException;
+    private Timeout timeout;
+    private Duration timeoutDuration;
+    private VirtualTimeScheduler virtualTime;
+    private CancellationToken cancellation;
+    private Duration minAttemptInterval;
+    private AttemptCosts attemptCosts;
+    private int prefetch;
+    private AttemptTrace attemptTrace;
+    private Supplier<?> versionProbe;
+    private Duration stallWindow;
+    private Comparator<Object> progress;
+    private boolean reportDiffs;
+
+    /**
+     * Stop retrying when the timeout expires.
+     *
+     * @throws IllegalArgumentException if the duration is not positive
+     */
+    public RetryConfigBuilder timeoutAfter(Duration duration) {
+        if (duration == null) {
+            throw new IllegalArgumentException("Duration must not be null");
+        }
+        if (duration.isZero() || duration.isNegative()) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+        this.timeoutDuration = duration;
+        this.timeout = null;
+        return this;
+    }
+
+    protected RetryConfigBuilder timeout(Timeout timeout) {
+        this.timeout = timeout;
+        this.timeoutDuration = null;
+        return this;
+    }
+
+    /**
+     * @see #sleepFor(Duration)
+     */
+    public RetryConfigBuilder sleepForMillis(long millis) {
+        return sleepFor(Duration.ofMillis(millis));
+    }
+
+    /**
+     * Configure sleep as the wait strategy.
+     *
+     * @throws IllegalArgumentException if the duration is not positive
+     *
+     * @see SleepWaitStrategy
+     */
+    public RetryConfigBuilder sleepFor(Duration duration) {
+        if (duration == null) {
+            throw new IllegalArgumentException("Duration must not be null");
+        }
+        if (duration.isZero() || duration.isNegative()) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+        this.sleepDuration = duration;
+        this.waitStrategy = null;
+        return this;
+    }
+
+    /**
+     * Configure a spin-then-park wait strategy with sensible defaults:
+     * 100 spins, 10 yields, then park from 1 microsecond up to 1 millisecond.
+     *
+     * @see #spinThenPark(int, int, Duration, Duration)
+     */
+    public RetryConfigBuilder spinThenPark() {
+        return spinThenPark(100, 10, Duration.ofNanos(1_000), Duration.ofMillis(1));
+    }
+
+    /**
+     * Configure a wait strategy meant for conditions expected to become true within microseconds,
+     * where sleeping for whole milliseconds would add most of the latency:
+     * spin {@code maxSpins} times, then yield {@code maxYields} times,
+     * then park from {@code minPark}, doubling up to {@code maxPark}.
+     *
+     * @throws IllegalArgumentException if the spins or the yields are negative,
+     *                                  or the park durations are not positive, or minPark is greater than maxPark
+     *
+     * @see SpinThenParkWaitStrategy
+     */
+    public RetryConfigBuilder spinThenPark(int maxSpins, int maxYields, Duration minPark, Duration maxPark) {
+        this.waitStrategy = new SpinThenParkWaitStrategy(maxSpins, maxYields, minPark, maxPark);
+        this.sleepDuration = null;
+        return this;
+    }
+
+    /**
+     * Configure a wait strategy which wakes up as soon as the given file, or an entry of the given directory,
+     * is created, modified, or deleted, rather than polling on a fixed interval.
+     * The fallback timeout bounds each wait, in case no change is notified.
+     *
+     * @throws IllegalArgumentException if the path is null, or the fallback timeout is not positive
+     *
+     * @see WatchServiceWaitStrategy
+     */
+    public RetryConfigBuilder waitForChangesOf(Path path, Duration fallback) {
+        this.waitStrategy = new WatchServiceWaitStrategy(path, fallback);
+        this.sleepDuration = null;
+        return this;
+    }
+
+    /**
+     * Configure a wait strategy which wakes up as soon as the connection of the given probe is established,
+     * or closed, or some data are received, rather than polling on a fixed interval.
+     * The fallback timeout bounds each wait, in case nothing happens.
+     *
+     * @throws IllegalArgumentException if the probe is null, or the fallback timeout is not positive
+     *
+     * @see SocketReadiness
+     */
+    public RetryConfigBuilder waitForReadinessOf(SocketReadiness.Probe probe, Duration fallback) {
+        if (probe == null) {
+            throw new IllegalArgumentException("The probe must not be null");
+        }
+        this.waitStrategy = probe.waitStrategy(fallback);
+        this.sleepDuration = null;
+        return this;
+    }
+
+    /**
+     * Allows to set a custom strategy to wait between attempts,
+     * e.g. "wait for the event X to happen".
+     * <p>
+     * Please note: it is recommended to have the custom strategy override {@code toString()}
+     * so that it returns a meaningful description of the strategy,
+     * e.g. "waiting for a message to be published on the queue myQueue".
+     * This will make the logs more meaningful.
+     */
+    public RetryConfigBuilder waitStrategy(WaitStrategy waitStrategy) {
+        if (waitStrategy == null) {
+            throw new IllegalArgumentException("null strategy");
+        }
+        this.waitStrategy = waitStrategy;
+        this.sleepDuration = null;
+        return this;
+    }
+
+    /**
+     * Guarantee that at least the given amount of time elapses between the end of an attempt
+     * and the beginning of the next one, whatever the wait strategy does.
+     * If the wait strategy returns sooner, the retry mechanism sleeps for the rest of the interval,
+     * backing off further if it keeps happening.
+     * <p>
+     * By default, the minimum interval is derived from the wait strategy: half of its expected duration, if known,
+     * e.g. the duration of a sleep, or else 1ms, so that a strategy which returns right away is detected.
+     * The strategies which return right away by design, e.g. spin-then-park, or the ones waking up on events,
+     * have no minimum interval by default (see {@link WaitStrategy#returnsEarlyByDesign()}).
+     * Zero disables the check, and the retry mechanism backs off only when the wait strategy throws.
+     *
+     * @throws IllegalArgumentException if the interval is negative
+     *
+     * @see BusyLoopGuard
+     */
+    public RetryConfigBuilder minAttemptInterval(Duration interval) {
+        if (interval == null) {
+            throw new IllegalArgumentException("The interval must not be null");
+        }
+        if (interval.isNegative()) {
+            throw new IllegalArgumentException("The interval must not be negative");
+        }
+        this.minAttemptInterval = interval;
+        return this;
+    }
+
+    /**
+     * Measure the CPU time used, and the bytes allocated, by each attempt, i.e. by the call to the supplier
+     * and the evaluation of the matcher, and report the totals and the maxima in the AssertionError.
+     *
+     * @see #measureAttemptCosts(AttemptCosts)
+     */
+    public RetryConfigBuilder measureAttemptCosts() {
+        return measureAttemptCosts(new AttemptCosts());
+    }
+
+    /**
+     * Same as {@link #measureAttemptCosts()}, but also adds up the costs of the attempts to the given object,
+     * at the end of each assertion, so that the caller can inspect them.
+     */
+    public RetryConfigBuilder measureAttemptCosts(AttemptCosts costs) {
+        if (costs == null) {
+            throw new IllegalArgumentException("The costs must not be null");
+        }
+        this.attemptCosts = costs;
+        return this;
+    }
+
+    /**
+     * Call the supplier in a background thread, so that the next value is fetched while the previous one
+     * is being matched, which pays off when both the supplier and the matcher are expensive,
+     * e.g. a remote fetch, and a deep comparison.
+     * The wait between attempts is run by the background thread too, right after each call to the supplier.
+     * The costs, and the durations, of the calls to the supplier are measured by the background thread.
+     * <p>
+     * The values are matched in the order they were supplied. At most {@code bufferSize} values are prefetched:
+     * when the retry mechanism stops, e.g. because a value matched, they are discarded.
+     * Not supported by {@link #virtualTime(VirtualTimeScheduler)}.
+     *
+     * @param bufferSize how many values can be prefetched at most
+     *
+     * @throws IllegalArgumentException if the buffer size is not positive
+     */
+    public RetryConfigBuilder prefetch(int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("The buffer size must be positive");
+        }
+        this.prefetch = bufferSize;
+        return this;
+    }
+
+    /**
+     * Call the supplier, and match the value supplied, only if the value returned by the given probe has changed
+     * since the previous attempt, e.g. an ETag, a row version, the last-modified time of a file, or a queue depth.
+     * Meant for expensive suppliers, e.g. paginated REST listings, or big SQL aggregates, whose state rarely changes.
+     * The attempts in which the probe returned the same value, compared by {@code equals}, are reported as "unchanged".
+     * <p>
+     * Applies to {@code eventually}. Not supported by {@link #prefetch(int)}.
+     *
+     * @param versionProbe should be much cheaper than the supplier.
+     *                     Its exceptions are handled as if the supplier threw them
+     */
+    public RetryConfigBuilder fetchOnlyWhenChanged(Supplier<?> versionProbe) {
+        if (versionProbe == null) {
+            throw new IllegalArgumentException("The version probe must not be null");
+        }
+        this.versionProbe = versionProbe;
+        return this;
+    }
+
+    /**
+     * Fail early as soon as the actual values make no progress towards the expected one for the given window,
+     * e.g. a row count, an offset, or a percentage which stops growing, rather than waiting for the timeout,
+     * which becomes a hard upper bound. This way, the timeout can be generous enough for slow environments,
+     * without wasting time on real failures.
+     * <p>
+     * A value makes progress if it is greater than the greatest one so far: the values must be {@link Comparable},
+     * or else the assertion throws an {@link IllegalArgumentException}.
+     * The window begins with the retry mechanism, and begins again at each progress.
+     * Applies to {@code eventually}.
+     *
+     * @see #failWhenStalled(Duration, Comparator)
+     */
+    public RetryConfigBuilder failWhenStalled(Duration stallWindow) {
+        return failWhenStalled(stallWindow, RetryConfigBuilder::compareComparables);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compareComparables(Object value, Object best) {
+        if (!(value instanceof Comparable)) {
+            throw new IllegalArgumentException("failWhenStalled(Duration) needs Comparable values, but "
+                    + value.getClass().getName() + " is not: use failWhenStalled(Duration, Comparator) instead");
+        }
+        return ((Comparable<Object>) value).compareTo(best);
+    }
+
+    /**
+     * Same as {@link #failWhenStalled(Duration)}, but a value makes progress if it is greater than the greatest one
+     * so far according to the given comparator, e.g. {@code Comparator.reverseOrder()}
+     * for a queue depth which is expected to drop to zero.
+     *
+     * @throws IllegalArgumentException if the window is not positive
+     */
+    @SuppressWarnings("unchecked")
+    public RetryConfigBuilder failWhenStalled(Duration stallWindow, Comparator<?> progress) {
+        if (stallWindow == null || stallWindow.isZero() || stallWindow.isNegative()) {
+            throw new IllegalArgumentException("The stall window must be positive");
+        }
+        if (progress == null) {
+            throw new IllegalArgumentException("The progress comparator must not be null");
+        }
+        this.stallWindow = stallWindow;
+        this.progress = (Comparator<Object>) progress;
+        return this;
+    }
+
+    /**
+     * Report the first actual value in full, and each of the following ones by its differences from the previous one,
+     * e.g. the elements added to a list, or the span of text which changed,
+     * so that the report of an assertion on large values stays proportional to how much they change.
+     * Applies to {@code eventually} and {@code consistently}.
+     *
+     * @see ValueDiff
+     */
+    public RetryConfigBuilder reportDiffs() {
+        this.reportDiffs = true;
+        return this;
+    }
+
+    /**
+     * Append a compact binary record of each attempt, passing or failing, to the given trace,
+     * which is cheaper than debug logging, and can be printed afterwards by {@link AttemptTraceReader}.
+     *
+     * @see AttemptTrace
+     */
+    public RetryConfigBuilder traceAttemptsTo(AttemptTrace trace) {
+        if (trace == null) {
+            throw new IllegalArgumentException("The trace must not be null");
+        }
+        this.attemptTrace = trace;
+        return this;
+    }
+
+    /**
+     * Drive the timeout and the sleeps by the given virtual clock, instead of the system one,
+     * so that the retry mechanism does not actually wait.
+     * Meant for testing code which makes use of the retry mechanism.
+     *
+     * @see VirtualTimeScheduler
+     */
+    public RetryConfigBuilder virtualTime(VirtualTimeScheduler scheduler) {
+        if (scheduler == null) {
+            throw new IllegalArgumentException("null scheduler");
+        }
+        this.virtualTime = scheduler;
+        return this;
+    }
+
+    /**
+     * Stop retrying as soon as the given token is cancelled, e.g. from another thread,
+     * failing with a distinct reason.
+     * The sleep between attempts, if configured, is woken up right away,
+     * whereas a custom wait strategy is let finish.
+     *
+     * @see CancellationToken#cancel()
+     */
+    public RetryConfigBuilder cancelWith(CancellationToken cancellation) {
+        if (cancellation == null) {
+            throw new IllegalArgumentException("The cancellation token must not be null");
+        }
+        this.cancellation = cancellation;
+        return this;
+    }
+
+    /**
+     * Configure not to retry in case the Supplier throws any exception.
+     */
+    public RetryConfigBuilder doNotRetryOnException() {
+        this.retryOnException = new RetryOnException(null);
+        return this;
+    }
+
+    /**
+     * Configure the retry mechanism to retry in case the Supplier throws
+     * the given type of exception, or lower (a subtype).
+     *
+     * @param exceptionType the type of exception thrown by the Supplier which we should catch
+     */
+    public RetryConfigBuilder retryOnException(Class<? extends Exception> exceptionType) {
+        if (exceptionType == null) {
+            throw new IllegalArgumentException("The exception type must not be null");
+        }
+        this.retryOnException = new RetryOnException(exceptionType);
+        return this;
+    }
+
+    /**
+     * Creates and returns an instance of {@link RetryConfig},
+     * configured according to the previous calls to the setter methods.
+     *
+     * @return a configured instance of {@link RetryConfig}
+     *
+     * @throws IllegalStateException In case a parameter was not explicitly set.
+     */
+    public RetryConfig build() {
+
+        //TODO let end users define their own defaults
+//        Runnable waitStrategy = this.waitStrategy == null ? DefaultValues.WAIT_STRATEGY : this.waitStrategy;
+//        boolean retryOnException = this.retryOnException == null ? DefaultValues.RETRY_ON_EXCEPTION : this.retryOnException;
+//        int maxAttempts = this.maxAttempts == null ? DefaultValues.MAX_ATTEMPTS : this.maxAttempts;
+//        Timeout timeout = this.timeout == null ? DefaultValues.TIMEOUT : this.timeout;
+
+        if (timeout == null && timeoutDuration == null) {
+            throw new IllegalStateException("The timeout must be specified");
+        }
+        if (waitStrategy == null && sleepDuration == null) {
+            throw new IllegalStateException("The wait strategy must be specified");
+        }
+        if (retryOnException == null) {
+            throw new IllegalStateException("Should we retry in case the Supplier throws an exception?");
+        }
+        if (prefetch > 0 && virtualTime != null) {
+            throw new IllegalStateException("Prefetching is not supported by virtual time");
+        }
+        if (prefetch > 0 && versionProbe != null) {
+            throw new IllegalStateException("Prefetching is not supported by a version probe");
+        }
+        return new RetryConfig(
+                timeout != null ? timeout : new Timeout(timeoutDuration, clock()),
+                waitStrategy != null ? waitStrategy : new SleepWaitStrategy(sleepDuration, sleeper()),
+                retryOnException,
+                virtualTime,
+                cancellation,
+                new BusyLoopGuard(minAttemptInterval, clock(), sleeper()),
+                attemptCosts,
+                prefetch,
+                attemptTrace,
+                versionProbe,
+                stallWindow != null ? stallTimeout() : null,
+                progress,
+                reportDiffs);
+    }
+
+    private Timeout stallTimeout() {
+        return timeout != null ? timeout.withDuration(stallWindow) : new Timeout(stallWindow, clock());
+    }
+
+    private Clock clock() {
+        return virtualTime != null ? virtualTime.getClock() : Clock.systemDefaultZone();
+    }
+
+    private SystemSleeper sleeper() {
+        if (virtualTime != null) {
+            return virtualTime.getSleeper();
+        }
+        return cancellation != null ? new CancellableSleeper(cancellation) : new SystemSleeper();
+    }
+}
@@ -0,0 +1,604 @@
+package me.alb_i986.testing.assertions.retry;
+
+import me.alb_i986.testing.assertions.retry.core.AttemptListener;
+import me.alb_i986.testing.assertions.retry.core.RetryLoop;
+import me.alb_i986.testing.assertions.retry.core.RetryLoopBuilder;
+import me.alb_i986.testing.assertions.retry.core.RetryOutcome;
+import me.alb_i986.testing.assertions.retry.core.RetryScheduler;
+import me.alb_i986.testing.assertions.retry.core.WaitPolicy;
+import me.alb_i986.testing.assertions.retry.internal.AssertRetryResult;
+import me.alb_i986.testing.assertions.retry.internal.BusyLoopGuard;
+import me.alb_i986.testing.assertions.retry.internal.ExceptionSignature;
+import me.alb_i986.testing.assertions.retry.internal.PrefetchingSupplier;
+import me.alb_i986.testing.assertions.retry.internal.RetryProfiler;
+import me.alb_i986.testing.assertions.retry.internal.RetryTracers;
+import me.alb_i986.testing.assertions.retry.internal.ThreadResources;
+import me.alb_i986.testing.assertions.retry.internal.ThrownExceptions;
+import me.alb_i986.testing.assertions.retry.internal.TimeFormatter;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+import org.hamcrest.TypeSafeMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Matcher} allowing for making assertions <i>with tolerance</i>,
+ * i.e. assertions which may fail a number of times but <i>eventually</i> pass.
+ * <p>
+ * Typically useful when testing async systems like message queues.
+ * <p>
+ * Can be configured to:
+ * <ul>
+ *     <li>retry for a maximum amount of time</li>
+ *     <li>set the strategy for waiting between attempts, e.g. sleep, or, better, to check for some value</li>
+ *     <li>whether to retry in case the Supplier throws</li>
+ * </ul>
+ *
+ * @param <T> the type of actual values we need to test
+ */
+public class RetryMatcher<T> extends TypeSafeMatcher<Supplier<? extends T>> {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryMatcher.class);
+
+    private final Matcher<? super T> matcher;
+    private final Matcher<? super T> abortMatcher;
+    private final RetryConfig config;
+    private final TimeFormatter timeFormatter;
+    private final RetryProfiler profiler;
+    private final RetryTracer tracer;
+    private final RetryLoop<T> retryLoop;
+
+    private final List<AssertRetryResult<T>> retryResults = new ArrayList<>();
+    private final ThrownExceptions thrownExceptions = new ThrownExceptions();
+
+    private FailureReason failureReason;
+    private T abortingValue;
+    private int busyLoopGuardActivations;
+    private AttemptCosts attemptCosts;
+    private RetryOutcome<T> outcome;
+    private int traceAssertionId;
+    private int attempts;
+    private PrefetchingSupplier<T> prefetching;
+
+    RetryMatcher(Matcher<? super T> matcher, RetryConfig config) {
+        this(matcher, null, config);
+    }
+
+    /**
+     * @param abortMatcher nullable: if null, only the timeout can stop the retry mechanism
+     *                     before the supplier throws or the actual value matches
+     */
+    RetryMatcher(Matcher<? super T> matcher, Matcher<? super T> abortMatcher, RetryConfig config) {
+        super(Supplier.class); // rather than letting TypeSafeMatcher look up the type of matchesSafely by reflection
+        this.matcher = matcher;
+        this.abortMatcher = abortMatcher;
+        this.config = config;
+        this.timeFormatter = TimeFormatter.SINGLETON;
+        this.profiler = RetryProfiler.SINGLETON;
+        this.tracer = RetryTracers.SINGLETON;
+        RetryLoopBuilder<T> retryLoopBuilder = RetryLoop.<T>until(matcher::matches)
+                .abortWhen(abortMatcher != null ? abortMatcher::matches : null)
+                .deadline(config.getTimeout())
+                .waitPolicy(this::runWait)
+                .retryOn(config.getRetryOnException().isOff() ? null : config.getRetryOnException()::matches)
+                .listener(new RetryResultsCollector())
+                .cancelWith(config.getCancellation())
+                .probe(config.getVersionProbe());
+        if (config.getStallWindow() != null) {
+            retryLoopBuilder.failWhenStalled(config.getProgress(), config.getStallWindow());
+        }
+        this.retryLoop = retryLoopBuilder.build();
+    }
+
+    @Override
+    protected boolean matchesSafely(Supplier<? extends T> actualValuesSupplier) {
+        started();
+        RetryOutcome<T> outcome = retry(actualValuesSupplier);
+        if (profiler.isEnabled()) {
+            profiler.record(outcome.getAttempts(), outcome.getElapsedNanos(), outcome.getWaitNanos(),
+                    outcome.isMatched(), outcome.getStatus() == RetryOutcome.Status.TIMEOUT_EXPIRED);
+        }
+        return completed(outcome);
+    }
+
+    /**
+     * Same as {@link #matches(Object)}, but runs the retry loop on the given scheduler.
+     * The wait between attempts lasts the expected duration of the configured wait strategy.
+     * Cancelling the future returned stops the retry loop.
+     *
+     * @throws IllegalArgumentException if the wait strategy does not have an expected duration,
+     *                                  or the config prefetches, or is driven by virtual time
+     */
+    CompletableFuture<Boolean> matchesAsync(Supplier<? extends T> actualValuesSupplier, RetryScheduler scheduler) {
+        Duration interval = config.getWaitStrategy().getExpectedDuration();
+        if (interval == null) {
+            throw new IllegalArgumentException("Only wait strategies with an expected duration, e.g. sleep, can be scheduled");
+        }
+        if (config.getPrefetch() > 0 || config.getVirtualTime() != null) {
+            throw new IllegalArgumentException("Neither prefetching nor virtual time can be scheduled");
+        }
+        started();
+        config.getWaitStrategy().reset();
+        CompletableFuture<RetryOutcome<T>> loop = retryLoop.runAsync(actualValuesSupplier, interval, scheduler);
+        CompletableFuture<Boolean> matches = loop
+                .whenComplete((outcome, e) -> config.getWaitStrategy().release())
+                .thenApply(this::completed);
+        matches.whenComplete((matched, e) -> {
+            if (matches.isCancelled()) {
+                loop.cancel(false);
+            }
+        });
+        return matches;
+    }
+
+    /**
+     * Resets the state of the previous run, if any, so that the same instance can be reused for many assertions.
+     */
+    private void started() {
+        retryResults.clear();
+        failureReason = null;
+        abortingValue = null;
+        busyLoopGuardActivations = 0;
+        attemptCosts = config.getAttemptCosts() != null ? new AttemptCosts() : null;
+        outcome = null;
+        attempts = 0;
+        thrownExceptions.clear();
+        if (config.getAttemptTrace() != null) {
+            traceAssertionId = config.getAttemptTrace().assertionStarted();
+        }
+    }
+
+    private boolean completed(RetryOutcome<T> outcome) {
+        this.outcome = outcome;
+        if (config.getAttemptCosts() != null) {
+            config.getAttemptCosts().merge(attemptCosts);
+        }
+        failureReason = FailureReason.of(outcome.getStatus());
+        if (failureReason == FailureReason.ABORTED) {
+            abortingValue = outcome.getLastValue();
+        }
+        tracer.assertionCompleted(this, failureReason == null ? "MATCHED" : failureReason.name(),
+                outcome.getAttempts(), outcome.getElapsedNanos(), outcome.getWaitNanos());
+        return outcome.isMatched();
+    }
+
+    /**
+     * @return the outcome of the last retry loop run, or null if none was run
+     */
+    RetryOutcome<T> getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * @return the same AssertionError which {@code assertThat} would throw after this matcher failed to match,
+     *         plus the first few exceptions thrown by the supplier, if any, as suppressed exceptions
+     */
+    AssertionError newAssertionError(Supplier<? extends T> actualValuesSupplier) {
+        Description description = new StringDescription();
+        description.appendText(System.lineSeparator())
+                .appendText("Expected: ")
+                .appendDescriptionOf(this)
+                .appendText(System.lineSeparator())
+                .appendText("     but: ");
+        describeMismatch(actualValuesSupplier, description);
+        AssertionError error = new AssertionError(description.toString());
+        for (Exception e : thrownExceptions.getKeptExceptions()) {
+            error.addSuppressed(e);
+        }
+        return error;
+    }
+
+    private void runWait() throws InterruptedException {
+        if (config.getPrefetch() > 0) {
+            return; // the prefetcher waits after each call to the supplier
+        }
+        runTracedWait();
+    }
+
+    private void runTracedWait() throws InterruptedException {
+        Object wait = tracer.waitStarted();
+        try {
+            config.getBusyLoopGuard().runWait(config.getWaitStrategy(), null);
+        } finally {
+            tracer.waitFinished(wait, config.getWaitStrategy(), config.getWaitStrategy().getExpectedDuration());
+        }
+    }
+
+    private RetryOutcome<T> retry(Supplier<? extends T> actualValuesSupplier) {
+        config.getWaitStrategy().reset();
+        config.getBusyLoopGuard().reset();
+        try {
+            if (config.getPrefetch() > 0) {
+                return prefetchAndRetry(actualValuesSupplier);
+            }
+            return runRetryLoop(actualValuesSupplier);
+        } finally {
+            config.getWaitStrategy().release();
+        }
+    }
+
+    private RetryOutcome<T> runRetryLoop(Supplier<? extends T> actualValuesSupplier) {
+        VirtualTimeScheduler virtualTime = config.getVirtualTime();
+        try {
+            if (virtualTime == null) {
+                return retryLoop.run(actualValuesSupplier);
+            }
+            virtualTime.loopStarted();
+            try {
+                return retryLoop.run(actualValuesSupplier);
+            } finally {
+                virtualTime.loopFinished();
+            }
+        } finally {
+            busyLoopGuardActivations = config.getBusyLoopGuard().getActivations();
+        }
+    }
+
+    /**
+     * The busy-loop guard counts its activations by thread, hence the prefetcher reports its own
+     * after each wait.
+     */
+    private RetryOutcome<T> prefetchAndRetry(Supplier<? extends T> actualValuesSupplier) {
+        AtomicInteger prefetcherActivations = new AtomicInteger();
+        WaitPolicy prefetcherWait = () -> {
+            try {
+                runTracedWait();
+            } finally {
+                prefetcherActivations.set(config.getBusyLoopGuard().getActivations());
+            }
+        };
+        try (PrefetchingSupplier<T> prefetching = new PrefetchingSupplier<T>(actualValuesSupplier,
+                config.getPrefetch(), prefetcherWait, tracer, config.getAttemptCosts() != null)) {
+            this.prefetching = prefetching;
+            return retryLoop.run(prefetching.start());
+        } finally {
+            this.prefetching = null;
+            busyLoopGuardActivations = prefetcherActivations.get();
+        }
+    }
+
+    /**
+     * Keeps track of the actual values, for the mismatch description, and logs.
+     * <p>
+     * When prefetching, the supplier is called, and measured, by the prefetcher:
+     * an attempt is that call, plus the evaluation of the matcher, excluding the time the value was buffered.
+     */
+    private class RetryResultsCollector implements AttemptListener<T> {
+
+        private long attemptStartCpuNanos;
+        private long attemptStartAllocatedBytes;
+        private Object attemptTrace;
+        private long attemptStartNanos;
+        private long attemptExcludedNanos;
+
+        @Override
+        public void onAttemptStarted() {
+            attempts++;
+            attemptTrace = prefetching != null ? null : tracer.attemptStarted();
+            attemptExcludedNanos = 0;
+            if (config.getAttemptTrace() != null) {
+                attemptStartNanos = System.nanoTime();
+            }
+            if (config.getAttemptCosts() != null) {
+                attemptStartCpuNanos = ThreadResources.cpuTimeNanos();
+                attemptStartAllocatedBytes = ThreadResources.allocatedBytes();
+            }
+        }
+
+        private void onAttemptFinished() {
+            PrefetchingSupplier.Fetched<T> fetched = prefetching != null ? prefetching.lastTaken() : null;
+            if (fetched != null) {
+                attemptTrace = fetched.getAttempt();
+                attemptStartNanos = fetched.getStartNanos();
+                attemptExcludedNanos = fetched.getBufferedNanos();
+            }
+            if (config.getAttemptCosts() != null) {
+                long cpuNanos = ThreadResources.cpuTimeNanos() - attemptStartCpuNanos;
+                long allocatedBytes = ThreadResources.allocatedBytes() - attemptStartAllocatedBytes;
+                if (fetched != null) {
+                    cpuNanos += fetched.getCpuNanos();
+                    allocatedBytes += fetched.getAllocatedBytes();
+                }
+                attemptCosts.record(cpuNanos, allocatedBytes);
+                logger.debug("The attempt used {}ns of CPU time, and allocated {} bytes", cpuNanos, allocatedBytes);
+            }
+        }
+
+        private void traceAttempt(AttemptTrace.Outcome outcome, T actual, Exception e) {
+            AttemptTrace trace = config.getAttemptTrace();
+            if (trace == null) {
+                return;
+            }
+            try {
+                trace.record(traceAssertionId, attempts, attemptStartNanos,
+                        System.nanoTime() - attemptStartNanos - attemptExcludedNanos, outcome, actual, e);
+            } catch (IOException ioe) {
+                logger.warn("Could not write the attempt to the trace", ioe);
+            }
+        }
+
+        @Override
+        public void onValue(T actual, boolean matches, boolean aborts) {
+            onAttemptFinished();
+            tracer.attemptFinished(attemptTrace, matches ? "MATCHED" : aborts ? "ABORTED" : "NOT MATCHED", null);
+            traceAttempt(matches ? AttemptTrace.Outcome.MATCHED
+                    : aborts ? AttemptTrace.Outcome.ABORTED : AttemptTrace.Outcome.NOT_MATCHED, actual, null);
+            AssertRetryResult<T> result = new AssertRetryResult<>();
+            result.suppliedValue(actual);
+            retryResults.add(result);
+            if (matches) { // assertion PASSED!
+                logger.debug("The actual value supplied MATCHED: {}", actual);
+                result.actualMatches();
+                return;
+            }
+            logger.debug("The actual value supplied did not match: {}", actual);
+            if (aborts) {
+                logger.debug("The actual value supplied matched the abort condition: {}", actual);
+                result.actualAborts();
+            }
+        }
+
+        @Override
+        public void onUnchanged() {
+            onAttemptFinished();
+            tracer.attemptFinished(attemptTrace, "UNCHANGED", null);
+            traceAttempt(AttemptTrace.Outcome.UNCHANGED, null, null);
+            logger.debug("The version probe returned the same value as in the previous attempt");
+            AssertRetryResult<T> result = new AssertRetryResult<>();
+            result.versionUnchanged();
+            retryResults.add(result);
+        }
+
+        @Override
+        public void onException(Exception e) {
+            onAttemptFinished();
+            tracer.attemptFinished(attemptTrace, "THREW", e);
+            traceAttempt(AttemptTrace.Outcome.THREW, null, e);
+            ExceptionSignature signature = thrownExceptions.addTo(retryResults, e, attempts);
+            if (signature.getCount() == 1) {
+                logger.debug("The Supplier threw", e);
+            } else {
+                logger.debug("The Supplier threw again: {}", signature);
+            }
+        }
+
+        @Override
+        public void onWait() {
+            logger.debug("The timeout has not expired yet: we're gonna wait before trying again. {}", config.getWaitStrategy());
+        }
+
+        @Override
+        public void onWaitFailed(Exception e) {
+            // the busy-loop guard handles any other exception
+            logger.debug("The WaitStrategy was interrupted: we're gonna stop trying", e);
+        }
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendText("supplied value to *eventually* match ")
+                .appendDescriptionOf(matcher)
+                .appendText(" within " + timeFormatter.prettyPrint(
+                        config.getTimeout().getDuration()));
+        if (config.getStallWindow() != null) {
+            description.appendText(", or fail if stalled for " + timeFormatter.prettyPrint(
+                    config.getStallWindow().getDuration()));
+        }
+        if (abortMatcher != null) {
+            description.appendText(", unless it matches ")
+                    .appendDescriptionOf(abortMatcher);
+        }
+    }
+
+    @Override
+    protected void describeMismatchSafely(Supplier<? extends T> item, Description mismatchDescription) {
+        mismatchDescription.appendText(failureReason.getDescription());
+        if (failureReason == FailureReason.ABORTED) {
+            mismatchDescription.appendText(": ")
+                    .appendValue(abortingValue);
+        }
+        mismatchDescription.appendText(System.lineSeparator())
+                .appendText("          Actual values (in order of appearance):");
+
+        Object previousValue = null;
+        for (AssertRetryResult<T> retryResult : retryResults) {
+            mismatchDescription.appendText(System.lineSeparator());
+            mismatchDescription.appendText("           - ");
+            retryResult.describeTo(mismatchDescription, config.isReportingDiffs() ? previousValue : null);
+            if (retryResult.getActual() != null) {
+                previousValue = retryResult.getActual();
+            }
+        }
+        thrownExceptions.describeTo(mismatchDescription);
+        if (busyLoopGuardActivations > 0) {
+            mismatchDescription.appendText(System.lineSeparator())
+                    .appendText("          " + BusyLoopGuard.describeActivations(busyLoopGuardActivations));
+        }
+        if (config.getAttemptCosts() != null) {
+            mismatchDescription.appendText(System.lineSeparator())
+                    .appendText("          Cost of the " + attemptCosts.getAttempts() + " attempts: " + attemptCosts);
+        }
+    }
+
+    enum FailureReason {
+        TIMEOUT_EXPIRED("The timeout was reached and none of the actual values matched"),
+        SUPPLIER_THREW("An exception was thrown while retrieving the actual value"),
+        SUPPLIER_THREW_UNCONFIGURED_EXCEPTION("An exception which was not expected was thrown while retrieving the actual value"),
+        ABORTED("The abort condition was met by an actual value, hence it will never match"),
+        DID_NOT_HOLD("An actual value did not match before the end of the time window"),
+        CONDITIONS_NOT_CONVERGED("The timeout was reached and not all of the conditions matched"),
+        INTERRUPTED("The thread was interrupted, hence the retry mechanism was stopped"),
+        CANCELLED("The retry mechanism was cancelled"),
+        STALLED("The actual values stopped making progress, hence the retry mechanism was stopped before the timeout")
+        ;
+
+        private final String description;
+
+        FailureReason(String description) {
+            this.description = description;
+        }
+
+        /**
+         * @return null if the status is {@link RetryOutcome.Status#MATCHED}
+         */
+        static FailureReason of(RetryOutcome.Status status) {
+            switch (status) {
+                case MATCHED:
+                    return null;
+                case TIMEOUT_EXPIRED:
+                    return TIMEOUT_EXPIRED;
+                case ABORTED:
+                    return ABORTED;
+                case SUPPLIER_THREW:
+                    return SUPPLIER_THREW;
+                case SUPPLIER_THREW_UNCONFIGURED_EXCEPTION:
+                    return SUPPLIER_THREW_UNCONFIGURED_EXCEPTION;
+                case INTERRUPTED:
+                    return INTERRUPTED;
+                case CANCELLED:
+                    return CANCELLED;
+                case STALLED:
+                    return STALLED;
+                default:
+                    throw new IllegalArgumentException("Unknown status " + status);
+            }
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    public static <T> Matcher<Supplier<? extends T>> eventually(Matcher<? super T> matcher, RetryConfigBuilder retryConfigBuilder) {
+        return eventually(matcher, retryConfigBuilder.build());
+    }
+
+    /**
+     * Allows to verify that the actual value returned by the {@code Supplier} <i>eventually</i>
+     * satisfies the condition specified by the given {@code Matcher},
+     * within the configured timeout.
+     * In case the condition is never true, <i>all of</i> the actual values which did not match
+     * will be reported in the AssertionError thrown.
+     * <p>
+     * Let's look at an example.
+     * Say that we have a JMS queue, and we need to verify that a message with body "expected content"
+     * is published on the queue.
+     * Given the async nature of the system, we need to employ a bit of tolerance in our assertions.
+     *
+     * <pre>
+     * MessageConsumer consumer = session.createConsumer(queue);
+     * connection.start();
+     * Supplier&lt;String&gt; messageText = new Supplier&lt;&gt;() {
+     *   {@literal @}Override
+     *    public String get() throws JMSException {
+     *       TextMessage m = (TextMessage) consumer.receiveNoWait();  // polling for messages, non blocking
+     *       return m == null ? null : m.getText();
+     *    }
+     * };
+     *
+     * assertThat(messageText, eventually(containsString("expected content"),
+     *         RetryConfig.builder()
+     *             .timeoutAfter(Duration.ofSeconds(60))
+     *             .sleepFor(Duration.ofSeconds(5))
+     *             .retryOnException(JMSException.class)));
+     * </pre>
+     *
+     * The first few lines set up the supplier of the actual values,
+     * which will be used to poll the message queue for messages.
+     * Then we have our assertion.
+     * In this example it is asserting that the expected text message will be received within 60 seconds.
+     * After each failing attempt, it will wait for 5s, and then it will try again.
+     * If {@code consumer.receiveNoWait()} throws a JMSException, the assertion will be re-tried,
+     * as if it returned a non-matching value.
+     * Finally, if the timeout is reached and the actual value never matched,
+     * an AssertionError similar to the following will be thrown:
+     * <pre>
+     * java.lang.AssertionError:
+     * Expected: supplied value to *eventually* match a string containing "expected content" within 60s
+     *      but: The timeout was reached and none of the actual values matched
+     *           Actual values (in order of appearance):
+     *            - thrown javax.jms.MessageFormatException: Blah blah
+     *            - "some content"
+     *            - "some other content"
+     * </pre>
+     *
+     * <h3>Configuration</h3>
+     * The retry mechanism can be configured in terms of:
+     * <ul>
+     *     <li>the timeout: {@link RetryConfigBuilder#timeoutAfter(Duration)}</li>
+     *     <li>how long to sleep for before retrying: {@link RetryConfigBuilder#sleepFor(Duration)}</li>
+     *     <li>or, as an alternative, a custom wait strategy: {@link RetryConfigBuilder#waitStrategy(WaitStrategy)}</li>
+     *     <li>whether to retry in case the {@code Supplier} throws: {@link RetryConfigBuilder#retryOnException(Class)}</li>
+     * </ul>
+     *
+     * As shown in the example above, {@link RetryConfig#builder()}
+     * provides access to the Builder API for configuring the retry mechanism.
+     * <p>
+     * The matcher returned can be reused for many assertions, one at a time.
+     * To reuse it across threads, see {@link PreparedAssertion}.
+     *
+     * @param <T> the type of the actual values
+     *
+     * @param matcher a Hamcrest matcher, encapsulating the condition under which the actual value is as expected
+     * @param retryConfig the configuration of the retry mechanism
+     *
+     * @see RetryConfigBuilder
+     */
+    public static <T> Matcher<Supplier<? extends T>> eventually(Matcher<? super T> matcher, RetryConfig retryConfig) {
+        return new RetryMatcher<>(matcher, retryConfig);
+    }
+
+    public static <T> Matcher<Supplier<? extends T>> eventually(Matcher<? super T> matcher, Matcher<? super T> abortWhen,
+                                                                RetryConfigBuilder retryConfigBuilder) {
+        return eventually(matcher, abortWhen, retryConfigBuilder.build());
+    }
+
+    /**
+     * Same as {@link #eventually(Matcher, RetryConfig)}, but stops retrying as soon as
+     * an actual value matches the given abort condition, without waiting for the timeout to expire.
+     * <p>
+     * Useful when some states mean that the expected state will never come, e.g.
+     * <pre>
+     * assertThat(orderStatus, eventually(is("SHIPPED"), is("REJECTED"),
+     *         RetryConfig.builder()
+     *             .timeoutAfter(Duration.ofSeconds(60))
+     *             .sleepFor(Duration.ofSeconds(5))
+     *             .doNotRetryOnException()));
+     * </pre>
+     *
+     * which, in case the order is rejected, fails right away with an AssertionError similar to the following:
+     * <pre>
+     * java.lang.AssertionError:
+     * Expected: supplied value to *eventually* match is "SHIPPED" within 60s, unless it matches is "REJECTED"
+     *      but: The abort condition was met by an actual value, hence it will never match: "REJECTED"
+     *           Actual values (in order of appearance):
+     *            - "CREATED"
+     *            - "REJECTED" (ABORT!)
+     * </pre>
+     *
+     * The abort condition is evaluated only against the actual values which do not match the expected condition.
+     *
+     * @param <T> the type of the actual values
+     *
+     * @param matcher a Hamcrest matcher, encapsulating the condition under which the actual value is as expected
+     * @param abortWhen a Hamcrest matcher, encapsulating the condition under which the actual value
+     *                  will never be as expected
+     * @param retryConfig the configuration of the retry mechanism
+     */
+    public static <T> Matcher<Supplier<? extends T>> eventually(Matcher<? super T> matcher, Matcher<? super T> abortWhen,
+                                                                RetryConfig retryConfig) {
+        if (abortWhen == null) {
+            throw new IllegalArgumentException("The abort condition must not be null");
+        }
+        return new RetryMatcher<>(matcher, abortWhen, retryConfig);
+    }
+}
@@ -0,0 +1,60 @@
+package me.alb_i986.testing.assertions.retry;
+
+import org.hamcrest.SelfDescribing;
+
+import java.time.Duration;
+
+/**
+ * Gets notified of the attempts and the waits of {@link RetryMatcher#eventually},
+ * and of the end of each assertion, e.g. to emit tracing events.
+ * <p>
+ * Implementations are discovered by means of {@link java.util.ServiceLoader}, i.e. by adding a file named
+ * {@code META-INF/services/me.alb_i986.testing.assertions.retry.RetryTracer} to the classpath;
+ * the first one found is used.
+ * The module {@code assert-retry-jfr} provides one, emitting JDK Flight Recorder events.
+ * <p>
+ * Implementations must be thread-safe, and cheap when not recording.
+ */
+public interface RetryTracer {
+
+    /**
+     * An attempt, i.e. the call to the supplier and the evaluation of the matcher, is about to begin.
+     * <p>
+     * When prefetching (see {@link RetryConfigBuilder#prefetch(int)}), called by the background thread
+     * calling the supplier, while {@link #attemptFinished} is called by the thread evaluating the matcher,
+     * the attempt then including the time the value waited to be matched.
+     *
+     * @return an object to be passed back to {@link #attemptFinished}, e.g. an event which began, or null
+     */
+    Object attemptStarted();
+
+    /**
+     * @param attempt what {@link #attemptStarted()} returned
+     * @param outcome either "MATCHED", "NOT MATCHED", "ABORTED", "THREW", or "UNCHANGED"
+     * @param exception the exception thrown by the supplier, or null
+     */
+    void attemptFinished(Object attempt, String outcome, Exception exception);
+
+    /**
+     * A wait between attempts is about to begin.
+     *
+     * @return an object to be passed back to {@link #waitFinished}, or null
+     */
+    Object waitStarted();
+
+    /**
+     * @param wait what {@link #waitStarted()} returned
+     * @param waitStrategy the strategy which waited
+     * @param expected how long the wait was expected to last, or null if unknown
+     */
+    void waitFinished(Object wait, WaitStrategy waitStrategy, Duration expected);
+
+    /**
+     * @param assertion describes what was asserted
+     * @param outcome either "MATCHED", or the reason of the failure
+     * @param attempts how many attempts were made
+     * @param elapsedNanos how long the assertion took
+     * @param waitNanos how long the assertion spent waiting between attempts
+     */
+    void assertionCompleted(SelfDescribing assertion, String outcome, int attempts, long elapsedNanos, long waitNanos);
+}
@@ -0,0 +1,320 @@
+package me.alb_i986.testing.assertions.retry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A cache of the latest values supplied, shared by all of the JVMs on the same machine, e.g. the forks of Surefire,
+ * so that the loops polling the same endpoint, e.g. the readiness of a schema registry, can reuse each other's
+ * values, rather than polling it once per JVM.
+ * <p>
+ * Example:
+ * <pre>
+ * private static final SharedPollCache CACHE = SharedPollCache.open(SharedPollCache.defaultFile());
+ *
+ * assertThat(CACHE.cached("schema-registry-status", Duration.ofMillis(500), () -&gt; schemaRegistry.status()),
+ *         eventually(is("READY"), retryConfig));
+ * </pre>
+ * The supplier is called only if the value published under the same key, by any JVM, is older than the given age.
+ * Exceptions thrown by the supplier are not cached.
+ * <p>
+ * The cache is a memory-mapped file made of a fixed number of fixed-size slots, each holding a key,
+ * the latest value published, encoded as bytes, and the time it was published.
+ * Each slot is guarded by a {@link FileLock} on its region of the file, hence the JVMs do not wait for each other
+ * unless they use the same slot at the same time.
+ * Values which do not fit in a slot are not cached. If the file cannot be used, e.g. because of an I/O error,
+ * or because the cache was closed, or the value published cannot be decoded, the supplier is called
+ * as if the cache were not there.
+ * <p>
+ * Thread-safe.
+ */
+public final class SharedPollCache implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedPollCache.class);
+
+    public static final int DEFAULT_SLOTS = 256;
+    public static final int DEFAULT_SLOT_SIZE = 4096;
+    public static final int MAX_KEY_BYTES = 116;
+
+    private static final int MAGIC = 0x41525043; // "ARPC"
+    private static final int HEADER_SIZE = 16;
+
+    // slot layout
+    private static final int KEY_HASH = 0;
+    private static final int KEY_LENGTH = 8;
+    private static final int KEY = 12;
+    private static final int TIMESTAMP = KEY + MAX_KEY_BYTES;
+    private static final int VALUE_LENGTH = TIMESTAMP + 8;
+    private static final int VALUE = VALUE_LENGTH + 4;
+
+    /**
+     * File locks are held on behalf of the whole JVM: the threads of a JVM must not try to acquire
+     * overlapping ones at the same time, even via different channels.
+     */
+    private static final ConcurrentMap<Path, Object> MONITORS = new ConcurrentHashMap<>();
+
+    private final FileChannel channel;
+    private final MappedByteBuffer mapped;
+    private final Object monitor;
+    private final int slots;
+    private final int slotSize;
+
+    private SharedPollCache(FileChannel channel, MappedByteBuffer mapped, Object monitor, int slots, int slotSize) {
+        this.channel = channel;
+        this.mapped = mapped;
+        this.monitor = monitor;
+        this.slots = slots;
+        this.slotSize = slotSize;
+    }
+
+    /**
+     * @return a file in the temp directory, named after the current user,
+     *         e.g. {@code /tmp/assert-retry-poll-cache-jenkins}
+     */
+    public static Path defaultFile() {
+        return Paths.get(System.getProperty("java.io.tmpdir"), "assert-retry-poll-cache-" + System.getProperty("user.name"));
+    }
+
+    /**
+     * Same as {@link #open(Path, int, int)} with {@value #DEFAULT_SLOTS} slots of {@value #DEFAULT_SLOT_SIZE} bytes.
+     */
+    public static SharedPollCache open(Path file) throws IOException {
+        return open(file, DEFAULT_SLOTS, DEFAULT_SLOT_SIZE);
+    }
+
+    /**
+     * Opens the given cache file, creating it if it does not exist.
+     *
+     * @param slots how many keys can be cached at most
+     * @param slotSize the size in bytes of each slot: values larger than about {@code slotSize - 140} are not cached
+     *
+     * @throws IllegalArgumentException if the slots are not positive, or the slot size is too small, or the cache is too large
+     * @throws IOException if the file exists, and was created with a different number, or size, of slots
+     */
+    public static SharedPollCache open(Path file, int slots, int slotSize) throws IOException {
+        if (slots <= 0) {
+            throw new IllegalArgumentException("The number of slots must be positive");
+        }
+        if (slotSize <= VALUE) {
+            throw new IllegalArgumentException("The slot size must be greater than " + VALUE);
+        }
+        if (HEADER_SIZE + (long) slots * slotSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The cache must not be larger than 2GB");
+        }
+        Path realFile = file.toAbsolutePath().normalize();
+        Object monitor = MONITORS.computeIfAbsent(realFile, k -> new Object());
+        long size = HEADER_SIZE + (long) slots * slotSize;
+        FileChannel channel = FileChannel.open(realFile,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer mapped;
+            synchronized (monitor) {
+                FileLock lock = channel.lock(0, HEADER_SIZE, false);
+                try {
+                    boolean created = channel.size() < HEADER_SIZE;
+                    mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                    if (created) {
+                        mapped.putInt(0, MAGIC).putInt(4, slots).putInt(8, slotSize);
+                    } else if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != slots || mapped.getInt(8) != slotSize) {
+                        throw new IOException("Not a poll cache with " + slots + " slots of " + slotSize + " bytes: " + file);
+                    }
+                } finally {
+                    lock.release();
+                }
+            }
+            return new SharedPollCache(channel, mapped, monitor, slots, slotSize);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Same as {@link #cached(String, Duration, Supplier, Function, Function)}, for strings.
+     */
+    public Supplier<String> cached(String key, Duration maxAge, Supplier<String> supplier) {
+        return cached(key, maxAge, supplier,
+                value -> value.getBytes(StandardCharsets.UTF_8),
+                bytes -> new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param key identifies the supplier across JVMs, e.g. {@code "cluster-health"}
+     * @param maxAge how old a value published by any JVM can be, to be returned instead of calling the supplier
+     * @param encoder turns the values supplied into bytes. Null values are not cached
+     * @param decoder turns the bytes back into values
+     *
+     * @return a supplier which returns the value published under the given key, if fresh enough,
+     *         or calls the given supplier, and publishes its value
+     *
+     * @throws IllegalArgumentException if the key is longer than {@value #MAX_KEY_BYTES} bytes in UTF-8,
+     *                                  or the max age is negative
+     */
+    public <T> Supplier<T> cached(String key, Duration maxAge, Supplier<? extends T> supplier,
+                                  Function<? super T, byte[]> encoder, Function<byte[], ? extends T> decoder) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > MAX_KEY_BYTES) {
+            throw new IllegalArgumentException("The key must not be longer than " + MAX_KEY_BYTES + " bytes");
+        }
+        if (maxAge.isNegative()) {
+            throw new IllegalArgumentException("The max age must not be negative");
+        }
+        long maxAgeMillis = maxAge.toMillis();
+        long keyHash = keyHash(keyBytes);
+        return () -> {
+            byte[] cached = null;
+            try {
+                cached = channel.isOpen() ? read(keyHash, keyBytes, maxAgeMillis) : null;
+            } catch (IOException e) {
+                warnUnlessClosed("Could not read from the poll cache", e);
+            }
+            if (cached != null) {
+                try {
+                    T value = decoder.apply(cached);
+                    logger.debug("Reusing the value of {} published by another attempt", key);
+                    return value;
+                } catch (RuntimeException e) {
+                    logger.warn("Could not decode the value of {} published by another attempt, "
+                            + "e.g. by a different encoder: calling the supplier", key, e);
+                }
+            }
+            T value = supplier.get();
+            if (value != null && channel.isOpen()) {
+                try {
+                    write(keyHash, keyBytes, encoder.apply(value));
+                } catch (IOException e) {
+                    warnUnlessClosed("Could not write to the poll cache", e);
+                }
+            }
+            return value;
+        };
+    }
+
+    /**
+     * Once closed, the cache is skipped silently, even by the calls in flight.
+     */
+    private void warnUnlessClosed(String message, IOException e) {
+        if (channel.isOpen()) {
+            logger.warn(message, e);
+        }
+    }
+
+    /**
+     * @return the value published under the given key, if not older than the given age, or null
+     */
+    private byte[] read(long keyHash, byte[] key, long maxAgeMillis) throws IOException {
+        for (int probe = 0; probe < slots; probe++) {
+            int offset = slotOffset(keyHash, probe);
+            synchronized (monitor) {
+                FileLock lock = channel.lock(offset, slotSize, true);
+                try {
+                    long slotHash = mapped.getLong(offset + KEY_HASH);
+                    if (slotHash == 0) {
+                        return null; // the key was never published
+                    }
+                    if (slotHash == keyHash && hasKey(offset, key)) {
+                        long age = System.currentTimeMillis() - mapped.getLong(offset + TIMESTAMP);
+                        int length = mapped.getInt(offset + VALUE_LENGTH);
+                        if (age > maxAgeMillis || length < 0) {
+                            return null;
+                        }
+                        byte[] value = new byte[length];
+                        get(offset + VALUE, value);
+                        return value;
+                    }
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+        return null;
+    }
+
+    private void write(long keyHash, byte[] key, byte[] value) throws IOException {
+        if (value.length > slotSize - VALUE) {
+            logger.debug("The value is too large to be cached: {} bytes", value.length);
+            return;
+        }
+        for (int probe = 0; probe < slots; probe++) {
+            int offset = slotOffset(keyHash, probe);
+            synchronized (monitor) {
+                FileLock lock = channel.lock(offset, slotSize, false);
+                try {
+                    long slotHash = mapped.getLong(offset + KEY_HASH);
+                    if (slotHash == 0) { // claim the slot
+                        mapped.putInt(offset + KEY_LENGTH, key.length);
+                        put(offset + KEY, key);
+                        mapped.putLong(offset + KEY_HASH, keyHash);
+                    } else if (slotHash != keyHash || !hasKey(offset, key)) {
+                        continue;
+                    }
+                    put(offset + VALUE, value);
+                    mapped.putInt(offset + VALUE_LENGTH, value.length);
+                    mapped.putLong(offset + TIMESTAMP, System.currentTimeMillis());
+                    return;
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+        logger.debug("The poll cache is full: the value is not cached");
+    }
+
+    private boolean hasKey(int offset, byte[] key) {
+        if (mapped.getInt(offset + KEY_LENGTH) != key.length) {
+            return false;
+        }
+        byte[] slotKey = new byte[key.length];
+        get(offset + KEY, slotKey);
+        return Arrays.equals(slotKey, key);
+    }
+
+    private void get(int offset, byte[] bytes) {
+        ByteBuffer view = mapped.duplicate();
+        view.position(offset);
+        view.get(bytes);
+    }
+
+    private void put(int offset, byte[] bytes) {
+        ByteBuffer view = mapped.duplicate();
+        view.position(offset);
+        view.put(bytes);
+    }
+
+    private int slotOffset(long keyHash, int probe) {
+        return HEADER_SIZE + (int) Math.floorMod(keyHash + probe, (long) slots) * slotSize;
+    }
+
+    /**
+     * @return a hash of the key which is never 0, as 0 marks the empty slots
+     */
+    private static long keyHash(byte[] key) {
+        long hash = 1125899906842597L;
+        for (byte b : key) {
+            hash = 31 * hash + b;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,465 @@
+package me.alb_i986.testing.assertions.retry;
+
+import me.alb_i986.testing.assertions.retry.internal.TimeFormatter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connects to sockets, and tracks whether they are connected, and the data they send,
+ * with a single {@link Selector} thread and non-blocking {@link SocketChannel}s,
+ * so that an assertion waiting for a service to start listening, or to send some data,
+ * wakes up as soon as that happens, rather than sleep-polling connect attempts.
+ * <p>
+ * Example:
+ * <pre>
+ * SocketReadiness readiness = SocketReadiness.open();
+ * SocketReadiness.Probe probe = readiness.probe(new InetSocketAddress("localhost", 8080));
+ *
+ * assertThat(probe::isConnected, eventually(is(true), RetryConfig.builder()
+ *         .timeoutAfter(Duration.ofSeconds(30))
+ *         .waitForReadinessOf(probe, Duration.ofSeconds(1))
+ *         .doNotRetryOnException()));
+ * assertThat(() -&gt; probe.getReceived(UTF_8), eventually(containsString("READY"), retryConfig));
+ * </pre>
+ * The selector thread connects each probe as soon as it is created, and, whenever the connection is refused,
+ * or closed by the peer, tries again after the reconnect interval.
+ * The data received are buffered, up to a limit, beyond which only the latest bytes are kept.
+ * <p>
+ * One instance, i.e. one thread, serves any number of probes, and of concurrent assertions.
+ * The thread is a daemon, and is stopped by {@link #close()}, which also closes the connections.
+ * <p>
+ * Thread-safe.
+ */
+public final class SocketReadiness implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SocketReadiness.class);
+
+    public static final Duration DEFAULT_RECONNECT_INTERVAL = Duration.ofMillis(10);
+    public static final int DEFAULT_MAX_RECEIVED = 64 * 1024;
+
+    private final Selector selector;
+    private final long reconnectIntervalNanos;
+    private final int maxReceived;
+    private final Thread thread;
+
+    /**
+     * The probes to be connected, or closed, by the selector thread.
+     */
+    private final Queue<Probe> pending = new ConcurrentLinkedQueue<>();
+
+    // accessed only by the selector thread
+    private final List<Probe> reconnecting = new ArrayList<>();
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(8192);
+
+    private volatile boolean closed;
+
+    private SocketReadiness(Selector selector, Duration reconnectInterval, int maxReceived) {
+        this.selector = selector;
+        this.reconnectIntervalNanos = reconnectInterval.toNanos();
+        this.maxReceived = maxReceived;
+        this.thread = new Thread(this::run, "assert-retry-socket-readiness");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Same as {@link #open(Duration, int)}, reconnecting every 10ms, and buffering up to 64KiB per probe.
+     */
+    public static SocketReadiness open() throws IOException {
+        return open(DEFAULT_RECONNECT_INTERVAL, DEFAULT_MAX_RECEIVED);
+    }
+
+    /**
+     * Opens a selector, and starts its thread.
+     *
+     * @param reconnectInterval how long to wait before connecting again, after the connection was refused, or closed
+     * @param maxReceived how many of the bytes received are kept at most, per probe
+     *
+     * @throws IllegalArgumentException if the interval, or the limit, is not positive
+     */
+    public static SocketReadiness open(Duration reconnectInterval, int maxReceived) throws IOException {
+        if (reconnectInterval == null || reconnectInterval.isZero() || reconnectInterval.isNegative()) {
+            throw new IllegalArgumentException("The reconnect interval must be positive");
+        }
+        if (maxReceived <= 0) {
+            throw new IllegalArgumentException("The max number of bytes received must be positive");
+        }
+        SocketReadiness readiness = new SocketReadiness(Selector.open(), reconnectInterval, maxReceived);
+        readiness.thread.start();
+        return readiness;
+    }
+
+    /**
+     * Starts connecting to the given address, in the background.
+     *
+     * @throws IllegalArgumentException if the address is null
+     * @throws IllegalStateException if this object was closed
+     */
+    public Probe probe(InetSocketAddress address) {
+        if (address == null) {
+            throw new IllegalArgumentException("The address must not be null");
+        }
+        if (closed) {
+            throw new IllegalStateException("Closed");
+        }
+        Probe probe = new Probe(address);
+        submit(probe);
+        return probe;
+    }
+
+    private void submit(Probe probe) {
+        pending.add(probe);
+        selector.wakeup();
+    }
+
+    private void run() {
+        try {
+            while (!closed) {
+                selector.select(selectTimeoutMillis());
+                Probe probe;
+                while ((probe = pending.poll()) != null) {
+                    if (probe.closed) {
+                        disconnect(probe);
+                        reconnecting.remove(probe);
+                    } else {
+                        connect(probe);
+                    }
+                }
+                reconnectDueProbes();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isConnectable()) {
+                        finishConnect((Probe) key.attachment());
+                    } else if (key.isReadable()) {
+                        read((Probe) key.attachment());
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("The selector failed: the probes will not make any more progress", e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                closeQuietly(key.channel());
+            }
+            closeQuietly(selector);
+        }
+    }
+
+    /**
+     * @return how long the selector may block for before a probe is due to reconnect, or 0 (forever) if none is
+     */
+    private long selectTimeoutMillis() {
+        long now = System.nanoTime();
+        long timeout = 0;
+        for (Probe probe : reconnecting) {
+            long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(probe.reconnectAt - now) + 1);
+            timeout = timeout == 0 ? millis : Math.min(timeout, millis);
+        }
+        return timeout;
+    }
+
+    private void reconnectDueProbes() {
+        long now = System.nanoTime();
+        List<Probe> due = new ArrayList<>();
+        for (Iterator<Probe> probes = reconnecting.iterator(); probes.hasNext(); ) {
+            Probe probe = probes.next();
+            if (now - probe.reconnectAt >= 0) {
+                probes.remove();
+                due.add(probe);
+            }
+        }
+        due.forEach(this::connect); // which may schedule them again
+    }
+
+    private void connect(Probe probe) {
+        if (probe.closed) {
+            return;
+        }
+        SocketChannel channel = null;
+        try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            probe.channel = channel;
+            if (channel.connect(probe.address)) {
+                channel.register(selector, SelectionKey.OP_READ, probe);
+                probe.connected();
+            } else {
+                channel.register(selector, SelectionKey.OP_CONNECT, probe);
+            }
+        } catch (IOException | RuntimeException e) { // e.g. UnresolvedAddressException
+            closeQuietly(channel);
+            probe.channel = null;
+            scheduleReconnect(probe, e);
+        }
+    }
+
+    private void finishConnect(Probe probe) {
+        try {
+            probe.channel.finishConnect();
+            probe.channel.register(selector, SelectionKey.OP_READ, probe);
+            probe.connected();
+        } catch (IOException e) {
+            disconnect(probe);
+            scheduleReconnect(probe, e);
+        }
+    }
+
+    private void read(Probe probe) {
+        try {
+            readBuffer.clear();
+            int read = probe.channel.read(readBuffer);
+            if (read > 0) {
+                readBuffer.flip();
+                probe.received(readBuffer, maxReceived);
+                return;
+            }
+            if (read == 0) {
+                return;
+            }
+            disconnect(probe);
+            scheduleReconnect(probe, null);
+        } catch (IOException e) {
+            disconnect(probe);
+            scheduleReconnect(probe, e);
+        }
+    }
+
+    private void disconnect(Probe probe) {
+        if (probe.channel != null) {
+            closeQuietly(probe.channel);
+            probe.channel = null;
+            probe.disconnected();
+        }
+    }
+
+    private void scheduleReconnect(Probe probe, Exception cause) {
+        logger.trace("Could not connect to {}, or the connection was closed: trying again", probe.address, cause);
+        probe.reconnectAt = System.nanoTime() + reconnectIntervalNanos;
+        reconnecting.add(probe);
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            logger.debug("Could not close {}", closeable, e);
+        }
+    }
+
+    /**
+     * Stops the selector thread, and closes all of the connections.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        selector.wakeup();
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The state of a connection to a given address, updated by the selector thread.
+     * <p>
+     * Its methods are meant to be used as the suppliers of the assertions, e.g. {@code probe::isConnected},
+     * while {@link #waitStrategy(Duration)} wakes them up as soon as the state changes.
+     */
+    public final class Probe implements Closeable {
+
+        private final InetSocketAddress address;
+
+        // accessed only by the selector thread
+        private SocketChannel channel;
+        private long reconnectAt;
+
+        // guarded by this
+        private boolean connected;
+        private final ByteArrayOutputStream received = new ByteArrayOutputStream();
+        private long events;
+
+        private volatile boolean closed;
+
+        private Probe(InetSocketAddress address) {
+            this.address = address;
+        }
+
+        public InetSocketAddress getAddress() {
+            return address;
+        }
+
+        /**
+         * @return true if the connection is established, and was not closed by the peer since
+         */
+        public synchronized boolean isConnected() {
+            return connected;
+        }
+
+        /**
+         * @return the bytes received so far, across the connections made, or only the latest ones,
+         *         if more than the limit were received
+         */
+        public synchronized byte[] getReceived() {
+            return received.toByteArray();
+        }
+
+        /**
+         * @see #getReceived()
+         */
+        public synchronized String getReceived(Charset charset) {
+            return new String(received.toByteArray(), charset);
+        }
+
+        /**
+         * Wake up as soon as the connection is established, closed by the peer, or some data are received,
+         * or when the fallback timeout expires, whichever comes first.
+         * <p>
+         * The returned strategy should not be shared by concurrent retry loops,
+         * as each loop tracks its own events: it is cheap to create one per loop.
+         *
+         * @throws IllegalArgumentException if the fallback timeout is not positive
+         */
+        public WaitStrategy waitStrategy(Duration fallback) {
+            return new ProbeWaitStrategy(this, fallback);
+        }
+
+        /**
+         * Closes the connection, and stops connecting again.
+         */
+        @Override
+        public void close() {
+            closed = true;
+            submit(this);
+        }
+
+        private synchronized void connected() {
+            connected = true;
+            signal();
+        }
+
+        /**
+         * Refused connections are no news: only the loss of an established one is signalled.
+         */
+        private synchronized void disconnected() {
+            if (connected) {
+                connected = false;
+                signal();
+            }
+        }
+
+        private synchronized void received(ByteBuffer buffer, int maxReceived) {
+            received.write(buffer.array(), buffer.position(), buffer.remaining());
+            if (received.size() > maxReceived) {
+                byte[] all = received.toByteArray();
+                received.reset();
+                received.write(all, all.length - maxReceived, maxReceived);
+            }
+            signal();
+        }
+
+        private void signal() {
+            events++;
+            notifyAll();
+        }
+
+        private synchronized long getEvents() {
+            return events;
+        }
+
+        /**
+         * @return the number of events so far, as soon as it is different from the given one,
+         *         or when the given time has elapsed
+         */
+        private synchronized long awaitEvent(long seen, long nanos) throws InterruptedException {
+            long deadline = System.nanoTime() + nanos;
+            long remaining = nanos;
+            while (events == seen && remaining > 0) {
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+            return events;
+        }
+
+        @Override
+        public String toString() {
+            return "probe of " + address;
+        }
+    }
+
+    private static final class ProbeWaitStrategy extends BaseWaitStrategy {
+
+        private final Probe probe;
+        private final Duration fallback;
+
+        private long seen;
+
+        ProbeWaitStrategy(Probe probe, Duration fallback) {
+            if (fallback == null || fallback.isZero() || fallback.isNegative()) {
+                throw new IllegalArgumentException("The fallback timeout must be positive");
+            }
+            this.probe = probe;
+            this.fallback = fallback;
+        }
+
+        @Override
+        public void runWait() throws InterruptedException {
+            runWait(fallback);
+        }
+
+        /**
+         * Wait for an event, for the fallback timeout, or for the given amount of time, whichever is shorter.
+         * The events happened since the previous wait, or since the beginning of the retry loop, wake it up right away.
+         */
+        @Override
+        public void runWait(Duration atMost) throws InterruptedException {
+            seen = probe.awaitEvent(seen, Math.min(fallback.toNanos(), atMost.toNanos()));
+        }
+
+        /**
+         * Discards the events happened so far.
+         */
+        @Override
+        public void reset() {
+            seen = probe.getEvents();
+        }
+
+        /**
+         * @return true: an event which happened before the wait wakes it up right away
+         */
+        @Override
+        public boolean returnsEarlyByDesign() {
+            return true;
+        }
+
+        @Override
+        public String getDescription() {
+            return "wait for " + probe.address + " to connect, or send data, for at most "
+                    + TimeFormatter.SINGLETON.prettyPrint(fallback);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package me.alb_i986.testing.assertions.retry;
+
+import me.alb_i986.testing.assertions.retry.internal.SystemSleeper;
+
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A virtual clock driving both the timeout and the sleeps of the retry mechanism,
+ * so that tests of retry-based code run in milliseconds, with deterministic timing.
+ * <p>
+ * Time never passes by itself: it moves forward either explicitly, via {@link #advance(Duration)},
+ * or automatically, as soon as all of the retry loops running with this scheduler are sleeping,
+ * in which case the clock jumps to the earliest wake-up time.
+ * <p>
+ * Usage:
+ * <pre>
+ * VirtualTimeScheduler virtualTime = new VirtualTimeScheduler();
+ * assertThat(supplier, eventually(is("expected"),
+ *         RetryConfig.builder()
+ *             .virtualTime(virtualTime)
+ *             .timeoutAfter(Duration.ofMinutes(5))
+ *             .sleepFor(Duration.ofSeconds(10))
+ *             .doNotRetryOnException()));
+ * </pre>
+ *
+ * Please note: custom wait strategies (see {@link RetryConfigBuilder#waitStrategy(WaitStrategy)})
+ * are not driven by the virtual clock.
+ * <p>
+ * Thread-safe: the same instance can be shared by several retry loops, running concurrently.
+ *
+ * @see RetryConfigBuilder#virtualTime(VirtualTimeScheduler)
+ */
+public class VirtualTimeScheduler {
+
+    private final Object lock = new Object();
+    private final List<Instant> wakeUps = new ArrayList<>();
+    private final Clock clock = new VirtualClock(ZoneOffset.UTC);
+    private final SystemSleeper sleeper = new VirtualSleeper();
+
+    private Instant now;
+    private int runningLoops;
+
+    /**
+     * Starts the virtual time at {@link Instant#EPOCH}.
+     */
+    public VirtualTimeScheduler() {
+        this(Instant.EPOCH);
+    }
+
+    public VirtualTimeScheduler(Instant start) {
+        if (start == null) {
+            throw new IllegalArgumentException("The start instant must not be null");
+        }
+        this.now = start;
+    }
+
+    /**
+     * @return the current virtual time
+     */
+    public Instant now() {
+        synchronized (lock) {
+            return now;
+        }
+    }
+
+    /**
+     * @return a clock returning the current virtual time
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
+    SystemSleeper getSleeper() {
+        return sleeper;
+    }
+
+    /**
+     * Moves the virtual time forward, waking up the loops sleeping until then.
+     *
+     * @throws IllegalArgumentException if the duration is negative
+     */
+    public void advance(Duration duration) {
+        if (duration == null || duration.isNegative()) {
+            throw new IllegalArgumentException("The duration must be zero or positive");
+        }
+        synchronized (lock) {
+            now = now.plus(duration);
+            lock.notifyAll();
+        }
+    }
+
+    void loopStarted() {
+        synchronized (lock) {
+            runningLoops++;
+        }
+    }
+
+    void loopFinished() {
+        synchronized (lock) {
+            runningLoops--;
+            // the loops left might all be sleeping now
+            lock.notifyAll();
+        }
+    }
+
+    private void sleep(long millis) throws InterruptedException {
+        synchronized (lock) {
+            Instant wakeUp = plusMillisOrMax(now, millis);
+            wakeUps.add(wakeUp);
+            try {
+                while (now.isBefore(wakeUp)) {
+                    if (sleepingLoops() >= runningLoops) {
+                        now = earliestWakeUp();
+                        lock.notifyAll();
+                    } else {
+                        lock.wait();
+                    }
+                }
+            } finally {
+                wakeUps.remove(wakeUp);
+            }
+        }
+    }
+
+    private static Instant plusMillisOrMax(Instant instant, long millis) {
+        try {
+            return instant.plusMillis(millis);
+        } catch (DateTimeException | ArithmeticException e) {
+            return Instant.MAX;
+        }
+    }
+
+    /**
+     * Loops which have been woken up, but have not left {@link #sleep(long)} yet, are not sleeping.
+     */
+    private int sleepingLoops() {
+        int sleeping = 0;
+        for (Instant wakeUp : wakeUps) {
+            if (wakeUp.isAfter(now)) {
+                sleeping++;
+            }
+        }
+        return sleeping;
+    }
+
+    private Instant earliestWakeUp() {
+        Instant earliest = null;
+        for (Instant wakeUp : wakeUps) {
+            if (wakeUp.isAfter(now) && (earliest == null || wakeUp.isBefore(earliest))) {
+                earliest = wakeUp;
+            }
+        }
+        return earliest;
+    }
+
+    private class VirtualSleeper extends SystemSleeper {
+
+        @Override
+        public void sleep(long millis) throws InterruptedException {
+            VirtualTimeScheduler.this.sleep(millis);
+        }
+    }
+
+    private class VirtualClock extends Clock {
+
+        private final ZoneId zone;
+
+        VirtualClock(ZoneId zone) {
+            this.zone = zone;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return new VirtualClock(zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return now();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package me.alb_i986.testing.assertions.retry;
+
+import java.time.Duration;
+
+public interface WaitStrategy {
+
+    void runWait() throws Exception;
+
+    /**
+     * Wait, but for no longer than the given amount of time.
+     * <p>
+     * Used when the retry mechanism must not outlive a given deadline,
+     * e.g. by {@link ConsistentlyMatcher}.
+     * Strategies which cannot be bounded may just run the usual wait, which is what the default implementation does.
+     *
+     * @param atMost the maximum amount of time to wait for
+     */
+    default void runWait(Duration atMost) throws Exception {
+        runWait();
+    }
+
+    /**
+     * Called at the beginning of each retry loop, before the first attempt,
+     * so that stateful strategies, e.g. backoffs, can start over.
+     * Does nothing by default.
+     */
+    default void reset() {
+    }
+
+    /**
+     * Called at the end of each retry loop, however it ended,
+     * so that the strategies holding resources, e.g. a watch service, can release them until the next {@link #reset()}.
+     * Does nothing by default.
+     */
+    default void release() {
+    }
+
+    /**
+     * @return how long each wait is expected to last, if known in advance (e.g. the duration of a sleep),
+     *         or null, which is what the default implementation returns
+     */
+    default Duration getExpectedDuration() {
+        return null;
+    }
+
+    /**
+     * @return true if the waits may end right away by design, e.g. when an event is already pending,
+     *         in which case the busy-loop guard backs off only when the strategy throws,
+     *         unless a minimum interval between attempts is set; false by default
+     * @see RetryConfigBuilder#minAttemptInterval(Duration)
+     */
+    default boolean returnsEarlyByDesign() {
+        return false;
+    }
+
+    String getDescription();
+}
@@ -0,0 +1,101 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.hamcrest.Description;
+import org.hamcrest.SelfDescribing;
+
+public class AssertRetryResult<T> implements SelfDescribing {
+    private T actual;
+    private boolean assertionPass;
+    private boolean abort;
+    private boolean unchanged;
+    private ExceptionSignature supplierException;
+    private int timesInARow;
+    private int firstAttempt;
+    private int lastAttempt;
+
+    public void suppliedValue(T actual) {
+        this.actual = actual;
+    }
+
+    /**
+     * @param attempt the number of the attempt in which the supplier threw
+     */
+    public void supplierThrew(ExceptionSignature signature, int attempt) {
+        supplierException = signature;
+        timesInARow = 1;
+        firstAttempt = attempt;
+        lastAttempt = attempt;
+    }
+
+    /**
+     * Collapses the exceptions thrown in a row into one result.
+     *
+     * @return true if this result is an exception with the same signature as the given one,
+     *         false otherwise, in which case nothing changed
+     */
+    public boolean supplierThrewAgain(ExceptionSignature signature, int attempt) {
+        if (supplierException != signature) {
+            return false;
+        }
+        timesInARow++;
+        lastAttempt = attempt;
+        return true;
+    }
+
+    /**
+     * @return null if the supplier threw
+     */
+    public T getActual() {
+        return actual;
+    }
+
+    public void actualMatches() {
+        this.assertionPass = true;
+    }
+
+    public void actualAborts() {
+        this.abort = true;
+    }
+
+    public void versionUnchanged() {
+        this.unchanged = true;
+    }
+
+    /**
+     * Same as {@link #describeTo(Description)}, but a value is described by its differences from the given one,
+     * if they are known.
+     *
+     * @param previousValue null to describe this result in full
+     * @see ValueDiff
+     */
+    public void describeTo(Description description, Object previousValue) {
+        if (assertionPass || unchanged || actual == null
+                || !ValueDiff.describe(previousValue, actual, description)) {
+            describeTo(description);
+        } else if (abort) {
+            description.appendText(" (ABORT!)");
+        }
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        if (assertionPass) {
+            description.appendText("MATCH!");
+        } else if (unchanged) {
+            description.appendText("unchanged");
+        } else {
+            if (actual != null) {
+                description.appendValue(actual);
+                if (abort) {
+                    description.appendText(" (ABORT!)");
+                }
+            } else { // supplier threw
+                description.appendText("thrown " + supplierException);
+                if (timesInARow > 1) {
+                    description.appendText(" (" + timesInARow + " times in a row, attempts "
+                            + firstAttempt + " to " + lastAttempt + ")");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import me.alb_i986.testing.assertions.retry.WaitStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Protects the system under test, and the CPU, from a retry loop calling the supplier with no delay at all,
+ * which happens when the {@link WaitStrategy} throws, or returns sooner than expected.
+ * <p>
+ * The guard runs the wait strategy, and then it <i>activates</i>, i.e. it sleeps, if:
+ * <ul>
+ *     <li>the wait strategy threw</li>
+ *     <li>or the wait strategy returned before the minimum interval between attempts elapsed</li>
+ * </ul>
+ * Unless set explicitly, the minimum interval is derived from each wait: half of the
+ * {@link WaitStrategy#getExpectedDuration() expected duration} of the strategy, if known,
+ * or else {@link #DEFAULT_MIN_INTERVAL}, so that a strategy returning right away is detected by default,
+ * unless it {@link WaitStrategy#returnsEarlyByDesign() does so by design}.
+ * Either way, a wait bounded to a shorter time is expected to last no longer than half of that.
+ * <p>
+ * The first activation sleeps for what is left of the minimum interval, or, if the wait strategy threw,
+ * for the minimum interval ({@value #MIN_BACKOFF_MILLIS}ms, if the interval is zero);
+ * each consecutive activation doubles the sleep, up to {@value #MAX_BACKOFF_MILLIS}ms.
+ * A wait which behaves ends the back off.
+ * <p>
+ * The activations are counted per thread, and {@link #reset()} at the beginning of each retry loop.
+ */
+public class BusyLoopGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(BusyLoopGuard.class);
+
+    static final long MIN_BACKOFF_MILLIS = 1;
+    static final long MAX_BACKOFF_MILLIS = 1000;
+
+    /**
+     * The minimum interval expected from the wait strategies which do not know how long their waits last.
+     */
+    public static final Duration DEFAULT_MIN_INTERVAL = Duration.ofMillis(1);
+
+    private final Duration minInterval;
+    private final Clock clock;
+    private final SystemSleeper sleeper;
+
+    private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+    /**
+     * @param minInterval the minimum time between the end of an attempt and the beginning of the next one;
+     *                    zero means that only a wait strategy throwing activates the guard;
+     *                    null means that it is derived from each wait strategy
+     * @param clock the clock measuring the waits
+     * @param sleeper the sleeper backing off
+     */
+    public BusyLoopGuard(Duration minInterval, Clock clock, SystemSleeper sleeper) {
+        this.minInterval = minInterval;
+        this.clock = clock;
+        this.sleeper = sleeper;
+    }
+
+    public void reset() {
+        State current = state.get();
+        current.activations = 0;
+        current.backoffMillis = 0;
+    }
+
+    /**
+     * Runs the given wait strategy, and then backs off if it threw or returned too early.
+     *
+     * @param atMost nullable: the maximum amount of time to wait for
+     *
+     * @throws InterruptedException if the wait strategy, or the back off, is interrupted
+     */
+    public void runWait(WaitStrategy waitStrategy, Duration atMost) throws InterruptedException {
+        Duration interval = minIntervalOf(waitStrategy, atMost);
+        Instant start = interval.isZero() ? null : clock.instant();
+        Exception failure = null;
+        try {
+            if (atMost == null) {
+                waitStrategy.runWait();
+            } else {
+                waitStrategy.runWait(atMost);
+            }
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            failure = e;
+        }
+
+        State current = state.get();
+        long shortfallMillis = 0;
+        if (start != null && !sleeper.isCancelled()) { // a cancelled wait is expected to end early
+            Duration shortfall = interval.minus(Duration.between(start, clock.instant()));
+            shortfallMillis = shortfall.isNegative() || shortfall.isZero() ? 0 : ceilMillis(shortfall);
+        }
+        if (failure == null && shortfallMillis <= 0) {
+            current.backoffMillis = 0;
+            return;
+        }
+
+        current.activations++;
+        boolean consecutive = current.backoffMillis > 0;
+        current.backoffMillis = consecutive
+                ? Math.min(MAX_BACKOFF_MILLIS, current.backoffMillis * 2)
+                : Math.min(MAX_BACKOFF_MILLIS, Math.max(MIN_BACKOFF_MILLIS, interval.toMillis()));
+        long backoffMillis = consecutive || failure != null
+                ? Math.max(shortfallMillis, current.backoffMillis)
+                : shortfallMillis;
+        if (atMost != null) {
+            backoffMillis = Math.min(backoffMillis, atMost.toMillis());
+        }
+        if (current.activations == 1) {
+            logger.warn("The busy-loop guard activated: the WaitStrategy {} {}. Backing off for {}ms",
+                    waitStrategy, failure != null ? "threw" : "returned too early", backoffMillis, failure);
+        } else {
+            logger.debug("The busy-loop guard activated again: backing off for {}ms", backoffMillis, failure);
+        }
+        sleeper.sleep(backoffMillis);
+    }
+
+    private Duration minIntervalOf(WaitStrategy waitStrategy, Duration atMost) {
+        if (minInterval != null) {
+            return minInterval;
+        }
+        if (waitStrategy.returnsEarlyByDesign()) {
+            return Duration.ZERO;
+        }
+        Duration expected = waitStrategy.getExpectedDuration();
+        Duration interval = expected != null ? expected.dividedBy(2) : DEFAULT_MIN_INTERVAL;
+        if (atMost != null && interval.compareTo(atMost.dividedBy(2)) > 0) {
+            return atMost.dividedBy(2);
+        }
+        return interval;
+    }
+
+    /**
+     * Rounds up, so that a shortfall of less than a millisecond still counts.
+     */
+    private static long ceilMillis(Duration duration) {
+        long millis = duration.toMillis();
+        return duration.minusMillis(millis).isZero() ? millis : millis + 1;
+    }
+
+    /**
+     * @return how many times the guard activated in the current thread since the last {@link #reset()}
+     */
+    public int getActivations() {
+        return state.get().activations;
+    }
+
+    /**
+     * @return the line to append to a mismatch description, reporting the given number of activations
+     */
+    public static String describeActivations(int activations) {
+        return "Busy-loop guard activated " + activations + " time(s): "
+                + "the wait strategy threw or returned too early, hence the attempts were slowed down";
+    }
+
+    private static class State {
+        private int activations;
+        private long backoffMillis;
+    }
+}
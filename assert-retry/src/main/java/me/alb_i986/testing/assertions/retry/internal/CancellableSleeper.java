@@ -0,0 +1,27 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import me.alb_i986.testing.assertions.retry.core.CancellationToken;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sleeps until the given time elapses or the token is cancelled, whichever comes first.
+ */
+public class CancellableSleeper extends SystemSleeper {
+
+    private final CancellationToken cancellation;
+
+    public CancellableSleeper(CancellationToken cancellation) {
+        this.cancellation = cancellation;
+    }
+
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        cancellation.await(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancellation.isCancelled();
+    }
+}
@@ -0,0 +1,67 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+/**
+ * The exceptions thrown by a supplier which have the same type, message, and top frame of the stack trace,
+ * i.e. which are most likely to be the same failure, over and over.
+ *
+ * @see ThrownExceptions
+ */
+public class ExceptionSignature {
+
+    private final String type;
+    private final String message;
+    private final String topFrame;
+    private final Exception firstOccurrence;
+    private final int firstAttempt;
+    private int lastAttempt;
+    private int count;
+
+    /**
+     * @param firstOccurrence nullable: if null, the full exception is not kept
+     */
+    ExceptionSignature(String type, String message, String topFrame, Exception firstOccurrence, int attempt) {
+        this.type = type;
+        this.message = message;
+        this.topFrame = topFrame;
+        this.firstOccurrence = firstOccurrence;
+        this.firstAttempt = attempt;
+        this.lastAttempt = attempt;
+        this.count = 1;
+    }
+
+    void occurredAgain(int attempt) {
+        lastAttempt = attempt;
+        count++;
+    }
+
+    /**
+     * @return null unless the full exception was kept
+     */
+    public Exception getFirstOccurrence() {
+        return firstOccurrence;
+    }
+
+    public String getTopFrame() {
+        return topFrame;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getFirstAttempt() {
+        return firstAttempt;
+    }
+
+    public int getLastAttempt() {
+        return lastAttempt;
+    }
+
+    /**
+     * Same as {@link Throwable#toString()}, e.g. {@code "java.net.ConnectException: Connection refused"}
+     */
+    @Override
+    public String toString() {
+        return message != null ? type + ": " + message : type;
+    }
+}
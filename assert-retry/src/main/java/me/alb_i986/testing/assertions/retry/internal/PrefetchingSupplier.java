@@ -0,0 +1,223 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import me.alb_i986.testing.assertions.retry.RetryTracer;
+import me.alb_i986.testing.assertions.retry.core.WaitPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Supplier;
+
+/**
+ * Calls the given supplier in a background thread, waiting between calls,
+ * and buffers the values supplied (or the exceptions thrown), so that the next value
+ * can be fetched while the previous one is being matched.
+ * <p>
+ * The values are returned in the order they were supplied, and the exceptions are rethrown as they are.
+ * When the buffer is full, the background thread stops calling the supplier until a value is taken.
+ * <p>
+ * Each call to the supplier is measured by the background thread, see {@link #lastTaken()}.
+ * <p>
+ * {@link #close()} stops the background thread: the values prefetched and not taken are discarded,
+ * and the current wait, if any, is interrupted. The current call to the supplier, if any, is let finish,
+ * and its outcome discarded: interrupting it could break the supplier, e.g. by closing its
+ * {@link java.nio.channels.InterruptibleChannel channels}.
+ *
+ * @param <T> the type of the values supplied
+ */
+public class PrefetchingSupplier<T> implements Supplier<T>, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrefetchingSupplier.class);
+
+    private final Supplier<? extends T> supplier;
+    private final WaitPolicy waitPolicy;
+    private final RetryTracer tracer;
+    private final boolean measuringCosts;
+    private final BlockingQueue<Fetched<T>> buffer;
+    private final Thread fetcher;
+
+    private final Object lock = new Object();
+    private volatile boolean closed;
+    private boolean calling; // guarded by lock
+    private Fetched<T> lastTaken;
+
+    /**
+     * Same as {@link #PrefetchingSupplier(Supplier, int, WaitPolicy, RetryTracer, boolean)},
+     * neither tracing the calls nor measuring their costs.
+     */
+    public PrefetchingSupplier(Supplier<? extends T> supplier, int bufferSize, WaitPolicy waitPolicy) {
+        this(supplier, bufferSize, waitPolicy, RetryTracers.NOOP, false);
+    }
+
+    /**
+     * @param supplier the supplier to call in the background
+     * @param bufferSize how many values can be prefetched at most
+     * @param waitPolicy the wait between calls to the supplier, run by the background thread
+     * @param tracer notified by the background thread of the beginning of each attempt, i.e. of each call
+     * @param measuringCosts whether to measure the CPU time used, and the bytes allocated, by each call
+     */
+    public PrefetchingSupplier(Supplier<? extends T> supplier, int bufferSize, WaitPolicy waitPolicy,
+                               RetryTracer tracer, boolean measuringCosts) {
+        this.supplier = supplier;
+        this.waitPolicy = waitPolicy;
+        this.tracer = tracer;
+        this.measuringCosts = measuringCosts;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.fetcher = new Thread(this::fetch, "assert-retry-prefetcher");
+        this.fetcher.setDaemon(true);
+    }
+
+    public PrefetchingSupplier<T> start() {
+        fetcher.start();
+        return this;
+    }
+
+    private void fetch() {
+        while (true) {
+            synchronized (lock) {
+                if (closed) {
+                    return;
+                }
+                calling = true;
+            }
+            Fetched<T> fetched = new Fetched<>(tracer.attemptStarted());
+            long startCpuNanos = measuringCosts ? ThreadResources.cpuTimeNanos() : 0;
+            long startAllocatedBytes = measuringCosts ? ThreadResources.allocatedBytes() : 0;
+            try {
+                fetched.value = supplier.get();
+            } catch (Throwable e) {
+                fetched.failure = e;
+            } finally {
+                synchronized (lock) {
+                    calling = false;
+                }
+            }
+            fetched.durationNanos = System.nanoTime() - fetched.startNanos;
+            if (measuringCosts) {
+                fetched.cpuNanos = ThreadResources.cpuTimeNanos() - startCpuNanos;
+                fetched.allocatedBytes = ThreadResources.allocatedBytes() - startAllocatedBytes;
+            }
+            if (closed) {
+                return;
+            }
+            try {
+                buffer.put(fetched);
+                if (closed) {
+                    return;
+                }
+                waitPolicy.await();
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                logger.debug("The WaitStrategy threw: we'll prefetch again NOW", e);
+            }
+        }
+    }
+
+    /**
+     * Takes the next value prefetched, waiting for it if need be.
+     *
+     * @throws IllegalStateException if interrupted while waiting, in which case the interrupt status is set
+     */
+    @Override
+    public T get() {
+        lastTaken = null;
+        Fetched<T> fetched;
+        try {
+            fetched = buffer.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the next value to be prefetched", e);
+        }
+        fetched.takenNanos = System.nanoTime();
+        lastTaken = fetched;
+        if (fetched.failure != null) {
+            throw PrefetchingSupplier.<RuntimeException>sneakyThrow(fetched.failure);
+        }
+        return fetched.value;
+    }
+
+    /**
+     * To be called by the thread taking the values.
+     *
+     * @return how the value, or the exception, returned by the latest call to {@link #get()} was fetched,
+     *         or null if that call was interrupted
+     */
+    public Fetched<T> lastTaken() {
+        return lastTaken;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> E sneakyThrow(Throwable e) throws E {
+        throw (E) e;
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            if (!calling) {
+                fetcher.interrupt(); // out of its wait, or out of put
+            }
+        }
+        buffer.clear(); // unblock the fetcher, if the buffer is full
+    }
+
+    /**
+     * A call to the supplier, as measured by the background thread.
+     */
+    public static final class Fetched<T> {
+        private final Object attempt;
+        private final long startNanos = System.nanoTime();
+        private T value;
+        private Throwable failure;
+        private long durationNanos;
+        private long cpuNanos;
+        private long allocatedBytes;
+        private long takenNanos;
+
+        private Fetched(Object attempt) {
+            this.attempt = attempt;
+        }
+
+        /**
+         * @return what {@link RetryTracer#attemptStarted()} returned, when the call began
+         */
+        public Object getAttempt() {
+            return attempt;
+        }
+
+        /**
+         * @return when the call began, as per {@link System#nanoTime()}
+         */
+        public long getStartNanos() {
+            return startNanos;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        /**
+         * @return how long the value waited to be taken, since the call returned, as per {@link System#nanoTime()}
+         */
+        public long getBufferedNanos() {
+            return takenNanos - startNanos - durationNanos;
+        }
+
+        /**
+         * @return the CPU time used by the call, or 0 if not measured
+         */
+        public long getCpuNanos() {
+            return cpuNanos;
+        }
+
+        /**
+         * @return the bytes allocated by the call, or 0 if not measured
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates statistics about the retry loops run in the JVM, grouped by the call site of the assertion,
+ * and writes them to a report when the JVM shuts down.
+ * <p>
+ * Off by default. To turn it on, set the system property {@value #OUTPUT_PROPERTY}
+ * to the path of the report to write, e.g. {@code -Dassert-retry.profile=target/assert-retry-profile.json}.
+ * The report is written as CSV if the path ends with {@code .csv}, as JSON otherwise.
+ * Call sites are sorted by the total time spent retrying, the most expensive first.
+ * <p>
+ * Recording is lock-free: counters are {@link LongAdder}'s, which stripe the updates across per-thread cells,
+ * and the time-to-match percentiles are tracked by a {@link LatencyHistogram} per call site.
+ */
+public class RetryProfiler {
+
+    public static final String OUTPUT_PROPERTY = "assert-retry.profile";
+
+    public static final RetryProfiler SINGLETON = fromSystemProperties();
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryProfiler.class);
+
+    private final boolean enabled;
+    private final Map<String, CallSiteStats> statsByCallSite = new ConcurrentHashMap<>();
+
+    public RetryProfiler(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    private static RetryProfiler fromSystemProperties() {
+        String output = System.getProperty(OUTPUT_PROPERTY);
+        if (output == null || output.trim().isEmpty()) {
+            return new RetryProfiler(false);
+        }
+        RetryProfiler profiler = new RetryProfiler(true);
+        Path outputPath = Paths.get(output.trim());
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                profiler.writeReport(outputPath);
+            } catch (IOException e) {
+                logger.warn("Could not write the retry profiling report to " + outputPath, e);
+            }
+        }, "assert-retry-profiler"));
+        return profiler;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Records the outcome of a retry loop, attributing it to the call site of the current assertion.
+     *
+     * @param attempts how many times the supplier was called
+     * @param elapsedNanos the time spent in the retry loop
+     * @param waitNanos the time spent waiting between attempts
+     * @param matched whether the assertion eventually passed
+     * @param timedOut whether the assertion failed because the timeout expired
+     */
+    public void record(int attempts, long elapsedNanos, long waitNanos, boolean matched, boolean timedOut) {
+        if (!enabled) {
+            return;
+        }
+        String callSite = callSite(new Throwable().getStackTrace());
+        statsByCallSite.computeIfAbsent(callSite, k -> new CallSiteStats())
+                .record(attempts, elapsedNanos, waitNanos, matched, timedOut);
+    }
+
+    /**
+     * @return the first frame calling into the library, skipping the frames of the library,
+     *         of Hamcrest, and of the JUnit assertions
+     */
+    static String callSite(StackTraceElement[] stackTrace) {
+        int i = 0;
+        while (i < stackTrace.length && !isRetryMatcherFrame(stackTrace[i])) {
+            i++;
+        }
+        while (i < stackTrace.length && (isRetryMatcherFrame(stackTrace[i]) || isAssertionFrame(stackTrace[i]))) {
+            i++;
+        }
+        if (i == stackTrace.length) {
+            return "<unknown>";
+        }
+        StackTraceElement frame = stackTrace[i];
+        return frame.getClassName() + "." + frame.getMethodName()
+                + "(" + frame.getFileName() + ":" + frame.getLineNumber() + ")";
+    }
+
+    private static boolean isRetryMatcherFrame(StackTraceElement frame) {
+        return frame.getClassName().startsWith("me.alb_i986.testing.assertions.retry.")
+                && frame.getClassName().endsWith("Matcher");
+    }
+
+    private static boolean isAssertionFrame(StackTraceElement frame) {
+        return frame.getClassName().startsWith("org.hamcrest.")
+                || frame.getClassName().equals("org.junit.Assert");
+    }
+
+    /**
+     * Writes the statistics recorded so far to the given file, as CSV if it ends with {@code .csv}, as JSON otherwise.
+     */
+    public void writeReport(Path path) throws IOException {
+        List<Map.Entry<String, CallSiteStats>> entries = new ArrayList<>(statsByCallSite.entrySet());
+        entries.sort(Comparator.comparingLong(
+                (Map.Entry<String, CallSiteStats> e) -> e.getValue().elapsedNanos.sum()).reversed());
+
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            if (path.toString().endsWith(".csv")) {
+                writeCsv(entries, writer);
+            } else {
+                writeJson(entries, writer);
+            }
+        }
+    }
+
+    private static void writeCsv(List<Map.Entry<String, CallSiteStats>> entries, Writer writer) throws IOException {
+        writer.write("callSite,invocations,attempts,matched,timeouts,otherFailures,totalTimeMs,totalWaitMs,"
+                + "timeToMatchP50Ms,timeToMatchP90Ms,timeToMatchP99Ms,timeToMatchMaxMs\n");
+        for (Map.Entry<String, CallSiteStats> entry : entries) {
+            CallSiteStats stats = entry.getValue();
+            writer.write(String.format(Locale.ROOT, "\"%s\",%d,%d,%d,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                    entry.getKey().replace("\"", "\"\""),
+                    stats.invocations.sum(), stats.attempts.sum(), stats.matched.sum(),
+                    stats.timeouts.sum(), stats.otherFailures.sum(),
+                    millis(stats.elapsedNanos.sum()), millis(stats.waitNanos.sum()),
+                    millis(stats.timeToMatch.getValueAtPercentile(50)),
+                    millis(stats.timeToMatch.getValueAtPercentile(90)),
+                    millis(stats.timeToMatch.getValueAtPercentile(99)),
+                    millis(stats.timeToMatch.getMaxNanos())));
+        }
+    }
+
+    private static void writeJson(List<Map.Entry<String, CallSiteStats>> entries, Writer writer) throws IOException {
+        writer.write("[");
+        String separator = "\n";
+        for (Map.Entry<String, CallSiteStats> entry : entries) {
+            CallSiteStats stats = entry.getValue();
+            writer.write(separator);
+            writer.write(String.format(Locale.ROOT, "  {\"callSite\": \"%s\", \"invocations\": %d, \"attempts\": %d, "
+                            + "\"matched\": %d, \"timeouts\": %d, \"otherFailures\": %d, "
+                            + "\"totalTimeMs\": %.3f, \"totalWaitMs\": %.3f, "
+                            + "\"timeToMatchMs\": {\"p50\": %.3f, \"p90\": %.3f, \"p99\": %.3f, \"max\": %.3f}}",
+                    entry.getKey().replace("\\", "\\\\").replace("\"", "\\\""),
+                    stats.invocations.sum(), stats.attempts.sum(), stats.matched.sum(),
+                    stats.timeouts.sum(), stats.otherFailures.sum(),
+                    millis(stats.elapsedNanos.sum()), millis(stats.waitNanos.sum()),
+                    millis(stats.timeToMatch.getValueAtPercentile(50)),
+                    millis(stats.timeToMatch.getValueAtPercentile(90)),
+                    millis(stats.timeToMatch.getValueAtPercentile(99)),
+                    millis(stats.timeToMatch.getMaxNanos())));
+            separator = ",\n";
+        }
+        writer.write("\n]\n");
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static class CallSiteStats {
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder matched = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder otherFailures = new LongAdder();
+        private final LongAdder elapsedNanos = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final LatencyHistogram timeToMatch = new LatencyHistogram();
+
+        void record(int attempts, long elapsedNanos, long waitNanos, boolean matched, boolean timedOut) {
+            this.invocations.increment();
+            this.attempts.add(attempts);
+            this.elapsedNanos.add(elapsedNanos);
+            this.waitNanos.add(waitNanos);
+            if (matched) {
+                this.matched.increment();
+                this.timeToMatch.record(elapsedNanos);
+            } else if (timedOut) {
+                this.timeouts.increment();
+            } else {
+                this.otherFailures.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import me.alb_i986.testing.assertions.retry.RetryTracer;
+import me.alb_i986.testing.assertions.retry.WaitStrategy;
+import org.hamcrest.SelfDescribing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * Holds the {@link RetryTracer} found on the classpath, if any, or one which does nothing.
+ */
+public final class RetryTracers {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryTracers.class);
+
+    public static final RetryTracer NOOP = new RetryTracer() {
+        @Override
+        public Object attemptStarted() {
+            return null;
+        }
+
+        @Override
+        public void attemptFinished(Object attempt, String outcome, Exception exception) {
+        }
+
+        @Override
+        public Object waitStarted() {
+            return null;
+        }
+
+        @Override
+        public void waitFinished(Object wait, WaitStrategy waitStrategy, Duration expected) {
+        }
+
+        @Override
+        public void assertionCompleted(SelfDescribing assertion, String outcome, int attempts,
+                                       long elapsedNanos, long waitNanos) {
+        }
+    };
+
+    public static final RetryTracer SINGLETON = load();
+
+    private RetryTracers() {
+    }
+
+    private static RetryTracer load() {
+        try {
+            Iterator<RetryTracer> tracers = ServiceLoader.load(RetryTracer.class).iterator();
+            if (tracers.hasNext()) {
+                RetryTracer tracer = tracers.next();
+                logger.debug("Tracing the retry mechanism with {}", tracer);
+                return tracer;
+            }
+        } catch (ServiceConfigurationError | LinkageError e) {
+            logger.warn("Could not load the RetryTracer: tracing is off", e);
+        }
+        return NOOP;
+    }
+}
@@ -38,6 +38,19 @@ public class SleepWaitStrategy extends BaseWaitStrategy {
         systemSleeper.sleep(millis);
     }
 
+    /**
+     * Sleep for the configured amount of time, or for the given amount of time, whichever is shorter.
+     */
+    @Override
+    public void runWait(Duration atMost) throws InterruptedException {
+        systemSleeper.sleep(Math.min(millis, durationToMillisOrTruncate(atMost)));
+    }
+
+    @Override
+    public Duration getExpectedDuration() {
+        return Duration.ofMillis(millis);
+    }
+
     @Override
     public String getDescription() {
         return "sleep for " +
@@ -0,0 +1,141 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import me.alb_i986.testing.assertions.retry.BaseWaitStrategy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+
+/**
+ * A tiered strategy for conditions expected to become true within microseconds:
+ * at first it busy-spins, then it yields the CPU, and finally it parks the thread,
+ * doubling the park time at each wait, up to a maximum.
+ * <ol>
+ *     <li>the first {@code maxSpins} waits just hint the CPU that we are spinning ({@code Thread.onSpinWait},
+ *     on Java 9+)</li>
+ *     <li>the following {@code maxYields} waits call {@link Thread#yield()}</li>
+ *     <li>the following waits call {@link LockSupport#parkNanos(long)}, starting from {@code minPark},
+ *     and doubling up to {@code maxPark}</li>
+ * </ol>
+ * The strategy starts over from the first phase at each retry loop (see {@link #reset()}).
+ * The state of the phases is kept per thread, so that the same instance can be shared by concurrent retry loops.
+ */
+public class SpinThenParkWaitStrategy extends BaseWaitStrategy {
+
+    private static final MethodHandle ON_SPIN_WAIT = findOnSpinWait();
+
+    private final int maxSpins;
+    private final int maxYields;
+    private final long minParkNanos;
+    private final long maxParkNanos;
+    private final LongConsumer parker;
+
+    private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+    /**
+     * @throws IllegalArgumentException if the spins or the yields are negative,
+     *                                  or the park durations are not positive, or the minimum is greater than the maximum
+     */
+    public SpinThenParkWaitStrategy(int maxSpins, int maxYields, Duration minPark, Duration maxPark) {
+        this(maxSpins, maxYields, minPark, maxPark, LockSupport::parkNanos);
+    }
+
+    SpinThenParkWaitStrategy(int maxSpins, int maxYields, Duration minPark, Duration maxPark, LongConsumer parker) {
+        if (maxSpins < 0 || maxYields < 0) {
+            throw new IllegalArgumentException("The number of spins and yields must not be negative");
+        }
+        if (minPark == null || maxPark == null || minPark.isZero() || minPark.isNegative()) {
+            throw new IllegalArgumentException("The park durations must be positive");
+        }
+        if (minPark.compareTo(maxPark) > 0) {
+            throw new IllegalArgumentException("The minimum park duration must not be greater than the maximum");
+        }
+        this.maxSpins = maxSpins;
+        this.maxYields = maxYields;
+        this.minParkNanos = minPark.toNanos();
+        this.maxParkNanos = maxPark.toNanos();
+        this.parker = parker;
+    }
+
+    private static MethodHandle findOnSpinWait() {
+        try {
+            return MethodHandles.lookup().findStatic(Thread.class, "onSpinWait", MethodType.methodType(void.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null; // Java 8
+        }
+    }
+
+    @Override
+    public void runWait() throws InterruptedException {
+        runWait(Long.MAX_VALUE);
+    }
+
+    /**
+     * Same as {@link #runWait()}, but parks for no longer than the given amount of time.
+     */
+    @Override
+    public void runWait(Duration atMost) throws InterruptedException {
+        runWait(atMost.toNanos());
+    }
+
+    private void runWait(long atMostNanos) throws InterruptedException {
+        State current = state.get();
+        if (current.spins < maxSpins) {
+            current.spins++;
+            onSpinWait();
+        } else if (current.yields < maxYields) {
+            current.yields++;
+            Thread.yield();
+        } else {
+            parker.accept(Math.min(current.parkNanos, atMostNanos));
+            current.parkNanos = Math.min(current.parkNanos * 2, maxParkNanos);
+        }
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    private static void onSpinWait() {
+        if (ON_SPIN_WAIT != null) {
+            try {
+                ON_SPIN_WAIT.invokeExact();
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Override
+    public void reset() {
+        state.get().reset();
+    }
+
+    /**
+     * @return true: it spins, and parks, for a short while only, whatever happens
+     */
+    @Override
+    public boolean returnsEarlyByDesign() {
+        return true;
+    }
+
+    @Override
+    public String getDescription() {
+        return "spin " + maxSpins + " times, then yield " + maxYields + " times, then park from "
+                + minParkNanos + "ns up to " + maxParkNanos + "ns";
+    }
+
+    private class State {
+        private int spins;
+        private int yields;
+        private long parkNanos = minParkNanos;
+
+        void reset() {
+            spins = 0;
+            yields = 0;
+            parkNanos = minParkNanos;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+public class SystemSleeper {
+
+    public void sleep(long millis) throws InterruptedException {
+        Thread.sleep(millis);
+    }
+
+    /**
+     * @return true if the sleeps, and the waits, are meant to end early, e.g. because the retry mechanism was cancelled
+     */
+    public boolean isCancelled() {
+        return false;
+    }
+}
@@ -0,0 +1,76 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures the resources used by the current thread, by means of the {@link ThreadMXBean}.
+ * <p>
+ * The measurements are enabled on first use, if supported by the JVM.
+ * The allocated bytes are available only on HotSpot-based JVMs.
+ */
+public final class ThreadResources {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME_SUPPORTED = enableCpuTime();
+    private static final boolean ALLOCATED_BYTES_SUPPORTED = enableAllocatedBytes();
+
+    private ThreadResources() {
+    }
+
+    private static boolean enableCpuTime() {
+        try {
+            if (!THREADS.isCurrentThreadCpuTimeSupported()) {
+                return false;
+            }
+            if (!THREADS.isThreadCpuTimeEnabled()) {
+                THREADS.setThreadCpuTimeEnabled(true);
+            }
+            return true;
+        } catch (UnsupportedOperationException | SecurityException e) {
+            return false;
+        }
+    }
+
+    private static boolean enableAllocatedBytes() {
+        try {
+            if (!(THREADS instanceof com.sun.management.ThreadMXBean)) {
+                return false;
+            }
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+            if (!threads.isThreadAllocatedMemorySupported()) {
+                return false;
+            }
+            if (!threads.isThreadAllocatedMemoryEnabled()) {
+                threads.setThreadAllocatedMemoryEnabled(true);
+            }
+            return true;
+        } catch (LinkageError | UnsupportedOperationException | SecurityException e) {
+            return false;
+        }
+    }
+
+    public static boolean isCpuTimeSupported() {
+        return CPU_TIME_SUPPORTED;
+    }
+
+    public static boolean isAllocatedBytesSupported() {
+        return ALLOCATED_BYTES_SUPPORTED;
+    }
+
+    /**
+     * @return the CPU time used by the current thread so far, in nanoseconds, or -1 if not supported
+     */
+    public static long cpuTimeNanos() {
+        return CPU_TIME_SUPPORTED ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    /**
+     * @return the bytes allocated by the current thread so far, or -1 if not supported
+     */
+    public static long allocatedBytes() {
+        return ALLOCATED_BYTES_SUPPORTED
+                ? ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId())
+                : -1;
+    }
+}
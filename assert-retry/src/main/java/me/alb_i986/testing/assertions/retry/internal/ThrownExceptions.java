@@ -0,0 +1,108 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.hamcrest.Description;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups the exceptions thrown by a supplier by {@link ExceptionSignature signature},
+ * so that a supplier throwing the same exception thousands of times costs one signature, rather than
+ * thousands of stack traces.
+ * Only the first occurrence of the first {@value #MAX_KEPT_EXCEPTIONS} signatures is kept in full.
+ */
+public class ThrownExceptions {
+
+    public static final int MAX_KEPT_EXCEPTIONS = 3;
+
+    private final Map<String, ExceptionSignature> signatures = new HashMap<>();
+    private final List<ExceptionSignature> inOrderOfAppearance = new ArrayList<>();
+    private int runs;
+
+    /**
+     * Records the given exception, and adds it to the given results, collapsing it into the last one
+     * if it has the same signature, i.e. if the supplier threw the same exception in a row.
+     *
+     * @param attempt the number of the attempt in which the exception was thrown, starting from 1
+     * @return the signature of the exception, which may have been seen already
+     */
+    public <T> ExceptionSignature addTo(List<AssertRetryResult<T>> results, Exception e, int attempt) {
+        ExceptionSignature signature = record(e, attempt);
+        if (results.isEmpty() || !results.get(results.size() - 1).supplierThrewAgain(signature, attempt)) {
+            AssertRetryResult<T> result = new AssertRetryResult<>();
+            result.supplierThrew(signature, attempt);
+            results.add(result);
+            runs++;
+        }
+        return signature;
+    }
+
+    /**
+     * @param attempt the number of the attempt in which the exception was thrown, starting from 1
+     * @return the signature of the exception, which may have been seen already
+     */
+    ExceptionSignature record(Exception e, int attempt) {
+        StackTraceElement[] stackTrace = e.getStackTrace();
+        String topFrame = stackTrace.length > 0 ? stackTrace[0].toString() : "";
+        String type = e.getClass().getName();
+        String message = e.getLocalizedMessage();
+        String key = type + '\n' + message + '\n' + topFrame;
+
+        ExceptionSignature signature = signatures.get(key);
+        if (signature != null) {
+            signature.occurredAgain(attempt);
+            return signature;
+        }
+        signature = new ExceptionSignature(type, message, topFrame,
+                signatures.size() < MAX_KEPT_EXCEPTIONS ? e : null, attempt);
+        signatures.put(key, signature);
+        inOrderOfAppearance.add(signature);
+        return signature;
+    }
+
+    public Collection<ExceptionSignature> getSignatures() {
+        return inOrderOfAppearance;
+    }
+
+    /**
+     * Describes each signature which was thrown not only in a row, e.g. alternating with actual values,
+     * which hence appears more than once in the actual values.
+     */
+    public void describeTo(Description description) {
+        if (runs == inOrderOfAppearance.size()) {
+            return;
+        }
+        description.appendText(System.lineSeparator())
+                .appendText("          Exceptions thrown more than once:");
+        for (ExceptionSignature signature : inOrderOfAppearance) {
+            if (signature.getCount() > 1) {
+                description.appendText(System.lineSeparator())
+                        .appendText("           - " + signature + ", at " + signature.getTopFrame()
+                                + ": " + signature.getCount() + " times, from attempt " + signature.getFirstAttempt()
+                                + " to attempt " + signature.getLastAttempt());
+            }
+        }
+    }
+
+    /**
+     * @return the first occurrence of the first few signatures
+     */
+    public List<Exception> getKeptExceptions() {
+        List<Exception> kept = new ArrayList<>();
+        for (ExceptionSignature signature : inOrderOfAppearance) {
+            if (signature.getFirstOccurrence() != null) {
+                kept.add(signature.getFirstOccurrence());
+            }
+        }
+        return kept;
+    }
+
+    public void clear() {
+        signatures.clear();
+        inOrderOfAppearance.clear();
+        runs = 0;
+    }
+}
@@ -1,10 +1,12 @@
 package me.alb_i986.testing.assertions.retry.internal;
 
+import me.alb_i986.testing.assertions.retry.core.Deadline;
+
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 
-public class Timeout {
+public class Timeout implements Deadline, Deadline.Countdown {
 
     private final Clock clock;
     private final Duration timeoutDuration;
@@ -20,6 +22,13 @@ public class Timeout {
         this.clock = clock;
     }
 
+    /**
+     * @return a new timeout of the given duration, based on the same clock as this one
+     */
+    public Timeout withDuration(Duration timeoutDuration) {
+        return new Timeout(timeoutDuration, clock);
+    }
+
     /**
      * @throws IllegalStateException if the timeout has already been started and not reset
      */
@@ -45,14 +54,35 @@ public class Timeout {
         start();
     }
 
+    /**
+     * Starts a countdown independent of this object's own, and of the other countdowns,
+     * so that the same timeout can be shared by concurrent retry loops.
+     */
+    @Override
+    public Countdown begin() {
+        Instant end = clock.instant().plus(timeoutDuration);
+        return () -> clock.instant().isAfter(end);
+    }
+
     /**
      * @return true if the timeout has expired since it was started
      */
+    @Override
     public boolean isExpired() {
         Instant now = clock.instant();
         return now.isAfter(endInstant);
     }
 
+    /**
+     * @return the amount of time left before the timeout expires since it was started,
+     *         or zero if it is already over
+     */
+    public Duration getRemaining() {
+        Duration remaining = Duration.between(clock.instant(), endInstant);
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    @Override
     public Duration getDuration() {
         return timeoutDuration;
     }
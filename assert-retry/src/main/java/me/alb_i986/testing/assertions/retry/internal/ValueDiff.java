@@ -0,0 +1,204 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.hamcrest.Description;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Describes a value by its differences from the previous one, so that the size of a report
+ * is proportional to how much the values change, rather than to how large they are.
+ * <ul>
+ *     <li>Text: the span which changed, e.g. {@code diff: at index 12, removed "PENDING", added "SHIPPED"}</li>
+ *     <li>Lists and arrays: the elements which changed, e.g. {@code diff: at index 3, added ["d", "e"]}</li>
+ *     <li>Other collections, e.g. sets: the elements added, and removed, e.g. {@code diff: added ["d"], removed ["a"]}</li>
+ *     <li>Maps: the entries added, removed, and changed,
+ *         e.g. {@code diff: added {"d"=<4>}, changed {"a": <1> -> <2>}}</li>
+ * </ul>
+ * Other values, e.g. of different types, or arrays of primitives, have no known differences.
+ */
+public final class ValueDiff {
+
+    private ValueDiff() {
+    }
+
+    /**
+     * @return true if the differences between the two values are known, and were appended to the description,
+     *         false if not, in which case nothing was appended
+     */
+    public static boolean describe(Object previous, Object current, Description description) {
+        if (previous == null || current == null) {
+            return false;
+        }
+        if (previous instanceof CharSequence && current instanceof CharSequence) {
+            describeText(previous.toString(), current.toString(), description);
+        } else if (previous instanceof Map && current instanceof Map) {
+            describeMap((Map<?, ?>) previous, (Map<?, ?>) current, description);
+        } else if (asList(previous) != null && asList(current) != null) {
+            describeList(asList(previous), asList(current), description);
+        } else if (previous instanceof Collection && current instanceof Collection) {
+            describeCollection((Collection<?>) previous, (Collection<?>) current, description);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private static List<?> asList(Object value) {
+        if (value instanceof List) {
+            return (List<?>) value;
+        }
+        if (value instanceof Object[]) {
+            return Arrays.asList((Object[]) value);
+        }
+        return null;
+    }
+
+    private static void describeText(String previous, String current, Description description) {
+        int prefix = 0;
+        int maxPrefix = Math.min(previous.length(), current.length());
+        while (prefix < maxPrefix && previous.charAt(prefix) == current.charAt(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        int maxSuffix = maxPrefix - prefix;
+        while (suffix < maxSuffix
+                && previous.charAt(previous.length() - 1 - suffix) == current.charAt(current.length() - 1 - suffix)) {
+            suffix++;
+        }
+        String removed = previous.substring(prefix, previous.length() - suffix);
+        String added = current.substring(prefix, current.length() - suffix);
+        if (removed.isEmpty() && added.isEmpty()) {
+            description.appendText("diff: none");
+            return;
+        }
+        description.appendText("diff: at index " + prefix);
+        if (!removed.isEmpty()) {
+            description.appendText(", removed ").appendValue(removed);
+        }
+        if (!added.isEmpty()) {
+            description.appendText(", added ").appendValue(added);
+        }
+    }
+
+    private static void describeList(List<?> previous, List<?> current, Description description) {
+        int prefix = 0;
+        int maxPrefix = Math.min(previous.size(), current.size());
+        while (prefix < maxPrefix && Objects.equals(previous.get(prefix), current.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        int maxSuffix = maxPrefix - prefix;
+        while (suffix < maxSuffix
+                && Objects.equals(previous.get(previous.size() - 1 - suffix), current.get(current.size() - 1 - suffix))) {
+            suffix++;
+        }
+        List<?> removed = previous.subList(prefix, previous.size() - suffix);
+        List<?> added = current.subList(prefix, current.size() - suffix);
+        if (removed.isEmpty() && added.isEmpty()) {
+            description.appendText("diff: none");
+            return;
+        }
+        description.appendText("diff: at index " + prefix);
+        if (!removed.isEmpty()) {
+            description.appendValueList(", removed [", ", ", "]", removed);
+        }
+        if (!added.isEmpty()) {
+            description.appendValueList(", added [", ", ", "]", added);
+        }
+    }
+
+    private static void describeCollection(Collection<?> previous, Collection<?> current, Description description) {
+        Map<Object, Integer> counts = new HashMap<>();
+        for (Object element : previous) {
+            counts.merge(element, 1, Integer::sum);
+        }
+        List<Object> added = new ArrayList<>();
+        for (Object element : current) {
+            if (counts.merge(element, -1, Integer::sum) < 0) {
+                added.add(element);
+            }
+        }
+        List<Object> removed = new ArrayList<>();
+        for (Object element : previous) {
+            if (counts.get(element) > 0) {
+                counts.merge(element, -1, Integer::sum);
+                removed.add(element);
+            }
+        }
+        if (removed.isEmpty() && added.isEmpty()) {
+            description.appendText("diff: none");
+            return;
+        }
+        String separator = "diff: ";
+        if (!added.isEmpty()) {
+            description.appendValueList(separator + "added [", ", ", "]", added);
+            separator = ", ";
+        }
+        if (!removed.isEmpty()) {
+            description.appendValueList(separator + "removed [", ", ", "]", removed);
+        }
+    }
+
+    private static void describeMap(Map<?, ?> previous, Map<?, ?> current, Description description) {
+        Map<Object, Object> added = new LinkedHashMap<>();
+        Map<Object, Object> changed = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> entry : current.entrySet()) {
+            if (!previous.containsKey(entry.getKey())) {
+                added.put(entry.getKey(), entry.getValue());
+            } else if (!Objects.equals(previous.get(entry.getKey()), entry.getValue())) {
+                changed.put(entry.getKey(), entry.getValue());
+            }
+        }
+        Map<Object, Object> removed = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> entry : previous.entrySet()) {
+            if (!current.containsKey(entry.getKey())) {
+                removed.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (added.isEmpty() && removed.isEmpty() && changed.isEmpty()) {
+            description.appendText("diff: none");
+            return;
+        }
+        String separator = "diff: ";
+        if (!added.isEmpty()) {
+            description.appendText(separator + "added ");
+            appendEntries(added, description, (key, value) -> description.appendText("=").appendValue(value));
+            separator = ", ";
+        }
+        if (!removed.isEmpty()) {
+            description.appendText(separator + "removed ");
+            appendEntries(removed, description, (key, value) -> description.appendText("=").appendValue(value));
+            separator = ", ";
+        }
+        if (!changed.isEmpty()) {
+            description.appendText(separator + "changed ");
+            appendEntries(changed, description, (key, value) -> description.appendText(": ")
+                    .appendValue(previous.get(key))
+                    .appendText(" -> ")
+                    .appendValue(value));
+        }
+    }
+
+    private static void appendEntries(Map<Object, Object> entries, Description description,
+                                      BiConsumer<Object, Object> valueAppender) {
+        description.appendText("{");
+        boolean first = true;
+        for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+            if (!first) {
+                description.appendText(", ");
+            }
+            first = false;
+            description.appendValue(entry.getKey());
+            valueAppender.accept(entry.getKey(), entry.getValue());
+        }
+        description.appendText("}");
+    }
+}
@@ -0,0 +1,188 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import me.alb_i986.testing.assertions.retry.BaseWaitStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Wait until a file is created, modified, or deleted, or until the fallback timeout expires, whichever comes first.
+ * <p>
+ * If the given path is a directory, any change to its entries wakes up the wait,
+ * otherwise only the changes to the given file do (the file does not need to exist yet).
+ * <p>
+ * The path is registered with a {@link WatchService} at the beginning of each retry loop (see {@link #reset()}),
+ * i.e. before the first attempt, so that a change happening between an attempt and the following wait is not lost,
+ * and the watch service is closed at the end of the loop (see {@link #release()}).
+ * The fallback timeout covers the file systems where the watch service is not reliable, or falls back to polling
+ * (e.g. network file systems, macOS).
+ * If the path cannot be watched, e.g. because its parent directory does not exist (yet),
+ * each wait just sleeps for the fallback timeout, until it can.
+ * <p>
+ * Instances should not be shared by concurrent retry loops, as they would steal each other's events.
+ */
+public class WatchServiceWaitStrategy extends BaseWaitStrategy implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WatchServiceWaitStrategy.class);
+
+    private final Path path;
+    private final Path directory;
+    private final Path fileName;
+    private final Duration fallback;
+
+    private WatchService watchService;
+    private Exception registrationFailure;
+
+    /**
+     * @throws IllegalArgumentException if the path is null, or the fallback timeout is not positive
+     */
+    public WatchServiceWaitStrategy(Path path, Duration fallback) {
+        if (path == null) {
+            throw new IllegalArgumentException("The path must not be null");
+        }
+        if (fallback == null || fallback.isZero() || fallback.isNegative()) {
+            throw new IllegalArgumentException("The fallback timeout must be positive");
+        }
+        this.path = path.toAbsolutePath();
+        this.fallback = fallback;
+        if (Files.isDirectory(this.path)) {
+            this.directory = this.path;
+            this.fileName = null;
+        } else {
+            this.directory = this.path.getParent();
+            this.fileName = this.path.getFileName();
+        }
+    }
+
+    @Override
+    public void runWait() throws InterruptedException {
+        runWait(fallback);
+    }
+
+    /**
+     * Wait for a change, for the fallback timeout, or for the given amount of time, whichever is shorter.
+     */
+    @Override
+    public synchronized void runWait(Duration atMost) throws InterruptedException {
+        long timeoutNanos = Math.min(fallback.toNanos(), atMost.toNanos());
+        WatchService watcher = watchService();
+        if (watcher == null) {
+            TimeUnit.NANOSECONDS.sleep(timeoutNanos);
+            return;
+        }
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (true) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            WatchKey key = watcher.poll(remaining, TimeUnit.NANOSECONDS);
+            if (key == null) {
+                return;
+            }
+            boolean relevant = false;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                relevant |= event.kind() == OVERFLOW || fileName == null || fileName.equals(event.context());
+            }
+            key.reset();
+            if (relevant) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Registers the path with the watch service, if not done yet,
+     * and discards the events received so far.
+     * If the path could not be registered, e.g. the parent directory does not exist, the waits will just sleep.
+     */
+    @Override
+    public synchronized void reset() {
+        WatchService watcher = watchService();
+        if (watcher == null) {
+            logger.warn("Could not watch {}: the waits will last {}, unless it can be watched later on",
+                    directory, TimeFormatter.SINGLETON.prettyPrint(fallback), registrationFailure);
+            return;
+        }
+        WatchKey key;
+        while ((key = watcher.poll()) != null) {
+            key.pollEvents();
+            key.reset();
+        }
+    }
+
+    /**
+     * @return null if the path could not be registered, see {@link #registrationFailure}
+     */
+    private WatchService watchService() {
+        if (watchService == null) {
+            try {
+                WatchService watcher = directory.getFileSystem().newWatchService();
+                try {
+                    directory.register(watcher, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+                } catch (IOException | RuntimeException e) {
+                    watcher.close();
+                    throw e;
+                }
+                watchService = watcher;
+                registrationFailure = null;
+            } catch (IOException | RuntimeException e) {
+                registrationFailure = e;
+            }
+        }
+        return watchService;
+    }
+
+    /**
+     * Closes the watch service, if any: the next {@link #reset()} will register the path again.
+     */
+    @Override
+    public synchronized void release() {
+        try {
+            close();
+        } catch (IOException e) {
+            logger.warn("Could not close the watch service of {}", directory, e);
+        }
+    }
+
+    synchronized boolean isWatching() {
+        return watchService != null;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (watchService != null) {
+            WatchService watcher = watchService;
+            watchService = null;
+            watcher.close();
+        }
+    }
+
+    /**
+     * @return true: a change which happened before the wait wakes it up right away
+     */
+    @Override
+    public boolean returnsEarlyByDesign() {
+        return true;
+    }
+
+    @Override
+    public String getDescription() {
+        return "wait for changes to " + path + ", for at most "
+                + TimeFormatter.SINGLETON.prettyPrint(fallback);
+    }
+}
@@ -0,0 +1,101 @@
+package me.alb_i986.testing.assertions.retry;
+
+import me.alb_i986.testing.assertions.retry.core.RetryScheduler;
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+
+public class AsyncAssertTest {
+
+    private final RetryScheduler scheduler = new RetryScheduler(2, Duration.ofMillis(1), 64);
+
+    @After
+    public void tearDown() {
+        scheduler.close();
+    }
+
+    @Test
+    public void assertionPasses() throws Exception {
+        AtomicInteger counter = new AtomicInteger();
+        RetryConfig config = new RetryConfigBuilder()
+                .timeoutAfter(Duration.ofSeconds(10))
+                .sleepForMillis(5)
+                .doNotRetryOnException()
+                .build();
+
+        CompletableFuture<Void> assertion = AsyncAssert.assertEventually(counter::incrementAndGet, is(3), config, scheduler);
+
+        assertion.get(5, TimeUnit.SECONDS);
+        assertThat(counter.get(), is(3));
+    }
+
+    @Test
+    public void assertionFails() throws Exception {
+        RetryConfig config = new RetryConfigBuilder()
+                .timeoutAfter(Duration.ofMillis(30))
+                .sleepForMillis(5)
+                .doNotRetryOnException()
+                .build();
+
+        CompletableFuture<Void> assertion = AsyncAssert.assertEventually(() -> "a", is("b"), config, scheduler);
+
+        try {
+            assertion.get(5, TimeUnit.SECONDS);
+            fail("expected to fail");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(AssertionError.class));
+            assertThat(e.getCause().getMessage(), allOf(
+                    startsWith(System.lineSeparator() + "Expected: supplied value to *eventually* match is \"b\" within 30ms"),
+                    containsString("     but: The timeout was reached and none of the actual values matched")));
+        }
+    }
+
+    @Test
+    public void cancellingTheAssertionStopsTheRetryLoop() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        RetryConfig config = new RetryConfigBuilder()
+                .timeoutAfter(Duration.ofSeconds(30))
+                .sleepForMillis(5)
+                .doNotRetryOnException()
+                .build();
+        CompletableFuture<Void> assertion = AsyncAssert.assertEventually(calls::incrementAndGet, is(-1), config, scheduler);
+        Thread.sleep(50);
+
+        assertion.cancel(false);
+        Thread.sleep(50); // let the attempt in flight, if any, finish
+        int callsAfterCancel = calls.get();
+        Thread.sleep(100);
+
+        assertThat(callsAfterCancel, greaterThan(0));
+        assertThat(calls.get(), is(callsAfterCancel));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void waitStrategyWithoutExpectedDuration() {
+        RetryConfig config = new RetryConfigBuilder()
+                .timeoutAfter(Duration.ofSeconds(1))
+                .waitStrategy(new WaitStrategy() {
+                    @Override
+                    public void runWait() {
+                    }
+
+                    @Override
+                    public String getDescription() {
+                        return "do not wait";
+                    }
+                })
+                .doNotRetryOnException()
+                .build();
+
+        AsyncAssert.assertEventually(() -> "a", is("b"), config, scheduler);
+    }
+}
@@ -0,0 +1,114 @@
+package me.alb_i986.testing.assertions.retry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Supplier;
+
+import static me.alb_i986.testing.assertions.retry.RetryMatcher.eventually;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertEquals;
+
+public class AttemptTraceTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void traceOfPassingAssertionsCanBeReadBack() throws Exception {
+        Path file = tmp.getRoot().toPath().resolve("run/attempts.trace");
+        try (AttemptTrace trace = AttemptTrace.open(file)) {
+            RetryConfig config = new RetryConfigBuilder()
+                    .timeoutAfter(Duration.ofSeconds(10))
+                    .sleepForMillis(1)
+                    .retryOnException(IllegalStateException.class)
+                    .traceAttemptsTo(trace)
+                    .build();
+
+            assertThat(supplierOf("a", null, "b"), eventually(is("b"), config));
+            assertThat(supplierOf("c"), eventually(is("c"), config));
+        }
+
+        String report = AttemptTraceReader.report(file);
+
+        String[] lines = report.split(System.lineSeparator());
+        assertEquals(report, 8, lines.length);
+        assertThat(lines[0], startsWith("Assertion #1, started at "));
+        assertThat(lines[1], is("          Actual values (in order of appearance):"));
+        assertThat(lines[2], matchesPattern(String.format("           - value #%08x, at \\+0\\.000ms, in \\d+\\.\\d{3}ms", "a".hashCode())));
+        assertThat(lines[3], matchesPattern("           - thrown java.lang.IllegalStateException, at \\+\\d+\\.\\d{3}ms, in \\d+\\.\\d{3}ms"));
+        assertThat(lines[4], startsWith(String.format("           - MATCH! value #%08x, at +", "b".hashCode())));
+        assertThat(lines[5], startsWith("Assertion #2, started at "));
+        assertThat(lines[6], is("          Actual values (in order of appearance):"));
+        assertThat(lines[7], startsWith(String.format("           - MATCH! value #%08x, at +0.000ms", "c".hashCode())));
+    }
+
+    @Test
+    public void recordsHaveFixedSize() throws Exception {
+        Path file = tmp.getRoot().toPath().resolve("attempts.trace");
+        try (AttemptTrace trace = AttemptTrace.open(file)) {
+            RetryConfig config = new RetryConfigBuilder()
+                    .timeoutAfter(Duration.ofSeconds(10))
+                    .sleepForMillis(1)
+                    .doNotRetryOnException()
+                    .traceAttemptsTo(trace)
+                    .build();
+
+            assertThat(supplierOf("a", "b", "c"), eventually(is("c"), config));
+        }
+
+        assertEquals(AttemptTrace.HEADER_SIZE + 3 * AttemptTrace.RECORD_SIZE, Files.size(file));
+    }
+
+    @Test
+    public void truncatedTraceIsReadUpToTheLastCompleteRecord() throws Exception {
+        Path file = tmp.getRoot().toPath().resolve("attempts.trace");
+        try (AttemptTrace trace = AttemptTrace.open(file)) {
+            RetryConfig config = new RetryConfigBuilder()
+                    .timeoutAfter(Duration.ofSeconds(10))
+                    .sleepForMillis(1)
+                    .doNotRetryOnException()
+                    .traceAttemptsTo(trace)
+                    .build();
+
+            assertThat(supplierOf("a", "b"), eventually(is("b"), config));
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 10));
+
+        String report = AttemptTraceReader.report(file);
+
+        assertThat(report, containsString(String.format("value #%08x", "a".hashCode())));
+        assertThat(report, not(containsString("MATCH!")));
+    }
+
+    @Test(expected = IOException.class)
+    public void notATrace() throws Exception {
+        Path file = tmp.newFile().toPath();
+        Files.write(file, "not a trace, not at all".getBytes());
+
+        AttemptTraceReader.report(file);
+    }
+
+    /**
+     * @param values null stands for an IllegalStateException
+     */
+    private static Supplier<String> supplierOf(String... values) {
+        Iterator<String> iterator = Arrays.asList(values).iterator();
+        return () -> {
+            String value = iterator.next();
+            if (value == null) {
+                throw new IllegalStateException();
+            }
+            return value;
+        };
+    }
+}
@@ -0,0 +1,158 @@
+package me.alb_i986.testing.assertions.retry;
+
+import me.alb_i986.testing.assertions.retry.internal.Timeout;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+public class ConsistentlyMatcherTest {
+
+    @Rule
+    public MockitoRule rule = MockitoJUnit.rule();
+
+    @Mock
+    private WaitStrategy waitStrategyMock;
+
+    @Mock
+    private Supplier<Integer> supplierMock;
+
+    @Mock
+    private Clock clockMock;
+
+    private RetryConfig config;
+
+    @Before
+    public void setUp() {
+        given(clockMock.instant())
+                .willReturn(Instant.EPOCH)
+                .willReturn(Instant.EPOCH.plusMillis(10))
+                .willReturn(Instant.EPOCH.plusMillis(20))
+                .willReturn(Instant.EPOCH.plusMillis(30))
+                .willReturn(Instant.EPOCH.plusMillis(40))
+                .willReturn(Instant.EPOCH.plusMillis(50));
+
+        config = new RetryConfigBuilder()
+                .timeout(new Timeout(Duration.ofMillis(49), clockMock))
+                .waitStrategy(waitStrategyMock)
+                .doNotRetryOnException()
+                .build();
+
+        given(supplierMock.get())
+                .willReturn(1)
+                .willReturn(2)
+                .willReturn(3)
+                .willReturn(4)
+                .willReturn(5)
+                .willReturn(6);
+    }
+
+    @Test
+    public void shouldSampleUntilTheEndOfTheWindowWhenAllValuesMatch() throws Exception {
+        ConsistentlyMatcher<Integer> sut = new ConsistentlyMatcher<>(lessThan(10), config);
+
+        // when
+        assertTrue(sut.matches(supplierMock));
+
+        verify(supplierMock, times(5)).get();
+        verify(waitStrategyMock).runWait(Duration.ofMillis(39));
+        verify(waitStrategyMock).runWait(Duration.ofMillis(29));
+        verify(waitStrategyMock).runWait(Duration.ofMillis(19));
+        verify(waitStrategyMock).runWait(Duration.ofMillis(9));
+        verify(waitStrategyMock).reset();
+        verify(waitStrategyMock).release();
+        verify(waitStrategyMock, times(4)).returnsEarlyByDesign(); // by the busy-loop guard
+        verify(waitStrategyMock, times(4)).getExpectedDuration();
+        verifyNoMoreInteractions(waitStrategyMock);
+    }
+
+    @Test
+    public void shouldStopSamplingAtTheFirstValueNotMatching() throws Exception {
+        ConsistentlyMatcher<Integer> sut = new ConsistentlyMatcher<>(lessThan(3), config);
+
+        // when
+        assertFalse(sut.matches(supplierMock));
+
+        verify(supplierMock, times(3)).get();
+        verify(waitStrategyMock, times(2)).runWait(ArgumentMatchers.any(Duration.class));
+    }
+
+    @Test
+    public void shouldReportAllTheSamplesWhenAValueDoesNotMatch() {
+        try {
+            assertThat(supplierMock, ConsistentlyMatcher.consistently(lessThan(3), config));
+            fail("expected to fail");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), equalTo("\nExpected: supplied value to *consistently* match a value less than <3> for 49ms\n" +
+                    "     but: An actual value did not match before the end of the time window\n" +
+                    "          Actual values (in order of appearance):\n" +
+                    "           - <1>\n" +
+                    "           - <2>\n" +
+                    "           - <3>"));
+        }
+    }
+
+    @Test
+    public void shouldReportOnlyTheSamplesOfTheLatestRunWhenReused() {
+        ConsistentlyMatcher<Integer> sut = new ConsistentlyMatcher<>(lessThan(3), config);
+        assertFalse(sut.matches(supplierMock));
+
+        try {
+            assertThat(supplierMock, sut);
+            fail("expected to fail");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), equalTo("\nExpected: supplied value to *consistently* match a value less than <3> for 49ms\n" +
+                    "     but: An actual value did not match before the end of the time window\n" +
+                    "          Actual values (in order of appearance):\n" +
+                    "           - <4>"));
+        }
+    }
+
+    @Test
+    public void shouldNotRetryWhenSupplierThrowsGivenRetryOnExceptionIsOff() throws Exception {
+        given(supplierMock.get())
+                .willThrow(new RuntimeException("Supplier failed"));
+
+        ConsistentlyMatcher<Integer> sut = new ConsistentlyMatcher<>(lessThan(10), config);
+
+        // when
+        assertFalse(sut.matches(supplierMock));
+
+        verify(supplierMock, times(1)).get();
+        verify(waitStrategyMock, times(0)).runWait(ArgumentMatchers.any(Duration.class));
+    }
+
+    @Test
+    public void shouldSkipTheSampleWhenSupplierThrowsConfiguredException() throws Exception {
+        given(supplierMock.get())
+                .willReturn(1)
+                .willThrow(new SubException())
+                .willReturn(3);
+
+        RetryConfig config = new RetryConfigBuilder()
+                .timeout(new Timeout(Duration.ofMillis(49), clockMock))
+                .waitStrategy(waitStrategyMock)
+                .retryOnException(SuperException.class)
+                .build();
+        ConsistentlyMatcher<Integer> sut = new ConsistentlyMatcher<>(lessThan(10), config);
+
+        // when
+        assertTrue(sut.matches(supplierMock));
+
+        verify(supplierMock, times(5)).get();
+    }
+}
@@ -0,0 +1,109 @@
+package me.alb_i986.testing.assertions.retry;
+
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Supplier;
+
+import static me.alb_i986.testing.assertions.retry.ConvergenceHistogram.hasPercentile;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class ConvergenceHistogramTest {
+
+    private final ConvergenceHistogram sut = new ConvergenceHistogram();
+
+    private final RetryConfig config = new RetryConfigBuilder()
+            .timeoutAfter(Duration.ofSeconds(10))
+            .sleepForMillis(5)
+            .doNotRetryOnException()
+            .build();
+
+    @Test
+    public void measuresTheTimeToMatch() {
+        Convergence convergence = sut.measure(supplierOf("a", "b", "c"), is("c"), config);
+
+        assertEquals(3, convergence.getAttempts());
+        assertThat(convergence.getTimeToMatch(), greaterThanOrEqualTo(Duration.ofMillis(10)));
+        assertEquals(1, sut.getCount());
+        assertEquals(convergence.getTimeToMatch(), sut.getMax());
+    }
+
+    @Test
+    public void failedAssertionsAreNotRecorded() {
+        RetryConfig config = new RetryConfigBuilder()
+                .timeoutAfter(Duration.ofMillis(20))
+                .sleepForMillis(5)
+                .doNotRetryOnException()
+                .build();
+
+        try {
+            sut.measure(() -> "a", is("b"), config);
+            fail("expected to fail");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), containsString("The timeout was reached and none of the actual values matched"));
+        }
+        assertEquals(0, sut.getCount());
+    }
+
+    @Test
+    public void percentileMatches() {
+        for (int i = 0; i < 3; i++) {
+            sut.measure(() -> "a", is("a"), config);
+        }
+
+        assertThat(sut, hasPercentile(99, lessThan(Duration.ofSeconds(1))));
+    }
+
+    @Test
+    public void percentileDoesNotMatch() {
+        for (int i = 0; i < 3; i++) {
+            sut.measure(() -> "a", is("a"), config);
+        }
+        Matcher<ConvergenceHistogram> matcher = hasPercentile(99, greaterThan(Duration.ofSeconds(1)));
+
+        assertFalse(matcher.matches(sut));
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(sut, description);
+        assertThat(description.toString(), matchesPattern("p99 was .+, over 3 assertions: p50 .+, p90 .+, p99 .+, max .+"));
+        assertEquals("p99 of the times to match a value greater than <PT1S>", StringDescription.toString(matcher));
+    }
+
+    @Test
+    public void emptyHistogramDoesNotMatch() {
+        Matcher<ConvergenceHistogram> matcher = hasPercentile(99.9, anything());
+
+        assertFalse(matcher.matches(sut));
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(sut, description);
+        assertEquals("no assertion was measured", description.toString());
+        assertThat(StringDescription.toString(matcher), startsWith("p99.9 of the times to match"));
+    }
+
+    @Test
+    public void histogramsCanBeMerged() {
+        ConvergenceHistogram other = new ConvergenceHistogram();
+        sut.measure(() -> "a", is("a"), config);
+        other.measure(supplierOf("a", "b"), is("b"), config);
+
+        sut.merge(other);
+
+        assertEquals(2, sut.getCount());
+        assertEquals(other.getMax(), sut.getMax());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void percentileOutOfRange() {
+        hasPercentile(101, anything());
+    }
+
+    private static Supplier<String> supplierOf(String... values) {
+        Iterator<String> iterator = Arrays.asList(values).iterator();
+        return iterator::next;
+    }
+}
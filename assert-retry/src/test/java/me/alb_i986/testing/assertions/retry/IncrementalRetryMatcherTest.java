@@ -0,0 +1,144 @@
+package me.alb_i986.testing.assertions.retry;
+
+import me.alb_i986.testing.assertions.retry.internal.Timeout;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static me.alb_i986.testing.assertions.retry.IncrementalRetryMatcher.eventuallyHasItem;
+import static me.alb_i986.testing.assertions.retry.IncrementalRetryMatcher.eventuallyReceives;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.given;
+
+public class IncrementalRetryMatcherTest {
+
+    @Rule
+    public MockitoRule rule = MockitoJUnit.rule();
+
+    @Mock
+    private WaitStrategy waitStrategyMock;
+
+    @Mock
+    private Supplier<List<String>> listSupplierMock;
+
+    @Mock
+    private Clock clockMock;
+
+    private RetryConfigBuilder configBuilder;
+
+    @Before
+    public void setUp() {
+        given(clockMock.instant())
+                .willReturn(Instant.EPOCH)
+                .willReturn(Instant.EPOCH.plusMillis(10))
+                .willReturn(Instant.EPOCH.plusMillis(20))
+                .willReturn(Instant.EPOCH.plusMillis(30))
+                .willReturn(Instant.EPOCH.plusMillis(40))
+                .willReturn(Instant.EPOCH.plusMillis(50));
+
+        configBuilder = new RetryConfigBuilder()
+                .timeout(new Timeout(Duration.ofMillis(49), clockMock))
+                .waitStrategy(waitStrategyMock)
+                .doNotRetryOnException();
+    }
+
+    @Test
+    public void shouldMatchOnlyTheNewElementsOfAGrowingList() {
+        given(listSupplierMock.get())
+                .willReturn(Arrays.asList("a"))
+                .willReturn(Arrays.asList("a", "b", "c"))
+                .willReturn(Arrays.asList("a", "b", "c", "d"));
+        CountingMatcher elementMatcher = new CountingMatcher("d");
+
+        assertThat(listSupplierMock, eventuallyHasItem(elementMatcher, configBuilder));
+
+        assertThat(elementMatcher.matched, contains("a", "b", "c", "d"));
+    }
+
+    @Test
+    public void shouldStartOverWhenTheListShrinks() {
+        given(listSupplierMock.get())
+                .willReturn(Arrays.asList("a", "b"))
+                .willReturn(Arrays.asList("c"));
+        CountingMatcher elementMatcher = new CountingMatcher("c");
+
+        assertThat(listSupplierMock, eventuallyHasItem(elementMatcher, configBuilder));
+
+        assertThat(elementMatcher.matched, contains("a", "b", "c"));
+    }
+
+    @Test
+    public void shouldMatchTheElementsReceived() {
+        given(listSupplierMock.get())
+                .willReturn(Arrays.asList("a", "b"))
+                .willReturn(Collections.emptyList())
+                .willReturn(Arrays.asList("a", "b"));
+        CountingMatcher elementMatcher = new CountingMatcher("z");
+
+        assertFalse(eventuallyReceives(elementMatcher, configBuilder).matches(listSupplierMock));
+
+        assertThat(elementMatcher.matched, contains("a", "b", "a", "b", "a", "b", "a", "b"));
+    }
+
+    @Test
+    public void shouldReportTheNewElementsOfEachAttempt() {
+        given(listSupplierMock.get())
+                .willReturn(Arrays.asList("a"))
+                .willReturn(Arrays.asList("a", "b", "c"))
+                .willReturn(Arrays.asList("a", "b", "c"));
+
+        try {
+            assertThat(listSupplierMock, eventuallyHasItem(is("z"), configBuilder));
+            fail("expected to fail");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), equalTo("\nExpected: supplied elements to *eventually* include an item matching is \"z\" within 49ms\n" +
+                    "     but: The timeout was reached and none of the actual values matched\n" +
+                    "          Actual values (in order of appearance):\n" +
+                    "           - <[a]>\n" +
+                    "           - <[b, c]>\n" +
+                    "           - <[]>\n" +
+                    "           - <[]>\n" +
+                    "           - <[]>"));
+        }
+    }
+
+    /**
+     * Records the items it is asked to match.
+     */
+    private static class CountingMatcher extends TypeSafeMatcher<String> {
+        private final Matcher<String> delegate;
+        private final List<String> matched = new ArrayList<>();
+
+        CountingMatcher(String expected) {
+            this.delegate = is(expected);
+        }
+
+        @Override
+        protected boolean matchesSafely(String item) {
+            matched.add(item);
+            return delegate.matches(item);
+        }
+
+        @Override
+        public void describeTo(Description description) {
+            delegate.describeTo(description);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package me.alb_i986.testing.assertions.retry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static me.alb_i986.testing.assertions.retry.RetryMatcher.eventually;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+
+public class LogTailTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+
+    private Path log;
+    private LogTail sut;
+
+    @Before
+    public void setUp() {
+        log = folder.getRoot().toPath().resolve("service.log");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        executor.shutdownNow();
+        if (sut != null) {
+            sut.close();
+        }
+    }
+
+    @Test
+    public void shouldSupplyOnlyTheLinesAppendedSinceThePreviousCall() throws Exception {
+        append(log, "old 1\nold 2\n");
+        sut = LogTail.fromEnd(log);
+
+        append(log, "new 1\r\nnew 2\nnew ");
+        assertThat(sut.get(), contains("new 1", "new 2"));
+
+        append(log, "3\n");
+        assertThat(sut.get(), contains("new 3"));
+        assertThat(sut.get(), is(empty()));
+    }
+
+    @Test
+    public void shouldSupplyLinesLongerThanTheBuffer() throws Exception {
+        String longLine = String.join("", Collections.nCopies(100_000, "x"));
+        append(log, "short\n" + longLine + "\nlast\n");
+        sut = LogTail.fromStart(log);
+
+        assertThat(sut.get(), contains("short", longLine, "last"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectCharsetsNotEncodingTheNewLineAsASingleByte() {
+        LogTail.fromStart(log, StandardCharsets.UTF_16);
+    }
+
+    @Test
+    public void shouldSupplyTheWholeFileFromTheStart() throws Exception {
+        append(log, "old 1\nold 2\n");
+        sut = LogTail.fromStart(log);
+
+        assertThat(sut.get(), contains("old 1", "old 2"));
+    }
+
+    @Test
+    public void shouldReadAgainFromTheStartWhenTheFileIsTruncated() throws Exception {
+        append(log, "before truncation 1\nbefore truncation 2\n");
+        sut = LogTail.fromEnd(log);
+
+        Files.write(log, "after\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.TRUNCATE_EXISTING);
+
+        assertThat(sut.get(), contains("after"));
+    }
+
+    @Test
+    public void shouldFollowTheRotationOfTheFile() throws Exception {
+        append(log, "a\n");
+        sut = LogTail.fromStart(log);
+        assertThat(sut.get(), contains("a"));
+
+        append(log, "b\nc");
+        Path rotated = Files.move(log, log.resolveSibling("service.log.1"));
+        append(log, "d\n");
+
+        assertThat(sut.get(), contains("b", "c", "d"));
+        append(rotated, "never read\n");
+        assertThat(sut.get(), is(empty()));
+    }
+
+    @Test
+    public void shouldSupplyNoLinesUntilTheFileExists() throws Exception {
+        sut = LogTail.fromEnd(log);
+        assertThat(sut.get(), is(empty()));
+
+        append(log, "created\n");
+
+        assertThat(sut.get(), contains("created"));
+    }
+
+    @Test
+    public void shouldMatchALineAppendedLater() throws Exception {
+        sut = LogTail.fromEnd(log);
+        executor.schedule(() -> append(log, "Starting\nStarted in 1.2s\n"), 100, TimeUnit.MILLISECONDS);
+
+        assertThat(sut, eventually(hasItem(startsWith("Started")), RetryConfig.builder()
+                .timeoutAfter(Duration.ofSeconds(10))
+                .sleepForMillis(10)
+                .doNotRetryOnException()));
+    }
+
+    @Test
+    public void shouldReportOnlyTheLatestLines() throws Exception {
+        sut = LogTail.fromEnd(log);
+        StringBuilder lines = new StringBuilder();
+        for (int i = 1; i <= 25; i++) {
+            lines.append("line ").append(i).append('\n');
+        }
+        append(log, lines.toString());
+
+        try {
+            assertThat(sut, eventually(hasItem("Started"), RetryConfig.builder()
+                    .timeoutAfter(Duration.ofMillis(50))
+                    .sleepForMillis(10)
+                    .doNotRetryOnException()));
+            fail("expected to fail");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), containsString("<[... 15 more lines, line 16, line 17, line 18, line 19, line 20, "
+                    + "line 21, line 22, line 23, line 24, line 25]>"));
+            assertThat(e.getMessage(), not(containsString("line 15,")));
+        }
+    }
+
+    private static Void append(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return null;
+    }
+}
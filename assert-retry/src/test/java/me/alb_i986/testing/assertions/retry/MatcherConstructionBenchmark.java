@@ -0,0 +1,81 @@
+package me.alb_i986.testing.assertions.retry;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.TypeSafeMatcher;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Measures the cost of building, and running, assertions which match at the first attempt,
+ * i.e. the overhead of the library in data-driven suites running many of them.
+ * <p>
+ * Run with e.g. {@code java -cp target/classes:target/test-classes:<dependencies> MatcherConstructionBenchmark}.
+ */
+public class MatcherConstructionBenchmark {
+
+    private static final int WARMUP = 500_000;
+    private static final int ITERATIONS = 2_000_000;
+
+    private static final RetryConfig CONFIG = new RetryConfigBuilder()
+            .timeoutAfter(Duration.ofSeconds(1))
+            .sleepForMillis(1)
+            .retryOnException(IllegalStateException.class)
+            .build();
+    private static final Matcher<Object> IS_A = Matchers.is((Object) "a");
+    private static final Supplier<String> SUPPLIER = () -> "a";
+
+    private static Object blackhole;
+
+    public static void main(String[] args) {
+        measure("new TypeSafeMatcher(), type looked up by reflection", () -> blackhole = new ReflectiveMatcher());
+        measure("new TypeSafeMatcher(Supplier.class)", () -> blackhole = new ExplicitTypeMatcher());
+        measure("eventually(matcher, config)", () -> blackhole = RetryMatcher.eventually(IS_A, CONFIG));
+        measure("assertThat(supplier, eventually(matcher, config))",
+                () -> MatcherAssert.assertThat(SUPPLIER, RetryMatcher.eventually(IS_A, CONFIG)));
+        PreparedAssertion<Object> prepared = PreparedAssertion.eventually(IS_A, CONFIG);
+        measure("prepared.assertThat(supplier)", () -> prepared.assertThat(SUPPLIER));
+    }
+
+    private static void measure(String name, Runnable operation) {
+        for (int i = 0; i < WARMUP; i++) {
+            operation.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            operation.run();
+        }
+        System.out.printf("%-55s %,8.1f ns/op%n", name, (System.nanoTime() - start) / (double) ITERATIONS);
+    }
+
+    private static class ReflectiveMatcher extends TypeSafeMatcher<Supplier<?>> {
+
+        @Override
+        protected boolean matchesSafely(Supplier<?> item) {
+            return true;
+        }
+
+        @Override
+        public void describeTo(Description description) {
+        }
+    }
+
+    private static class ExplicitTypeMatcher extends TypeSafeMatcher<Supplier<?>> {
+
+        ExplicitTypeMatcher() {
+            super(Supplier.class);
+        }
+
+        @Override
+        protected boolean matchesSafely(Supplier<?> item) {
+            return true;
+        }
+
+        @Override
+        public void describeTo(Description description) {
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package me.alb_i986.testing.assertions.retry;
+
+import me.alb_i986.testing.assertions.retry.internal.Timeout;
+import org.hamcrest.Matcher;
+import org.hamcrest.Matchers;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+import static me.alb_i986.testing.assertions.retry.Conditions.condition;
+import static me.alb_i986.testing.assertions.retry.MultiRetryMatcher.eventuallyAll;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+public class MultiRetryMatcherTest {
+
+    @Rule
+    public MockitoRule rule = MockitoJUnit.rule();
+
+    @Mock
+    private WaitStrategy waitStrategyMock;
+
+    @Mock
+    private Supplier<Integer> supplierMock;
+
+    @Mock
+    private Supplier<String> otherSupplierMock;
+
+    @Mock
+    private Clock clockMock;
+
+    private RetryConfigBuilder configBuilder;
+
+    @Before
+    public void setUp() {
+        given(clockMock.instant())
+                .willReturn(Instant.EPOCH)
+                .willReturn(Instant.EPOCH.plusMillis(10))
+                .willReturn(Instant.EPOCH.plusMillis(20))
+                .willReturn(Instant.EPOCH.plusMillis(30))
+                .willReturn(Instant.EPOCH.plusMillis(40))
+                .willReturn(Instant.EPOCH.plusMillis(50));
+
+        configBuilder = new RetryConfigBuilder()
+                .timeout(new Timeout(Duration.ofMillis(49), clockMock))
+                .waitStrategy(waitStrategyMock)
+                .doNotRetryOnException();
+
+        given(supplierMock.get())
+                .willReturn(1)
+                .willReturn(2)
+                .willReturn(3)
+                .willReturn(4)
+                .willReturn(5)
+                .willReturn(6);
+        given(otherSupplierMock.get())
+                .willReturn("a")
+                .willReturn("b")
+                .willReturn("c")
+                .willReturn("d")
+                .willReturn("e")
+                .willReturn("f");
+    }
+
+    @Test
+    public void shouldPollAllConditionsInTheSameCycleAndStopPollingTheSatisfiedOnes() throws Exception {
+        assertTrue(eventuallyAll(configBuilder).matches(
+                condition(supplierMock, is(2))
+                        .and(otherSupplierMock, is("d"))));
+
+        verify(supplierMock, times(2)).get();
+        verify(otherSupplierMock, times(4)).get();
+        verify(waitStrategyMock, times(3)).runWait();
+    }
+
+    @Test
+    public void shouldNotRetryWhenSupplierThrowsGivenRetryOnExceptionIsOff() throws Exception {
+        given(otherSupplierMock.get())
+                .willThrow(new RuntimeException("Supplier failed"));
+
+        assertFalse(eventuallyAll(configBuilder).matches(
+                condition(supplierMock, is(2))
+                        .and(otherSupplierMock, is("d"))));
+
+        verify(supplierMock, times(1)).get();
+        verify(waitStrategyMock, times(0)).runWait();
+    }
+
+    @Test
+    public void shouldForgetThePreviousRunWhenReused() {
+        Matcher<Conditions> sut = eventuallyAll(configBuilder);
+        assertTrue(sut.matches(condition(supplierMock, is(2))));
+        given(otherSupplierMock.get())
+                .willThrow(new RuntimeException("Supplier failed"));
+
+        try {
+            assertThat(condition(otherSupplierMock, is("a")), sut);
+            fail("expected to fail");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), Matchers.startsWith("\nExpected: all of the conditions to *eventually* match within 49ms\n" +
+                    "     but: An exception was thrown while retrieving the actual value\n" +
+                    "          Condition 1 of 1, supplied value to match is \"a\": NOT MATCHED\n"));
+        }
+        verify(supplierMock, times(2)).get();
+    }
+
+    @Test
+    public void shouldReportWhichConditionsNeverMatched() {
+        try {
+            assertThat(condition(supplierMock, is(2))
+                            .and(otherSupplierMock, is("z")),
+                    eventuallyAll(configBuilder));
+            fail("expected to fail");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), equalTo("\nExpected: all of the conditions to *eventually* match within 49ms\n" +
+                    "     but: The timeout was reached and not all of the conditions matched\n" +
+                    "          Condition 1 of 2, supplied value to match is <2>: MATCHED\n" +
+                    "          Actual values (in order of appearance):\n" +
+                    "           - <1>\n" +
+                    "           - MATCH!\n" +
+                    "          Condition 2 of 2, supplied value to match is \"z\": NOT MATCHED\n" +
+                    "          Actual values (in order of appearance):\n" +
+                    "           - \"a\"\n" +
+                    "           - \"b\"\n" +
+                    "           - \"c\"\n" +
+                    "           - \"d\"\n" +
+                    "           - \"e\""));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package me.alb_i986.testing.assertions.retry;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+
+public class PreparedAssertionTest {
+
+    private final RetryConfig config = new RetryConfigBuilder()
+            .timeoutAfter(Duration.ofMillis(30))
+            .sleepForMillis(5)
+            .doNotRetryOnException()
+            .build();
+
+    private final PreparedAssertion<String> sut = PreparedAssertion.eventually(is("a"), is("z"), config);
+
+    @Test
+    public void reportsOnlyTheValuesOfTheLastRun() {
+        sut.assertThat(() -> "a");
+
+        try {
+            sut.assertThat(() -> "z");
+            fail("expected to fail");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), equalTo(System.lineSeparator()
+                    + "Expected: supplied value to *eventually* match is \"a\" within 30ms, unless it matches is \"z\""
+                    + System.lineSeparator()
+                    + "     but: The abort condition was met by an actual value, hence it will never match: \"z\""
+                    + System.lineSeparator()
+                    + "          Actual values (in order of appearance):"
+                    + System.lineSeparator()
+                    + "           - \"z\" (ABORT!)"));
+        }
+
+        sut.assertThat(() -> "a");
+    }
+
+    @Test
+    public void attachesTheExceptionsThrownByTheSupplier() {
+        IllegalStateException thrown = new IllegalStateException("broken");
+
+        try {
+            sut.assertThat(() -> {
+                throw thrown;
+            });
+            fail("expected to fail");
+        } catch (AssertionError e) {
+            assertThat(e.getSuppressed(), arrayContaining(thrown));
+        }
+    }
+
+    @Test
+    public void canBeRunByManyThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> assertions = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                AtomicInteger counter = new AtomicInteger();
+                assertions.add(executor.submit(() -> sut.assertThat(() -> counter.incrementAndGet() < 3 ? "b" : "a")));
+            }
+            for (Future<?> assertion : assertions) {
+                assertion.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
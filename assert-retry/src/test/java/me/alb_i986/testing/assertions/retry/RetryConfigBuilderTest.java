@@ -49,4 +49,44 @@ public class RetryConfigBuilderTest {
             assertThat(e.getMessage(), containsString("exception"));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void cantBuildConfigPrefetchingInVirtualTime() {
+        try {
+            sut.timeoutAfter(Duration.ofSeconds(1))
+                    .sleepForMillis(10)
+                    .doNotRetryOnException()
+                    .virtualTime(new VirtualTimeScheduler())
+                    .prefetch(1)
+                    .build();
+            fail("exception expected");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), containsString("virtual time"));
+        }
+    }
+
+    @Test
+    public void cantBuildConfigPrefetchingWithVersionProbe() {
+        try {
+            sut.timeoutAfter(Duration.ofSeconds(1))
+                    .sleepForMillis(10)
+                    .doNotRetryOnException()
+                    .fetchOnlyWhenChanged(() -> 1)
+                    .prefetch(1)
+                    .build();
+            fail("exception expected");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), containsString("version probe"));
+        }
+    }
+
+    @Test
+    public void cantFailWhenStalledForANonPositiveWindow() {
+        try {
+            sut.failWhenStalled(Duration.ZERO);
+            fail("exception expected");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), containsString("stall window"));
+        }
+    }
+}
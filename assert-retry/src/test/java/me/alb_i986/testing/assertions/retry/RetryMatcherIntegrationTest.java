@@ -0,0 +1,666 @@
+package me.alb_i986.testing.assertions.retry;
+
+import me.alb_i986.testing.assertions.retry.core.CancellationToken;
+import me.alb_i986.testing.assertions.retry.internal.Timeout;
+import org.hamcrest.Matcher;
+import org.hamcrest.Matchers;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testing the integration with {@link org.hamcrest.MatcherAssert#assertThat(Object, Matcher)}.
+ * <p>
+ * Still mocking the clock not to get flaky tests.
+ */
+public class RetryMatcherIntegrationTest {
+
+    @Rule
+    public MockitoRule rule = MockitoJUnit.rule();
+
+    @Mock
+    private Clock clockMock;
+
+    private Timeout timeoutWithMockedClock;
+
+    @Mock
+    private Supplier<String> supplierMock;
+    @Mock
+    private Supplier<List<String>> listSupplierMock;
+    @Mock
+    private Supplier<String[]> arraySupplierMock;
+
+    private RetryConfigBuilder configBuilder;
+
+    @Before
+    public void setUp() {
+        given(clockMock.instant())
+                .willReturn(Instant.EPOCH)
+                .willReturn(Instant.EPOCH.plusMillis(10))
+                .willReturn(Instant.EPOCH.plusMillis(20))
+                .willReturn(Instant.EPOCH.plusMillis(30))
+                .willReturn(Instant.EPOCH.plusMillis(40))
+                .willReturn(Instant.EPOCH.plusMillis(50));
+
+        timeoutWithMockedClock = new Timeout(Duration.ofMillis(49), clockMock);
+
+        configBuilder = RetryConfig.builder()
+                .timeout(timeoutWithMockedClock)
+                .sleepForMillis(1)
+                .doNotRetryOnException();
+    }
+
+    @Test
+    public void supplierEventuallyReturnsMatchingValueWithinTimeout() {
+        given(supplierMock.get())
+                .willReturn("a")
+                .willReturn("b")
+                .willReturn("c")
+                .willReturn("d")
+                .willReturn("e")
+                .willReturn("f");
+
+        assertThat(supplierMock, RetryMatcher.eventually(
+                containsString("e"),
+                configBuilder
+        ));
+    }
+
+    @Test
+    public void supplierDoesNotMatchWithinTimeout() {
+        given(supplierMock.get())
+                .willReturn("a")
+                .willReturn("b")
+                .willReturn("c")
+                .willReturn("d")
+                .willReturn("e")
+                .willReturn("f");
+
+
+        try {
+            assertThat(supplierMock, RetryMatcher.eventually(
+                    containsString("f"),
+                    configBuilder
+            ));
+            fail("expected to fail");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), equalTo("\nExpected: supplied value to *eventually* match a string containing \"f\" within 49ms\n" +
+                    "     but: The timeout was reached and none of the actual values matched\n" +
+                    "          Actual values (in order of appearance):\n" +
+                    "           - \"a\"\n" +
+                    "           - \"b\"\n" +
+                    "           - \"c\"\n" +
+                    "           - \"d\"\n" +
+                    "           - \"e\""));
+        }
+    }
+
+    @Test
+    public void supplierThrowsButEventuallyMatches() {
+        given(supplierMock.get())
+                .willThrow(new RuntimeException("Supplier failed"))
+                .willThrow(new RuntimeException("Supplier failed"))
+                .willThrow(new RuntimeException("Supplier failed"))
+                .willThrow(new RuntimeException("Supplier failed"))
+                .willReturn("found");
+
+        assertThat(supplierMock, RetryMatcher.eventually(is("found"),
+                configBuilder
+                        .retryOnException(RuntimeException.class)
+        ));
+    }
+
+    @Test
+    public void supplierThrowsAndEventuallyDoesNotMatch() {
+        given(supplierMock.get())
+                .willThrow(new RuntimeException("Supplier failed"))
+                .willThrow(new RuntimeException("Supplier failed"))
+                .willThrow(new RuntimeException("Supplier failed"))
+                .willReturn("never matching actual");
+
+        try {
+            assertThat(supplierMock, RetryMatcher.eventually(
+                    is("expected value"),
+                    configBuilder.retryOnException(RuntimeException.class)
+            ));
+            fail("exception expected");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), equalTo("\nExpected: supplied value to *eventually* match is \"expected value\" within 49ms\n" +
+                    "     but: The timeout was reached and none of the actual values matched\n" +
+                    "          Actual values (in order of appearance):\n" +
+                    "           - thrown java.lang.RuntimeException: Supplier failed (3 times in a row, attempts 1 to 3)\n" +
+                    "           - \"never matching actual\"\n" +
+                    "           - \"never matching actual\""));
+        }
+    }
+
+    @Test
+    public void supplierThrowsAndRetryOnExceptionIsOff() {
+        given(supplierMock.get())
+                .willReturn("not expected")
+                .willThrow(new RuntimeException("Supplier failed"));
+
+        try {
+            assertThat(supplierMock, RetryMatcher.eventually(
+                    is("expected value"),
+                    configBuilder
+            ));
+            fail("expected to fail");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), equalTo("\nExpected: supplied value to *eventually* match is \"expected value\" within 49ms\n" +
+                    "     but: An exception was thrown while retrieving the actual value\n" +
+                    "          Actual values (in order of appearance):\n" +
+                    "           - \"not expected\"\n" +
+                    "           - thrown java.lang.RuntimeException: Supplier failed"));
+        }
+    }
+
+    @Test
+    public void supplierMatchesTheAbortCondition() {
+        given(supplierMock.get())
+                .willReturn("CREATED")
+                .willReturn("REJECTED")
+                .willReturn("SHIPPED");
+
+        try {
+            assertThat(supplierMock, RetryMatcher.eventually(
+                    is("SHIPPED"),
+                    is("REJECTED"),
+                    configBuilder
+            ));
+            fail("expected to fail");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), equalTo("\nExpected: supplied value to *eventually* match is \"SHIPPED\" within 49ms, unless it matches is \"REJECTED\"\n" +
+                    "     but: The abort condition was met by an actual value, hence it will never match: \"REJECTED\"\n" +
+                    "          Actual values (in order of appearance):\n" +
+                    "           - \"CREATED\"\n" +
+                    "           - \"REJECTED\" (ABORT!)"));
+        }
+        verify(supplierMock, times(2)).get();
+    }
+
+    @Test
+    public void retryIsCancelledWhileSleeping() {
+        CancellationToken cancellation = new CancellationToken();
+        given(supplierMock.get())
+                .willReturn("a")
+                .willReturn("b");
+        new Thread(() -> {
+            sleep(100);
+            cancellation.cancel();
+        }).start();
+
+        long start = System.nanoTime();
+        try {
+            assertThat(supplierMock, RetryMatcher.eventually(
+                    is("b"),
+                    configBuilder.sleepFor(Duration.ofMinutes(1))
+                            .cancelWith(cancellation)
+            ));
+            fail("expected to fail");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), equalTo("\nExpected: supplied value to *eventually* match is \"b\" within 49ms\n" +
+                    "     but: The retry mechanism was cancelled\n" +
+                    "          Actual values (in order of appearance):\n" +
+                    "           - \"a\""));
+        }
+        assertThat(Duration.ofNanos(System.nanoTime() - start), lessThan(Duration.ofSeconds(30)));
+        verify(supplierMock, times(1)).get();
+    }
+
+    @Test
+    public void waitStrategyKeepsThrowing() {
+        given(supplierMock.get())
+                .willReturn("a");
+
+        try {
+            assertThat(supplierMock, RetryMatcher.eventually(
+                    is("b"),
+                    configBuilder.waitStrategy(new BaseWaitStrategy() {
+                        @Override
+                        public void runWait() {
+                            throw new IllegalStateException("broken");
+                        }
+
+                        @Override
+                        public String getDescription() {
+                            return "broken";
+                        }
+                    })
+            ));
+            fail("expected to fail");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), Matchers.endsWith("\n" +
+                    "          Busy-loop guard activated 4 time(s): " +
+                    "the wait strategy threw or returned too early, hence the attempts were slowed down"));
+        }
+        verify(supplierMock, times(5)).get();
+    }
+
+    @Test
+    public void waitStrategyReturningRightAwayIsDetectedByDefault() {
+        given(supplierMock.get())
+                .willReturn("a");
+
+        try {
+            assertThat(supplierMock, RetryMatcher.eventually(
+                    is("b"),
+                    configBuilder.waitStrategy(new BaseWaitStrategy() {
+                        @Override
+                        public void runWait() {
+                            // broken: does not wait at all
+                        }
+
+                        @Override
+                        public String getDescription() {
+                            return "no wait";
+                        }
+                    })
+            ));
+            fail("expected to fail");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), Matchers.endsWith("\n" +
+                    "          Busy-loop guard activated 4 time(s): " +
+                    "the wait strategy threw or returned too early, hence the attempts were slowed down"));
+        }
+        verify(supplierMock, times(5)).get();
+    }
+
+    @Test
+    public void costsOfTheAttemptsAreMeasured() {
+        given(supplierMock.get())
+                .willAnswer(invocation -> String.valueOf(new char[100_000]).replace('\0', 'x'));
+        AttemptCosts costs = new AttemptCosts();
+
+        try {
+            assertThat(supplierMock, RetryMatcher.eventually(
+                    is("b"),
+                    configBuilder.measureAttemptCosts(costs)
+            ));
+            fail("expected to fail");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), containsString("\n          Cost of the 5 attempts: CPU time "));
+        }
+        assertEquals(5, costs.getAttempts());
+        if (costs.isAllocatedBytesSupported()) {
+            assertThat(costs.getMaxAllocatedBytes(), greaterThanOrEqualTo(100_000L));
+            assertThat(costs.getTotalAllocatedBytes(), greaterThanOrEqualTo(5 * 100_000L));
+        }
+        if (costs.isCpuTimeSupported()) {
+            assertThat(costs.getTotalCpuNanos(), greaterThanOrEqualTo(costs.getMaxCpuNanos()));
+        }
+    }
+
+    @Test
+    public void exceptionsThrownMoreThanOnceAreGroupedBySignature() {
+        RuntimeException exception = new RuntimeException("Supplier failed");
+        given(supplierMock.get())
+                .willThrow(exception)
+                .willReturn("a")
+                .willThrow(exception)
+                .willThrow(exception)
+                .willReturn("b");
+
+        try {
+            assertThat(supplierMock, RetryMatcher.eventually(
+                    is("c"),
+                    configBuilder.retryOnException(RuntimeException.class)
+            ));
+            fail("exception expected");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), equalTo("\nExpected: supplied value to *eventually* match is \"c\" within 49ms\n" +
+                    "     but: The timeout was reached and none of the actual values matched\n" +
+                    "          Actual values (in order of appearance):\n" +
+                    "           - thrown java.lang.RuntimeException: Supplier failed\n" +
+                    "           - \"a\"\n" +
+                    "           - thrown java.lang.RuntimeException: Supplier failed (2 times in a row, attempts 3 to 4)\n" +
+                    "           - \"b\"\n" +
+                    "          Exceptions thrown more than once:\n" +
+                    "           - java.lang.RuntimeException: Supplier failed, at " + exception.getStackTrace()[0]
+                    + ": 3 times, from attempt 1 to attempt 4"));
+        }
+    }
+
+    @Test
+    public void supplierIsCalledOnlyWhenTheVersionChanges() {
+        given(supplierMock.get())
+                .willReturn("a")
+                .willReturn("b");
+        @SuppressWarnings("unchecked")
+        Supplier<Integer> versionProbeMock = mock(Supplier.class);
+        given(versionProbeMock.get())
+                .willReturn(1)
+                .willReturn(1)
+                .willReturn(2)
+                .willReturn(2)
+                .willReturn(2);
+
+        try {
+            assertThat(supplierMock, RetryMatcher.eventually(
+                    is("c"),
+                    configBuilder.fetchOnlyWhenChanged(versionProbeMock)
+            ));
+            fail("expected to fail");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), equalTo("\nExpected: supplied value to *eventually* match is \"c\" within 49ms\n" +
+                    "     but: The timeout was reached and none of the actual values matched\n" +
+                    "          Actual values (in order of appearance):\n" +
+                    "           - \"a\"\n" +
+                    "           - unchanged\n" +
+                    "           - \"b\"\n" +
+                    "           - unchanged\n" +
+                    "           - unchanged"));
+        }
+        verify(supplierMock, times(2)).get();
+    }
+
+    @Test
+    public void failsEarlyWhenTheValuesStall() {
+        @SuppressWarnings("unchecked")
+        Supplier<Integer> rowCountSupplierMock = mock(Supplier.class);
+        given(rowCountSupplierMock.get())
+                .willReturn(1)
+                .willReturn(2)
+                .willReturn(2);
+        Clock tickingClockMock = mock(Clock.class);
+        AtomicInteger ticks = new AtomicInteger();
+        given(tickingClockMock.instant())
+                .willAnswer(invocation -> Instant.EPOCH.plusMillis(10L * ticks.getAndIncrement()));
+
+        try {
+            assertThat(rowCountSupplierMock, RetryMatcher.eventually(
+                    is(10),
+                    RetryConfig.builder()
+                            .timeout(new Timeout(Duration.ofSeconds(1), tickingClockMock))
+                            .sleepForMillis(1)
+                            .doNotRetryOnException()
+                            .failWhenStalled(Duration.ofMillis(35))
+            ));
+            fail("expected to fail");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), equalTo("\nExpected: supplied value to *eventually* match is <10> within 1s, or fail if stalled for 35ms\n" +
+                    "     but: The actual values stopped making progress, hence the retry mechanism was stopped before the timeout\n" +
+                    "          Actual values (in order of appearance):\n" +
+                    "           - <1>\n" +
+                    "           - <2>\n" +
+                    "           - <2>"));
+        }
+    }
+
+    @Test
+    public void failWhenStalledRejectsValuesWhichAreNotComparable() {
+        @SuppressWarnings("unchecked")
+        Supplier<Object> supplierOfObjectsMock = mock(Supplier.class);
+        given(supplierOfObjectsMock.get()).willReturn(new Object());
+
+        try {
+            assertThat(supplierOfObjectsMock, RetryMatcher.eventually(
+                    nullValue(),
+                    configBuilder.failWhenStalled(Duration.ofSeconds(1))
+            ));
+            fail("expected to fail");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), containsString("java.lang.Object is not"));
+        }
+    }
+
+    @Test
+    public void valuesAreReportedByTheirDiffs() {
+        given(listSupplierMock.get())
+                .willReturn(Arrays.asList("a", "b"))
+                .willReturn(Arrays.asList("a", "b", "c"))
+                .willThrow(new RuntimeException("Supplier failed"))
+                .willReturn(Arrays.asList("a", "b", "c"))
+                .willReturn(Arrays.asList("a", "x", "c"));
+
+        try {
+            assertThat(listSupplierMock, RetryMatcher.eventually(
+                    hasItem("d"),
+                    RetryConfig.builder()
+                            .timeout(timeoutWithMockedClock)
+                            .sleepForMillis(1)
+                            .retryOnException(RuntimeException.class)
+                            .reportDiffs()
+            ));
+            fail("expected to fail");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), equalTo("\nExpected: supplied value to *eventually* match a collection containing \"d\" within 49ms\n" +
+                    "     but: The timeout was reached and none of the actual values matched\n" +
+                    "          Actual values (in order of appearance):\n" +
+                    "           - <[a, b]>\n" +
+                    "           - diff: at index 2, added [\"c\"]\n" +
+                    "           - thrown java.lang.RuntimeException: Supplier failed\n" +
+                    "           - diff: none\n" +
+                    "           - diff: at index 1, removed [\"b\"], added [\"x\"]"));
+        }
+    }
+
+    @Test
+    public void valuesArePrefetched() {
+        given(supplierMock.get())
+                .willReturn("a")
+                .willThrow(new RuntimeException("Supplier failed"))
+                .willReturn("b")
+                .willReturn("c");
+
+        try {
+            assertThat(supplierMock, RetryMatcher.eventually(
+                    is("d"),
+                    RetryConfig.builder()
+                            .timeout(timeoutWithMockedClock)
+                            .sleepForMillis(1)
+                            .retryOnException(RuntimeException.class)
+                            .prefetch(2)
+            ));
+            fail("expected to fail");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), equalTo("\nExpected: supplied value to *eventually* match is \"d\" within 49ms\n" +
+                    "     but: The timeout was reached and none of the actual values matched\n" +
+                    "          Actual values (in order of appearance):\n" +
+                    "           - \"a\"\n" +
+                    "           - thrown java.lang.RuntimeException: Supplier failed\n" +
+                    "           - \"b\"\n" +
+                    "           - \"c\"\n" +
+                    "           - \"c\""));
+        }
+    }
+
+    @Test
+    public void costsOfThePrefetchedAttemptsIncludeTheCallsToTheSupplier() {
+        given(supplierMock.get())
+                .willAnswer(invocation -> String.valueOf(new char[100_000]).replace('\0', 'x'));
+        AttemptCosts costs = new AttemptCosts();
+
+        try {
+            assertThat(supplierMock, RetryMatcher.eventually(
+                    is("b"),
+                    configBuilder.prefetch(1)
+                            .measureAttemptCosts(costs)
+            ));
+            fail("expected to fail");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), containsString("\n          Cost of the 5 attempts: CPU time "));
+        }
+        if (costs.isAllocatedBytesSupported()) {
+            assertThat(costs.getMaxAllocatedBytes(), greaterThanOrEqualTo(100_000L));
+        }
+    }
+
+    @Test
+    public void busyLoopGuardActivationsOfThePrefetcherAreReported() {
+        given(supplierMock.get())
+                .willReturn("a");
+
+        try {
+            assertThat(supplierMock, RetryMatcher.eventually(
+                    is("b"),
+                    configBuilder.prefetch(1)
+                            .waitStrategy(new BaseWaitStrategy() {
+                                @Override
+                                public void runWait() {
+                                    throw new IllegalStateException("broken");
+                                }
+
+                                @Override
+                                public String getDescription() {
+                                    return "broken";
+                                }
+                            })
+            ));
+            fail("expected to fail");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), containsString("\n          Busy-loop guard activated "));
+        }
+    }
+
+    @Test
+    public void threadIsInterrupted() {
+        given(supplierMock.get())
+                .willAnswer(invocation -> {
+                    Thread.currentThread().interrupt();
+                    return "a";
+                })
+                .willReturn("b");
+
+        try {
+            assertThat(supplierMock, RetryMatcher.eventually(
+                    is("b"),
+                    configBuilder
+            ));
+            fail("expected to fail");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), equalTo("\nExpected: supplied value to *eventually* match is \"b\" within 49ms\n" +
+                    "     but: The thread was interrupted, hence the retry mechanism was stopped\n" +
+                    "          Actual values (in order of appearance):\n" +
+                    "           - \"a\""));
+        } finally {
+            assertTrue("the interrupt status should be preserved", Thread.interrupted());
+        }
+        verify(supplierMock, times(1)).get();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Testing more real life Matcher's...
+
+    @Test
+    public void hasSize() {
+        given(listSupplierMock.get())
+                .willReturn(Arrays.asList("a", "b", "c"))
+                .willReturn(Arrays.asList("a"))
+                .willReturn(Arrays.asList("b", "a"));
+
+        assertThat(listSupplierMock, RetryMatcher.eventually(
+                Matchers.hasSize(2),
+                configBuilder
+        ));
+
+        verify(listSupplierMock, times(3)).get();
+    }
+
+    @Test
+    public void containsInAnyOrder() {
+        given(listSupplierMock.get())
+                .willReturn(Arrays.asList("a", "b", "c"))
+                .willReturn(Arrays.asList("a"))
+                .willReturn(Arrays.asList("b", "a"));
+
+        assertThat(listSupplierMock, RetryMatcher.eventually(
+                Matchers.containsInAnyOrder("a", "b"),
+                configBuilder
+        ));
+
+        verify(listSupplierMock, times(3)).get();
+    }
+
+    @Test
+    public void arrayContainingInAnyOrder() {
+        given(arraySupplierMock.get())
+                .willReturn(new String[]{"a", "b", "c"})
+                .willReturn(new String[]{"a"})
+                .willReturn(new String[]{"p", "a"});
+
+        assertThat(arraySupplierMock, RetryMatcher.eventually(
+                Matchers.arrayContainingInAnyOrder("a", "p"),
+                configBuilder
+        ));
+
+        verify(arraySupplierMock, times(3)).get();
+    }
+
+    @Test
+    public void emptyIterable() {
+        given(listSupplierMock.get())
+                .willReturn(Arrays.asList("a", "b", "c"))
+                .willReturn(Arrays.asList("a"))
+                .willReturn(Collections.emptyList());
+
+        assertThat(listSupplierMock, RetryMatcher.eventually(
+                Matchers.emptyIterable(),
+                configBuilder
+        ));
+
+        verify(listSupplierMock, times(3)).get();
+    }
+
+    @Test
+    public void emptyArray() {
+        given(arraySupplierMock.get())
+                .willReturn(new String[]{"a", "b", "c"})
+                .willReturn(new String[]{"a"})
+                .willReturn(new String[]{});
+
+        assertThat(arraySupplierMock, RetryMatcher.eventually(
+                Matchers.emptyArray(),
+                configBuilder
+        ));
+
+        verify(arraySupplierMock, times(3)).get();
+    }
+
+    @Test
+    public void instanceOf() {
+        Supplier<Object> supplierMock = Mockito.mock(Supplier.class);
+        given(supplierMock.get())
+                .willReturn(new Pippo())
+                .willReturn(new Pluto())
+                .willReturn(new Topolino());
+
+        assertThat(supplierMock, RetryMatcher.eventually(
+                Matchers.instanceOf(Topolino.class),
+                configBuilder
+        ));
+
+        verify(supplierMock, times(3)).get();
+    }
+
+    private interface Personaggio {}
+    private static class Pippo implements Personaggio {}
+    private static class Pluto implements Personaggio {}
+    private static class Topolino implements Personaggio {}
+}
\ No newline at end of file
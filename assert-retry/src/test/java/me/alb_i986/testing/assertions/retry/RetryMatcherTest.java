@@ -205,4 +205,38 @@ public class RetryMatcherTest {
 
         verify(waitStrategyMock, times(1)).runWait();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldStopRetryingWhenSupplierMatchesTheAbortCondition() throws Exception {
+        RetryConfig config = new RetryConfigBuilder()
+                .timeout(timeoutWithMockedClock)
+                .waitStrategy(waitStrategyMock)
+                .doNotRetryOnException()
+                .build();
+
+        RetryMatcher<Integer> sut = new RetryMatcher<>(is(5), is(3), config);
+
+        // when
+        assertFalse(sut.matches(supplierMock));
+
+        verify(supplierMock, times(3)).get();
+        verify(waitStrategyMock, times(2)).runWait();
+    }
+
+    @Test
+    public void shouldMatchWhenSupplierMatchesBeforeTheAbortCondition() throws Exception {
+        RetryConfig config = new RetryConfigBuilder()
+                .timeout(timeoutWithMockedClock)
+                .waitStrategy(waitStrategyMock)
+                .doNotRetryOnException()
+                .build();
+
+        RetryMatcher<Integer> sut = new RetryMatcher<>(is(2), greaterThan(2), config);
+
+        // when
+        assertTrue(sut.matches(supplierMock));
+
+        verify(supplierMock, times(2)).get();
+        verify(waitStrategyMock, times(1)).runWait();
+    }
+}
@@ -0,0 +1,181 @@
+package me.alb_i986.testing.assertions.retry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class SharedPollCacheTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private Path file;
+    private SharedPollCache sut;
+
+    @Before
+    public void setUp() throws IOException {
+        file = tmp.getRoot().toPath().resolve("poll-cache");
+        sut = SharedPollCache.open(file, 8, 256);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        sut.close();
+    }
+
+    @Test
+    public void freshValuesAreReused() {
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<String> cached = sut.cached("health", Duration.ofMinutes(1), () -> "UP " + calls.incrementAndGet());
+
+        assertEquals("UP 1", cached.get());
+        assertEquals("UP 1", cached.get());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void staleValuesAreNotReused() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<String> cached = sut.cached("health", Duration.ofMillis(1), () -> "UP " + calls.incrementAndGet());
+
+        assertEquals("UP 1", cached.get());
+        Thread.sleep(10);
+        assertEquals("UP 2", cached.get());
+    }
+
+    @Test
+    public void keysDoNotCollide() {
+        for (int i = 0; i < 8; i++) {
+            String value = "value " + i;
+            assertEquals(value, sut.cached("key " + i, Duration.ofMinutes(1), () -> value).get());
+        }
+        for (int i = 0; i < 8; i++) {
+            assertEquals("value " + i, sut.cached("key " + i, Duration.ofMinutes(1), SharedPollCacheTest::notToBeCalled).get());
+        }
+    }
+
+    @Test
+    public void exceptionsAreNotCached() {
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<String> cached = sut.cached("health", Duration.ofMinutes(1), () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("connection refused");
+            }
+            return "UP";
+        });
+
+        try {
+            cached.get();
+            fail("expected to throw");
+        } catch (IllegalStateException expected) {
+        }
+        assertEquals("UP", cached.get());
+        assertEquals("UP", cached.get());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void valuesTooLargeAreNotCached() {
+        AtomicInteger calls = new AtomicInteger();
+        String large = String.valueOf(new char[200]).replace('\0', 'x');
+        Supplier<String> cached = sut.cached("large", Duration.ofMinutes(1), () -> {
+            calls.incrementAndGet();
+            return large;
+        });
+
+        cached.get();
+        cached.get();
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void valuesWhichCannotBeDecodedAreNotReused() {
+        sut.cached("health", Duration.ofMinutes(1), () -> "UP").get();
+        Supplier<Integer> cached = sut.cached("health", Duration.ofMinutes(1), () -> 42,
+                value -> new byte[]{value.byteValue()},
+                bytes -> {
+                    throw new IllegalArgumentException("Not a number: " + bytes.length + " bytes");
+                });
+
+        assertEquals(Integer.valueOf(42), cached.get());
+    }
+
+    @Test
+    public void supplierIsCalledOnceClosed() throws IOException {
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<String> cached = sut.cached("health", Duration.ofMinutes(1), () -> "UP " + calls.incrementAndGet());
+        sut.close();
+
+        assertEquals("UP 1", cached.get());
+        assertEquals("UP 2", cached.get());
+    }
+
+    @Test
+    public void valuesAreSharedAcrossInstances() throws IOException {
+        sut.cached("health", Duration.ofMinutes(1), () -> "UP").get();
+
+        try (SharedPollCache other = SharedPollCache.open(file, 8, 256)) {
+            assertEquals("UP", other.cached("health", Duration.ofMinutes(1), SharedPollCacheTest::notToBeCalled).get());
+        }
+    }
+
+    @Test
+    public void valuesAreSharedAcrossJvms() throws Exception {
+        Process process = new ProcessBuilder(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                SharedPollCacheTest.class.getName(), file.toString(), "health", "UP from another JVM")
+                .redirectErrorStream(true)
+                .redirectOutput(new File(tmp.getRoot(), "child.log"))
+                .start();
+        assertTrue(process.waitFor(30, TimeUnit.SECONDS));
+        assertEquals(0, process.exitValue());
+
+        assertEquals("UP from another JVM",
+                sut.cached("health", Duration.ofMinutes(1), SharedPollCacheTest::notToBeCalled).get());
+    }
+
+    @Test
+    public void cacheWithDifferentSlotsCannotBeOpened() {
+        try {
+            SharedPollCache.open(file, 16, 256);
+            fail("expected to throw");
+        } catch (IOException e) {
+            assertThat(e.getMessage(), startsWith("Not a poll cache with 16 slots of 256 bytes"));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void keyTooLong() {
+        sut.cached(String.valueOf(new char[SharedPollCache.MAX_KEY_BYTES + 1]), Duration.ZERO, () -> "");
+    }
+
+    /**
+     * Publishes a value, as another fork of the test suite would.
+     */
+    public static void main(String[] args) throws IOException {
+        try (SharedPollCache cache = SharedPollCache.open(Paths.get(args[0]), 8, 256)) {
+            cache.cached(args[1], Duration.ZERO, () -> args[2]).get();
+        }
+    }
+
+    private static String notToBeCalled() {
+        throw new AssertionError("the supplier should not be called");
+    }
+}
@@ -0,0 +1,172 @@
+package me.alb_i986.testing.assertions.retry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static me.alb_i986.testing.assertions.retry.RetryMatcher.eventually;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.fail;
+
+public class SocketReadinessTest {
+
+    private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(2);
+
+    private SocketReadiness sut;
+    private final List<ServerSocket> servers = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        sut = SocketReadiness.open();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        executor.shutdownNow();
+        sut.close();
+        for (ServerSocket server : servers) {
+            server.close();
+        }
+    }
+
+    @Test
+    public void shouldWakeUpAsSoonAsTheServerStartsListening() throws Exception {
+        int port = freePort();
+        SocketReadiness.Probe probe = sut.probe(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        executor.schedule(() -> listen(port), 200, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        assertThat(probe::isConnected, eventually(is(true), RetryConfig.builder()
+                .timeoutAfter(Duration.ofSeconds(30))
+                .waitForReadinessOf(probe, Duration.ofSeconds(20))
+                .doNotRetryOnException()));
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), lessThan(15_000L));
+    }
+
+    @Test
+    public void shouldWakeUpAsSoonAsTheServerSendsData() throws Exception {
+        ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        servers.add(server);
+        SocketReadiness.Probe probe = sut.probe(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getLocalPort()));
+        executor.submit(() -> {
+            try (Socket socket = server.accept(); OutputStream out = socket.getOutputStream()) {
+                Thread.sleep(200);
+                out.write("starting\n".getBytes(StandardCharsets.UTF_8));
+                Thread.sleep(100);
+                out.write("READY\n".getBytes(StandardCharsets.UTF_8));
+                Thread.sleep(1000);
+            }
+            return null;
+        });
+
+        long start = System.nanoTime();
+        assertThat(() -> probe.getReceived(StandardCharsets.UTF_8), eventually(containsString("READY"), RetryConfig.builder()
+                .timeoutAfter(Duration.ofSeconds(30))
+                .waitForReadinessOf(probe, Duration.ofSeconds(20))
+                .doNotRetryOnException()));
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), lessThan(15_000L));
+    }
+
+    @Test
+    public void busyLoopGuardShouldNotActivateWhileTheServerKeepsSendingData() throws Exception {
+        ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        servers.add(server);
+        SocketReadiness.Probe probe = sut.probe(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getLocalPort()));
+        executor.submit(() -> {
+            try (Socket socket = server.accept(); OutputStream out = socket.getOutputStream()) {
+                while (!Thread.currentThread().isInterrupted()) {
+                    out.write("tick\n".getBytes(StandardCharsets.UTF_8));
+                    Thread.sleep(1);
+                }
+            }
+            return null;
+        });
+
+        try {
+            assertThat(() -> probe.getReceived(StandardCharsets.UTF_8), eventually(containsString("READY"),
+                    RetryConfig.builder()
+                            .timeoutAfter(Duration.ofMillis(500))
+                            .waitForReadinessOf(probe, Duration.ofSeconds(20))
+                            .doNotRetryOnException()));
+            fail("expected to fail");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), not(containsString("Busy-loop guard")));
+        }
+    }
+
+    @Test
+    public void oneThreadShouldServeConcurrentAssertions() throws Exception {
+        int port1 = freePort();
+        int port2 = freePort();
+        SocketReadiness.Probe probe1 = sut.probe(new InetSocketAddress(InetAddress.getLoopbackAddress(), port1));
+        SocketReadiness.Probe probe2 = sut.probe(new InetSocketAddress(InetAddress.getLoopbackAddress(), port2));
+        executor.schedule(() -> listen(port1), 100, TimeUnit.MILLISECONDS);
+        executor.schedule(() -> listen(port2), 200, TimeUnit.MILLISECONDS);
+
+        CompletableFuture<Void> assertion1 = CompletableFuture.runAsync(() -> assertConnected(probe1));
+        CompletableFuture<Void> assertion2 = CompletableFuture.runAsync(() -> assertConnected(probe2));
+
+        CompletableFuture.allOf(assertion1, assertion2).get(15, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void shouldWaitForTheFallbackTimeoutWhenNothingHappens() throws Exception {
+        SocketReadiness.Probe probe = sut.probe(new InetSocketAddress(InetAddress.getLoopbackAddress(), freePort()));
+        WaitStrategy waitStrategy = probe.waitStrategy(Duration.ofMillis(300));
+        waitStrategy.reset();
+
+        long start = System.nanoTime();
+        waitStrategy.runWait();
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), greaterThanOrEqualTo(300L));
+        assertThat(probe.isConnected(), is(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositiveFallback() {
+        sut.probe(new InetSocketAddress(InetAddress.getLoopbackAddress(), 1)).waitStrategy(Duration.ZERO);
+    }
+
+    private void assertConnected(SocketReadiness.Probe probe) {
+        assertThat(probe::isConnected, eventually(is(true), RetryConfig.builder()
+                .timeoutAfter(Duration.ofSeconds(10))
+                .waitForReadinessOf(probe, Duration.ofSeconds(20))
+                .doNotRetryOnException()));
+    }
+
+    private void listen(int port) {
+        try {
+            servers.add(new ServerSocket(port, 50, InetAddress.getLoopbackAddress()));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            return socket.getLocalPort();
+        }
+    }
+}
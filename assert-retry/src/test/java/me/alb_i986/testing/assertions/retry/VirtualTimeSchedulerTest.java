@@ -0,0 +1,138 @@
+package me.alb_i986.testing.assertions.retry;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static me.alb_i986.testing.assertions.retry.ConsistentlyMatcher.consistently;
+import static me.alb_i986.testing.assertions.retry.RetryMatcher.eventually;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class VirtualTimeSchedulerTest {
+
+    private final VirtualTimeScheduler sut = new VirtualTimeScheduler();
+
+    @Test
+    public void shouldTimeoutWithoutActuallyWaiting() {
+        AtomicInteger attempts = new AtomicInteger();
+        Supplier<Integer> supplier = attempts::incrementAndGet;
+        long start = System.nanoTime();
+
+        assertFalse(eventually(is(-1), RetryConfig.builder()
+                .virtualTime(sut)
+                .timeoutAfter(Duration.ofMinutes(1))
+                .sleepFor(Duration.ofSeconds(5))
+                .doNotRetryOnException()
+        ).matches(supplier));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start), lessThan(Duration.ofSeconds(5)));
+        assertThat(attempts.get(), is(14)); // at 0s, 5s, ..., 60s, and finally at 65s, when the timeout has expired
+        assertThat(sut.now(), is(Instant.EPOCH.plusSeconds(65)));
+    }
+
+    @Test
+    public void shouldMatchAsSoonAsTheVirtualTimeHasCome() {
+        Supplier<Instant> now = sut::now;
+
+        assertThat(now, eventually(greaterThanOrEqualTo(Instant.EPOCH.plusSeconds(25)), RetryConfig.builder()
+                .sleepFor(Duration.ofSeconds(10))
+                .timeoutAfter(Duration.ofMinutes(1))
+                .virtualTime(sut)
+                .doNotRetryOnException()
+        ));
+
+        assertThat(sut.now(), is(Instant.EPOCH.plusSeconds(30)));
+    }
+
+    @Test
+    public void consistentlyShouldEndExactlyAtTheEndOfTheWindow() {
+        Supplier<Instant> now = sut::now;
+
+        assertThat(now, consistently(lessThanOrEqualTo(Instant.EPOCH.plusSeconds(25)), RetryConfig.builder()
+                .virtualTime(sut)
+                .timeoutAfter(Duration.ofSeconds(25))
+                .sleepFor(Duration.ofSeconds(10))
+                .doNotRetryOnException()
+        ));
+
+        assertThat(sut.now(), is(Instant.EPOCH.plusSeconds(25)));
+    }
+
+    @Test
+    public void shouldNotAdvanceWhileALoopIsBusy() throws Exception {
+        CountDownLatch busyLoopEntered = new CountDownLatch(1);
+        CountDownLatch busyLoopReleased = new CountDownLatch(1);
+        AtomicReference<Instant> busyLastSeen = new AtomicReference<>();
+        Supplier<Instant> blockingAtFirst = () -> {
+            if (busyLoopEntered.getCount() > 0) {
+                busyLoopEntered.countDown();
+                await(busyLoopReleased);
+            }
+            busyLastSeen.set(sut.now());
+            return busyLastSeen.get();
+        };
+        CompletableFuture<Instant> busy = CompletableFuture.supplyAsync(() -> {
+            assertThat(blockingAtFirst, eventually(greaterThanOrEqualTo(Instant.EPOCH.plusSeconds(40)), RetryConfig.builder()
+                    .virtualTime(sut)
+                    .timeoutAfter(Duration.ofMinutes(1))
+                    .sleepFor(Duration.ofSeconds(15))
+                    .doNotRetryOnException()));
+            return busyLastSeen.get();
+        });
+        assertTrue(busyLoopEntered.await(5, TimeUnit.SECONDS));
+
+        CountDownLatch sleepingLoopEntered = new CountDownLatch(1);
+        AtomicReference<Instant> sleepingLastSeen = new AtomicReference<>();
+        Supplier<Instant> now = () -> {
+            sleepingLoopEntered.countDown();
+            sleepingLastSeen.set(sut.now());
+            return sleepingLastSeen.get();
+        };
+        CompletableFuture<Instant> sleeping = CompletableFuture.supplyAsync(() -> {
+            assertThat(now, eventually(greaterThanOrEqualTo(Instant.EPOCH.plusSeconds(30)), RetryConfig.builder()
+                    .virtualTime(sut)
+                    .timeoutAfter(Duration.ofMinutes(1))
+                    .sleepFor(Duration.ofSeconds(10))
+                    .doNotRetryOnException()));
+            return sleepingLastSeen.get();
+        });
+
+        assertTrue(sleepingLoopEntered.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100); // give it time to go to sleep
+        assertThat(sut.now(), is(Instant.EPOCH));
+
+        busyLoopReleased.countDown();
+        assertThat(sleeping.get(5, TimeUnit.SECONDS), is(Instant.EPOCH.plusSeconds(30)));
+        assertThat(busy.get(5, TimeUnit.SECONDS), is(Instant.EPOCH.plusSeconds(45)));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    public void advance() {
+        sut.advance(Duration.ofSeconds(3));
+
+        assertThat(sut.now(), is(Instant.EPOCH.plusSeconds(3)));
+        assertThat(sut.getClock().instant(), is(Instant.EPOCH.plusSeconds(3)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cannotGoBackInTime() {
+        sut.advance(Duration.ofSeconds(-1));
+    }
+}
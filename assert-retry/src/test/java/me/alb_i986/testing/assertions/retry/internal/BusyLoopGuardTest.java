@@ -0,0 +1,144 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import me.alb_i986.testing.assertions.retry.WaitStrategy;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class BusyLoopGuardTest {
+
+    @Rule
+    public MockitoRule rule = MockitoJUnit.rule();
+
+    @Mock
+    private WaitStrategy waitStrategyMock;
+
+    @Mock
+    private Clock clockMock;
+
+    @Mock
+    private SystemSleeper sleeperMock;
+
+    @Test
+    public void shouldNotActivateWhenTheWaitIsLongEnough() throws Exception {
+        given(clockMock.instant())
+                .willReturn(Instant.EPOCH)
+                .willReturn(Instant.EPOCH.plusMillis(10));
+        BusyLoopGuard sut = new BusyLoopGuard(Duration.ofMillis(10), clockMock, sleeperMock);
+
+        sut.runWait(waitStrategyMock, null);
+
+        verify(waitStrategyMock).runWait();
+        verify(sleeperMock, never()).sleep(anyLong());
+        assertEquals(0, sut.getActivations());
+    }
+
+    @Test
+    public void shouldSleepForTheRestOfTheIntervalWhenTheWaitReturnsTooEarly() throws Exception {
+        given(clockMock.instant())
+                .willReturn(Instant.EPOCH)
+                .willReturn(Instant.EPOCH.plusMillis(3));
+        BusyLoopGuard sut = new BusyLoopGuard(Duration.ofMillis(10), clockMock, sleeperMock);
+
+        sut.runWait(waitStrategyMock, null);
+
+        verify(sleeperMock).sleep(7);
+        assertEquals(1, sut.getActivations());
+    }
+
+    @Test
+    public void shouldBackOffExponentiallyWhileTheWaitKeepsThrowing() throws Exception {
+        willThrow(new RuntimeException("dummy exception")).given(waitStrategyMock).runWait();
+        BusyLoopGuard sut = new BusyLoopGuard(Duration.ZERO, clockMock, sleeperMock);
+
+        sut.runWait(waitStrategyMock, null);
+        sut.runWait(waitStrategyMock, null);
+        sut.runWait(waitStrategyMock, null);
+        assertEquals(3, sut.getActivations());
+
+        sut.reset();
+        sut.runWait(waitStrategyMock, null);
+
+        InOrder inOrder = inOrder(sleeperMock);
+        inOrder.verify(sleeperMock).sleep(1);
+        inOrder.verify(sleeperMock).sleep(2);
+        inOrder.verify(sleeperMock).sleep(4);
+        inOrder.verify(sleeperMock).sleep(1);
+        assertEquals(1, sut.getActivations());
+        verify(clockMock, never()).instant();
+    }
+
+    @Test
+    public void shouldNotBackOffForLongerThanTheMaximumGiven() throws Exception {
+        given(clockMock.instant()).willReturn(Instant.EPOCH);
+        BusyLoopGuard sut = new BusyLoopGuard(Duration.ofMillis(100), clockMock, sleeperMock);
+
+        sut.runWait(waitStrategyMock, Duration.ofMillis(30));
+
+        verify(waitStrategyMock).runWait(Duration.ofMillis(30));
+        verify(sleeperMock).sleep(30);
+    }
+
+    @Test
+    public void shouldDeriveTheIntervalFromTheExpectedDurationOfTheWaitByDefault() throws Exception {
+        given(waitStrategyMock.getExpectedDuration()).willReturn(Duration.ofMillis(20));
+        given(clockMock.instant())
+                .willReturn(Instant.EPOCH)
+                .willReturn(Instant.EPOCH.plusMillis(4));
+        BusyLoopGuard sut = new BusyLoopGuard(null, clockMock, sleeperMock);
+
+        sut.runWait(waitStrategyMock, null);
+
+        verify(sleeperMock).sleep(6);
+        assertEquals(1, sut.getActivations());
+    }
+
+    @Test
+    public void shouldDetectAWaitReturningRightAwayByDefaultWhenItsDurationIsUnknown() throws Exception {
+        given(waitStrategyMock.getExpectedDuration()).willReturn(null);
+        given(clockMock.instant())
+                .willReturn(Instant.EPOCH)
+                .willReturn(Instant.EPOCH.plusNanos(1000));
+        BusyLoopGuard sut = new BusyLoopGuard(null, clockMock, sleeperMock);
+
+        sut.runWait(waitStrategyMock, null);
+
+        verify(sleeperMock).sleep(1);
+        assertEquals(1, sut.getActivations());
+    }
+
+    @Test
+    public void shouldNotActivateWhenACancelledWaitEndsEarly() throws Exception {
+        given(clockMock.instant()).willReturn(Instant.EPOCH);
+        given(sleeperMock.isCancelled()).willReturn(true);
+        BusyLoopGuard sut = new BusyLoopGuard(Duration.ofMillis(10), clockMock, sleeperMock);
+
+        sut.runWait(waitStrategyMock, null);
+
+        verify(sleeperMock, never()).sleep(anyLong());
+        assertEquals(0, sut.getActivations());
+    }
+
+    @Test(expected = InterruptedException.class)
+    public void shouldNotBackOffWhenTheWaitIsInterrupted() throws Exception {
+        willThrow(new InterruptedException()).given(waitStrategyMock).runWait();
+        BusyLoopGuard sut = new BusyLoopGuard(Duration.ZERO, clockMock, sleeperMock);
+
+        sut.runWait(waitStrategyMock, null);
+    }
+}
@@ -0,0 +1,81 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    private final LatencyHistogram sut = new LatencyHistogram();
+
+    @Test
+    public void emptyHistogram() {
+        assertEquals(0, sut.getCount());
+        assertEquals(0, sut.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        for (long i = 1; i <= 8; i++) {
+            sut.record(i - 1);
+        }
+
+        assertEquals(8, sut.getCount());
+        assertEquals(3, sut.getValueAtPercentile(50));
+        assertEquals(7, sut.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void percentilesAreAccurateWithinABucket() {
+        for (int i = 1; i <= 1000; i++) {
+            sut.record(Duration.ofMillis(i));
+        }
+
+        assertThat((double) sut.getValueAtPercentile(50), closeTo(Duration.ofMillis(500).toNanos(), Duration.ofMillis(500).toNanos() * 0.125));
+        assertThat((double) sut.getValueAtPercentile(99), closeTo(Duration.ofMillis(990).toNanos(), Duration.ofMillis(990).toNanos() * 0.125));
+        assertThat(sut.getValueAtPercentile(100), is(Duration.ofMillis(1000).toNanos()));
+        assertThat(sut.getMaxNanos(), is(Duration.ofMillis(1000).toNanos()));
+    }
+
+    @Test
+    public void percentileNeverExceedsTheMax() {
+        sut.record(1_000_001);
+
+        assertEquals(1_000_001, sut.getValueAtPercentile(50));
+    }
+
+    @Test
+    public void merge() {
+        LatencyHistogram other = new LatencyHistogram();
+        sut.record(10);
+        other.record(20);
+        other.record(30);
+
+        sut.merge(other);
+
+        assertEquals(3, sut.getCount());
+        assertEquals(30, sut.getMaxNanos());
+        assertEquals(21, sut.getValueAtPercentile(50)); // 20 falls into the bucket [20, 21]
+    }
+
+    @Test
+    public void bucketBoundsAreConsistent() {
+        long[] values = {0, 7, 8, 15, 16, 1000, 123_456_789, Long.MAX_VALUE};
+        for (long value : values) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertThat(LatencyHistogram.bucketUpperBound(index), greaterThanOrEqualTo(value));
+            if (index > 0) {
+                assertThat(LatencyHistogram.bucketUpperBound(index - 1), lessThan(value));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeValue() {
+        sut.record(-1);
+    }
+}
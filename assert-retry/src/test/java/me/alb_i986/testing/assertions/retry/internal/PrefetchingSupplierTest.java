@@ -0,0 +1,155 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PrefetchingSupplierTest {
+
+    @Test
+    public void shouldReturnTheValuesInTheOrderTheyWereSupplied() {
+        AtomicInteger counter = new AtomicInteger();
+
+        try (PrefetchingSupplier<Integer> sut = new PrefetchingSupplier<Integer>(counter::incrementAndGet, 2, () -> {
+        }).start()) {
+            for (int i = 1; i <= 100; i++) {
+                assertEquals(Integer.valueOf(i), sut.get());
+            }
+        }
+    }
+
+    @Test
+    public void shouldRethrowTheExceptionsThrownByTheSupplier() {
+        AtomicInteger counter = new AtomicInteger();
+        Supplier<Integer> throwingAtSecondCall = () -> {
+            if (counter.incrementAndGet() == 2) {
+                throw new IllegalStateException("second");
+            }
+            return counter.get();
+        };
+
+        try (PrefetchingSupplier<Integer> sut = new PrefetchingSupplier<Integer>(throwingAtSecondCall, 1, () -> {
+        }).start()) {
+            assertEquals(Integer.valueOf(1), sut.get());
+            try {
+                sut.get();
+                fail("exception expected");
+            } catch (IllegalStateException e) {
+                assertEquals("second", e.getMessage());
+            }
+            assertEquals(Integer.valueOf(3), sut.get());
+        }
+    }
+
+    @Test
+    public void shouldNotPrefetchMoreThanTheBufferSize() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch bufferFull = new CountDownLatch(4);
+        Supplier<Integer> supplier = () -> {
+            bufferFull.countDown();
+            return calls.incrementAndGet();
+        };
+
+        try (PrefetchingSupplier<Integer> sut = new PrefetchingSupplier<Integer>(supplier, 3, () -> {
+        }).start()) {
+            assertTrue(bufferFull.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100); // give it time to prefetch more, if it would
+            // 3 values in the buffer, plus 1 waiting to be put
+            assertEquals(4, calls.get());
+
+            sut.get();
+            Thread.sleep(100);
+            assertEquals(5, calls.get());
+        }
+    }
+
+    @Test
+    public void shouldStopPrefetchingWhenClosed() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        PrefetchingSupplier<Integer> sut = new PrefetchingSupplier<Integer>(calls::incrementAndGet, 1, () -> {
+        }).start();
+        sut.get();
+
+        sut.close();
+        Thread.sleep(100);
+        int callsAfterClose = calls.get();
+        Thread.sleep(100);
+
+        assertEquals(callsAfterClose, calls.get());
+    }
+
+    @Test
+    public void shouldInterruptTheWaitWhenClosed() throws Exception {
+        CountDownLatch waiting = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        PrefetchingSupplier<Integer> sut = new PrefetchingSupplier<Integer>(() -> 1, 1, () -> {
+            waiting.countDown();
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+        }).start();
+        assertTrue(waiting.await(5, TimeUnit.SECONDS));
+
+        sut.close();
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldLetTheCallInFlightFinishWhenClosed() throws Exception {
+        CountDownLatch calling = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        AtomicInteger interrupts = new AtomicInteger();
+        Supplier<Integer> slowSupplier = () -> {
+            calling.countDown();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                interrupts.incrementAndGet();
+            }
+            finished.countDown();
+            return 1;
+        };
+        PrefetchingSupplier<Integer> sut = new PrefetchingSupplier<Integer>(slowSupplier, 1, () -> {
+        }).start();
+        assertTrue(calling.await(5, TimeUnit.SECONDS));
+
+        sut.close();
+
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertEquals(0, interrupts.get());
+    }
+
+    @Test
+    public void shouldMeasureTheCallsInTheBackground() throws Exception {
+        Supplier<Integer> slowSupplier = () -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 1;
+        };
+
+        try (PrefetchingSupplier<Integer> sut = new PrefetchingSupplier<Integer>(slowSupplier, 1, () -> {
+        }).start()) {
+            assertNull(sut.lastTaken());
+            sut.get();
+
+            PrefetchingSupplier.Fetched<Integer> fetched = sut.lastTaken();
+            assertTrue(fetched.getDurationNanos() >= TimeUnit.MILLISECONDS.toNanos(50));
+            assertTrue(fetched.getBufferedNanos() >= 0);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class RetryProfilerTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void callSiteShouldBeTheFirstFrameOutsideOfTheLibraryAndOfTheAssertions() {
+        StackTraceElement[] stackTrace = {
+                new StackTraceElement("me.alb_i986.testing.assertions.retry.internal.RetryProfiler", "record", "RetryProfiler.java", 10),
+                new StackTraceElement("me.alb_i986.testing.assertions.retry.RetryMatcher", "matchesSafely", "RetryMatcher.java", 20),
+                new StackTraceElement("org.hamcrest.TypeSafeMatcher", "matches", "TypeSafeMatcher.java", 30),
+                new StackTraceElement("org.hamcrest.MatcherAssert", "assertThat", "MatcherAssert.java", 40),
+                new StackTraceElement("org.junit.Assert", "assertThat", "Assert.java", 50),
+                new StackTraceElement("com.acme.OrderTest", "orderIsShipped", "OrderTest.java", 42),
+                new StackTraceElement("org.junit.runners.ParentRunner", "run", "ParentRunner.java", 60),
+        };
+
+        assertThat(RetryProfiler.callSite(stackTrace), is("com.acme.OrderTest.orderIsShipped(OrderTest.java:42)"));
+    }
+
+    @Test
+    public void shouldNotRecordWhenDisabled() throws Exception {
+        RetryProfiler sut = new RetryProfiler(false);
+        sut.record(3, 30_000_000, 20_000_000, true, false);
+        Path report = tmp.getRoot().toPath().resolve("report.csv");
+
+        sut.writeReport(report);
+
+        assertThat(Files.readAllLines(report, StandardCharsets.UTF_8), hasSize(1));
+    }
+
+    @Test
+    public void csvReport() throws Exception {
+        RetryProfiler sut = new RetryProfiler(true);
+        recordFromTheSameCallSite(sut);
+        Path report = tmp.getRoot().toPath().resolve("report.csv");
+
+        sut.writeReport(report);
+
+        List<String> lines = Files.readAllLines(report, StandardCharsets.UTF_8);
+        assertThat(lines, hasSize(2));
+        assertThat(lines.get(0), startsWith("callSite,invocations,attempts,matched,timeouts,otherFailures,totalTimeMs,totalWaitMs,"));
+        assertThat(lines.get(1), allOf(
+                startsWith("\"<unknown>\",3,10,2,1,0,90.000,60.000,"),
+                endsWith(",50.000")));
+    }
+
+    @Test
+    public void jsonReport() throws Exception {
+        RetryProfiler sut = new RetryProfiler(true);
+        recordFromTheSameCallSite(sut);
+        Path report = tmp.getRoot().toPath().resolve("nested/report.json");
+
+        sut.writeReport(report);
+
+        String json = new String(Files.readAllBytes(report), StandardCharsets.UTF_8);
+        assertThat(json, allOf(
+                containsString("\"callSite\": \"<unknown>\""),
+                containsString("\"invocations\": 3"),
+                containsString("\"attempts\": 10"),
+                containsString("\"timeouts\": 1"),
+                containsString("\"max\": 50.000")));
+    }
+
+    private static void recordFromTheSameCallSite(RetryProfiler sut) {
+        for (int i = 0; i < 3; i++) {
+            if (i < 2) {
+                sut.record(3, (10 + 40 * i) * 1_000_000L, 20_000_000, true, false);
+            } else {
+                sut.record(4, 30_000_000, 20_000_000, false, true);
+            }
+        }
+    }
+}
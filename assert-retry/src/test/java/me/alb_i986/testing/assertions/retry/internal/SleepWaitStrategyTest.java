@@ -35,4 +35,22 @@ public class SleepWaitStrategyTest {
 
         verify(sysSleeper).sleep(24 * 60 * 60 * 1000);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldSleepForTheMaximumGivenWhenShorter() throws Exception {
+        SleepWaitStrategy sut = new SleepWaitStrategy(Duration.ofSeconds(1), sysSleeper);
+
+        sut.runWait(Duration.ofMillis(300));
+
+        verify(sysSleeper).sleep(300);
+    }
+
+    @Test
+    public void shouldSleepForTheConfiguredDurationWhenShorterThanTheMaximumGiven() throws Exception {
+        SleepWaitStrategy sut = new SleepWaitStrategy(Duration.ofSeconds(1), sysSleeper);
+
+        sut.runWait(Duration.ofSeconds(2));
+
+        verify(sysSleeper).sleep(1000);
+    }
+}
@@ -0,0 +1,80 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SpinThenParkWaitStrategyTest {
+
+    private final List<Long> parks = new ArrayList<>();
+
+    @Test
+    public void shouldParkOnlyAfterSpinningAndYielding() throws Exception {
+        SpinThenParkWaitStrategy sut = new SpinThenParkWaitStrategy(2, 1,
+                Duration.ofNanos(100), Duration.ofNanos(350), parks::add);
+
+        for (int i = 0; i < 3; i++) {
+            sut.runWait();
+        }
+        assertTrue(parks.isEmpty());
+
+        for (int i = 0; i < 4; i++) {
+            sut.runWait();
+        }
+        assertEquals(asList(100L, 200L, 350L, 350L), parks);
+    }
+
+    @Test
+    public void shouldStartOverWhenReset() throws Exception {
+        SpinThenParkWaitStrategy sut = new SpinThenParkWaitStrategy(1, 0,
+                Duration.ofNanos(100), Duration.ofNanos(1000), parks::add);
+        sut.runWait();
+        sut.runWait();
+        sut.runWait();
+
+        sut.reset();
+        sut.runWait();
+        sut.runWait();
+
+        assertEquals(asList(100L, 200L, 100L), parks);
+    }
+
+    @Test
+    public void shouldParkNoLongerThanTheMaximumGiven() throws Exception {
+        SpinThenParkWaitStrategy sut = new SpinThenParkWaitStrategy(0, 0,
+                Duration.ofMillis(1), Duration.ofMillis(1), parks::add);
+
+        sut.runWait(Duration.ofNanos(10));
+
+        assertEquals(asList(10L), parks);
+    }
+
+    @Test
+    public void shouldThrowWhenInterrupted() {
+        SpinThenParkWaitStrategy sut = new SpinThenParkWaitStrategy(0, 0,
+                Duration.ofNanos(100), Duration.ofNanos(100), parks::add);
+        Thread.currentThread().interrupt();
+        try {
+            sut.runWait();
+            fail("InterruptedException expected");
+        } catch (InterruptedException expected) {
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectMinParkGreaterThanMaxPark() {
+        new SpinThenParkWaitStrategy(0, 0, Duration.ofMillis(2), Duration.ofMillis(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNegativeSpins() {
+        new SpinThenParkWaitStrategy(-1, 0, Duration.ofMillis(1), Duration.ofMillis(1));
+    }
+}
@@ -0,0 +1,57 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class ThrownExceptionsTest {
+
+    private final ThrownExceptions sut = new ThrownExceptions();
+    private final List<AssertRetryResult<String>> results = new ArrayList<>();
+
+    @Test
+    public void exceptionsWithTheSameSignatureAreCollapsedWhenInARow() {
+        for (int attempt = 1; attempt <= 1000; attempt++) {
+            sut.addTo(results, newException("Connection refused"), attempt);
+        }
+
+        assertEquals(1, results.size());
+        assertEquals(1, sut.getSignatures().size());
+        ExceptionSignature signature = sut.getSignatures().iterator().next();
+        assertEquals(1000, signature.getCount());
+        assertEquals(1, signature.getFirstAttempt());
+        assertEquals(1000, signature.getLastAttempt());
+        assertEquals(1, sut.getKeptExceptions().size());
+    }
+
+    @Test
+    public void messageAndTopFrameAreTheSignatureToo() {
+        sut.addTo(results, newException("a"), 1);
+        sut.addTo(results, newException("b"), 2);
+        sut.addTo(results, new IllegalStateException("a"), 3);
+
+        assertEquals(3, results.size());
+        assertEquals(3, sut.getSignatures().size());
+    }
+
+    @Test
+    public void onlyTheFirstFewExceptionsAreKept() {
+        for (int attempt = 1; attempt <= 10; attempt++) {
+            sut.addTo(results, newException("attempt " + attempt), attempt);
+        }
+
+        List<Exception> kept = sut.getKeptExceptions();
+        assertEquals(ThrownExceptions.MAX_KEPT_EXCEPTIONS, kept.size());
+        assertThat(kept.get(0).getMessage(), is("attempt 1"));
+        assertNull(new ArrayList<>(sut.getSignatures()).get(9).getFirstOccurrence());
+    }
+
+    private static Exception newException(String message) {
+        return new IllegalStateException(message); // always at the same line, hence with the same top frame
+    }
+}
@@ -80,4 +80,26 @@ public class TimeoutTest {
         aHundredMillisTimeout.reset();
         aHundredMillisTimeout.start();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void remaining() {
+        given(mockClock.instant())
+                .willReturn(INSTANT)
+                .willReturn(INSTANT.plusMillis(timeoutDuration - 30));
+
+        aHundredMillisTimeout.start();
+
+        assertEquals(Duration.ofMillis(30), aHundredMillisTimeout.getRemaining());
+    }
+
+    @Test
+    public void remainingIsZeroWhenExpired() {
+        given(mockClock.instant())
+                .willReturn(INSTANT)
+                .willReturn(INSTANT.plusMillis(timeoutDuration + 1));
+
+        aHundredMillisTimeout.start();
+
+        assertEquals(Duration.ZERO, aHundredMillisTimeout.getRemaining());
+    }
+}
@@ -0,0 +1,69 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.hamcrest.StringDescription;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ValueDiffTest {
+
+    @Test
+    public void textIsDescribedByTheSpanWhichChanged() {
+        assertEquals("diff: at index 7, removed \"PENDING\", added \"SHIPPED\"",
+                diff("status=PENDING;id=1", "status=SHIPPED;id=1"));
+        assertEquals("diff: at index 3, added \"def\"", diff("abc", "abcdef"));
+        assertEquals("diff: none", diff("abc", "abc"));
+    }
+
+    @Test
+    public void listsAreDescribedByTheElementsWhichChanged() {
+        assertEquals("diff: at index 2, added [\"c\", \"d\"]",
+                diff(Arrays.asList("a", "b"), Arrays.asList("a", "b", "c", "d")));
+        assertEquals("diff: at index 1, removed [\"b\"], added [\"x\"]",
+                diff(Arrays.asList("a", "b", "c"), Arrays.asList("a", "x", "c")));
+        assertEquals("diff: at index 0, removed [\"a\"]",
+                diff(new String[] {"a", "b"}, new String[] {"b"}));
+    }
+
+    @Test
+    public void otherCollectionsAreDescribedByTheElementsAddedAndRemoved() {
+        assertEquals("diff: added [\"d\"], removed [\"a\"]",
+                diff(new HashSet<>(Arrays.asList("a", "b")), new HashSet<>(Arrays.asList("b", "d"))));
+        assertEquals("diff: none", diff(Collections.singleton("a"), Collections.singleton("a")));
+    }
+
+    @Test
+    public void mapsAreDescribedByTheEntriesAddedRemovedAndChanged() {
+        Map<String, Integer> previous = new LinkedHashMap<>();
+        previous.put("a", 1);
+        previous.put("b", 2);
+        Map<String, Integer> current = new LinkedHashMap<>();
+        current.put("a", 10);
+        current.put("c", 3);
+
+        assertEquals("diff: added {\"c\"=<3>}, removed {\"b\"=<2>}, changed {\"a\": <1> -> <10>}",
+                diff(previous, current));
+    }
+
+    @Test
+    public void otherValuesHaveNoKnownDifferences() {
+        StringDescription description = new StringDescription();
+
+        assertFalse(ValueDiff.describe(1, 2, description));
+        assertFalse(ValueDiff.describe("a", Collections.singletonList("a"), description));
+        assertFalse(ValueDiff.describe(new int[] {1}, new int[] {2}, description));
+        assertEquals("", description.toString());
+    }
+
+    private static String diff(Object previous, Object current) {
+        StringDescription description = new StringDescription();
+        assertTrue(ValueDiff.describe(previous, current, description));
+        return description.toString();
+    }
+}
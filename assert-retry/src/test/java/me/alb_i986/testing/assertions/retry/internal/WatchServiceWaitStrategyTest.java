@@ -0,0 +1,124 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import me.alb_i986.testing.assertions.retry.RetryConfig;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static me.alb_i986.testing.assertions.retry.RetryMatcher.eventually;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertFalse;
+
+public class WatchServiceWaitStrategyTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+
+    private WatchServiceWaitStrategy sut;
+
+    @After
+    public void tearDown() throws IOException {
+        executor.shutdownNow();
+        if (sut != null) {
+            sut.close();
+        }
+    }
+
+    @Test
+    public void shouldWakeUpWhenTheWatchedFileIsCreated() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("export.csv");
+        sut = new WatchServiceWaitStrategy(file, Duration.ofSeconds(20));
+        sut.reset();
+        executor.schedule(() -> write(file), 100, TimeUnit.MILLISECONDS);
+
+        long elapsedMillis = timeWait();
+
+        assertThat(elapsedMillis, lessThan(15_000L));
+    }
+
+    @Test
+    public void shouldNotWakeUpForOtherFilesInTheSameDirectory() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("export.csv");
+        sut = new WatchServiceWaitStrategy(file, Duration.ofMillis(500));
+        sut.reset();
+        write(folder.getRoot().toPath().resolve("other.csv"));
+
+        long elapsedMillis = timeWait();
+
+        assertThat(elapsedMillis, greaterThanOrEqualTo(500L));
+    }
+
+    @Test
+    public void shouldDiscardTheChangesHappenedBeforeTheReset() throws Exception {
+        Path dir = folder.newFolder("spool").toPath();
+        sut = new WatchServiceWaitStrategy(dir, Duration.ofMillis(500));
+        sut.reset();
+        write(dir.resolve("1.msg"));
+        Thread.sleep(100);
+
+        sut.reset();
+        long elapsedMillis = timeWait();
+
+        assertThat(elapsedMillis, greaterThanOrEqualTo(500L));
+    }
+
+    @Test
+    public void shouldSleepForTheFallbackTimeoutWhenTheDirectoryDoesNotExist() throws Exception {
+        sut = new WatchServiceWaitStrategy(folder.getRoot().toPath().resolve("missing").resolve("export.csv"),
+                Duration.ofMillis(300));
+        sut.reset();
+
+        long elapsedMillis = timeWait();
+
+        assertThat(elapsedMillis, greaterThanOrEqualTo(300L));
+    }
+
+    @Test
+    public void shouldCloseTheWatchServiceAtTheEndOfTheRetryLoop() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("export.csv");
+        RetryConfig config = RetryConfig.builder()
+                .timeoutAfter(Duration.ofSeconds(30))
+                .waitForChangesOf(file, Duration.ofSeconds(20))
+                .doNotRetryOnException()
+                .build();
+        sut = (WatchServiceWaitStrategy) config.getWaitStrategy();
+        executor.schedule(() -> write(file), 100, TimeUnit.MILLISECONDS);
+
+        assertThat(() -> Files.exists(file), eventually(is(true), config));
+
+        assertFalse(sut.isWatching());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositiveFallback() {
+        new WatchServiceWaitStrategy(folder.getRoot().toPath(), Duration.ZERO);
+    }
+
+    private long timeWait() throws InterruptedException {
+        long start = System.nanoTime();
+        sut.runWait();
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private static void write(Path file) {
+        try {
+            Files.write(file, "a,b,c".getBytes());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
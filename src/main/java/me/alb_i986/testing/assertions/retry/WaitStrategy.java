@@ -1,8 +0,0 @@
-package me.alb_i986.testing.assertions.retry;
-
-public interface WaitStrategy {
-
-    void runWait() throws Exception;
-
-    String getDescription();
-}
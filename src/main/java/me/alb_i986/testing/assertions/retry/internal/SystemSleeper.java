@@ -1,8 +0,0 @@
-package me.alb_i986.testing.assertions.retry.internal;
-
-public class SystemSleeper {
-
-    public void sleep(long millis) throws InterruptedException {
-        Thread.sleep(millis);
-    }
-}